@@ -0,0 +1,68 @@
+package home.ivishnyakova.store.cache;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*Класс CacheStatistics содержит счетчики работы кеша:
+* количество попаданий, промахов, вытеснений и устаревших (по времени жизни) записей.
+* Счетчики потокобезопасны.
+*
+* Автор: Вишнякова И.
+* */
+public class CacheStatistics implements Serializable {
+
+    private final AtomicLong hits = new AtomicLong();       //попадания в кеш
+    private final AtomicLong misses = new AtomicLong();     //промахи
+    private final AtomicLong evictions = new AtomicLong();  //вытесненные записи
+    private final AtomicLong expirations = new AtomicLong(); //записи, удаленные по истечении времени жизни
+
+    public void recordHit() {
+        hits.incrementAndGet();
+    }
+
+    public void recordMiss() {
+        misses.incrementAndGet();
+    }
+
+    public void recordEviction() {
+        evictions.incrementAndGet();
+    }
+
+    public void recordExpiration() {
+        expirations.incrementAndGet();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getExpirations() {
+        return expirations.get();
+    }
+
+    //доля попаданий в кеш от общего количества обращений
+    public double getHitRatio() {
+        long hitsTmp = hits.get();
+        long requests = hitsTmp + misses.get();
+        return requests == 0 ? 0.0 : (double) hitsTmp / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStatistics{" +
+                "hits=" + getHits() +
+                ", misses=" + getMisses() +
+                ", evictions=" + getEvictions() +
+                ", expirations=" + getExpirations() +
+                ", hitRatio=" + getHitRatio() +
+                '}';
+    }
+}
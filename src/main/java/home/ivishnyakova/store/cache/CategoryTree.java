@@ -0,0 +1,167 @@
+package home.ivishnyakova.store.cache;
+
+import home.ivishnyakova.store.entity.Category;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/*Класс CategoryTree - неизменяемый снимок дерева категорий товаров.
+*
+* Снимок содержит индексы категорий: по коду, по родительской категории (родитель -> подкатегории),
+* по уровню вложенности, а также полные названия категорий в дереве.
+* Списки индексов отсортированы при построении снимка, поэтому запросы к снимку
+* только копируют готовые списки. Порядок названий и полных названий задается при построении
+* (порядок сортировки БД - ORDER BY name, ORDER BY full_name), т.к. сортировка строк в Java
+* (по кодам символов) отличается от сортировки БД (регистр букв, буква Ё). Методы возвращают копии категорий,
+* поэтому изменение полученных категорий не изменяет снимок.
+* Снимок не изменяется после создания и может читаться из нескольких потоков без блокировок.
+*
+* Автор: Вишнякова И.
+* */
+public final class CategoryTree {
+
+    //пустое дерево (категорий нет)
+    public static final CategoryTree EMPTY = new CategoryTree(Collections.emptyList(), Collections.emptyMap(),
+            Collections.emptyMap(), Collections.emptyMap());
+
+    private final Map<Integer, Category> categories;            //категории по коду (по уровню, коду)
+    private final Map<Integer, List<Category>> children;        //подкатегории по коду родителя (0 - для корня)
+    private final Map<Short, List<Category>> levels;            //категории по уровню (по названию)
+    private final Map<Short, List<Category>> fullNameLevels;    //категории с полным названием по уровню
+    private final Map<Integer, Category> fullNameCategories;    //категории с полным названием по коду
+    private final Comparator<Category> byFullName;              //сортировка по полному названию
+
+    /*Конструктор строит снимок дерева категорий.
+    * @param    categories - все категории (по возрастанию уровня и кода).
+    * @param    fullNames - полные названия категорий в дереве по коду категории.
+    * @param    nameOrder - номер категории в списке всех категорий по названию (по коду категории).
+    * @param    fullNameOrder - номер категории в списке всех категорий по полному названию (по коду категории).
+    * */
+    public CategoryTree(Collection<Category> categories, Map<Integer, String> fullNames,
+                        Map<Integer, Integer> nameOrder, Map<Integer, Integer> fullNameOrder) {
+        Comparator<Category> byName = byOrder(nameOrder);
+        Comparator<Category> byFullName = byOrder(fullNameOrder);
+
+        Map<Integer, Category> byId = new LinkedHashMap<>();
+        Map<Integer, List<Category>> byParent = new HashMap<>();
+        Map<Short, List<Category>> byLevel = new HashMap<>();
+        Map<Short, List<Category>> fullNameByLevel = new HashMap<>();
+        Map<Integer, Category> fullNameById = new HashMap<>();
+
+        for (Category category : categories) {
+            Category copy = copyOf(category);
+            Category fullNameCopy = new Category(category.getId(), fullNames.getOrDefault(category.getId(), category.getName()),
+                    category.getNo_level(), category.getId_category());
+
+            byId.put(copy.getId(), copy);
+            byParent.computeIfAbsent(copy.getId_category(), key -> new ArrayList<>()).add(copy);
+            byLevel.computeIfAbsent(copy.getNo_level(), key -> new ArrayList<>()).add(copy);
+            fullNameByLevel.computeIfAbsent(copy.getNo_level(), key -> new ArrayList<>()).add(fullNameCopy);
+            fullNameById.put(copy.getId(), fullNameCopy);
+        }
+
+        this.categories = Collections.unmodifiableMap(byId);
+        this.children = sorted(byParent, byName);
+        this.levels = sorted(byLevel, byName);
+        this.fullNameLevels = sorted(fullNameByLevel, byFullName);
+        this.fullNameCategories = Collections.unmodifiableMap(fullNameById);
+        this.byFullName = byFullName;
+    }
+
+    //кол-во категорий в дереве
+    public int size() {
+        return categories.size();
+    }
+
+    //категория по коду или null - если категории нет в дереве
+    public Category getCategory(int id) {
+        Category category = categories.get(id);
+        return category == null ? null : copyOf(category);
+    }
+
+    //все категории (по возрастанию уровня и кода)
+    public List<Category> getCategories() {
+        return copyOf(categories.values());
+    }
+
+    //категории уровня no_level (по названию)
+    public List<Category> getCategoriesByLevel(short no_level) {
+        return copyOf(levels.getOrDefault(no_level, Collections.emptyList()));
+    }
+
+    //категории уровня no_level с родительской категорией id_category (0 - без родительской категории)
+    public List<Category> getChildren(int id_category, short no_level) {
+        List<Category> result = new ArrayList<>();
+        for (Category category : children.getOrDefault(id_category, Collections.emptyList())) {
+            if (category.getNo_level() == no_level)
+                result.add(copyOf(category));
+        }
+        return result;
+    }
+
+    //категории уровня no_level, название категории - полное название в дереве (по полному названию)
+    public List<Category> getFullNameCategoriesByLevel(short no_level) {
+        return copyOf(fullNameLevels.getOrDefault(no_level, Collections.emptyList()));
+    }
+
+    /*Метод getSubtree возвращает категорию id и все ее подкатегории (на всех уровнях вложенности).
+    * Название категории - полное название в дереве.
+    * @return   список категорий (по полному названию) или пустой список - если категории нет в дереве.
+    * */
+    public List<Category> getSubtree(int id) {
+        List<Category> result = new ArrayList<>();
+        if (!categories.containsKey(id))
+            return result;
+
+        Deque<Integer> stack = new ArrayDeque<>();
+        stack.push(id);
+        while (!stack.isEmpty()) {
+            int current = stack.pop();
+            result.add(copyOf(fullNameCategories.get(current)));
+            for (Category child : children.getOrDefault(current, Collections.emptyList()))
+                stack.push(child.getId());
+        }
+        result.sort(byFullName);
+        return result;
+    }
+
+    //передать все категории (по возрастанию уровня и кода) обработчику consumer
+    public void forEach(Consumer<Category> consumer) {
+        categories.values().forEach(category -> consumer.accept(copyOf(category)));
+    }
+
+    //сортировка категорий по номеру в order (категории без номера - в конце, по коду)
+    private static Comparator<Category> byOrder(Map<Integer, Integer> order) {
+        return Comparator.<Category>comparingInt(category -> order.getOrDefault(category.getId(), Integer.MAX_VALUE))
+                .thenComparingInt(Category::getId);
+    }
+
+    //неизменяемые списки отображения, отсортированные согласно comparator
+    private static <K> Map<K, List<Category>> sorted(Map<K, List<Category>> index, Comparator<Category> comparator) {
+        Map<K, List<Category>> result = new HashMap<>();
+        index.forEach((key, list) -> {
+            list.sort(comparator);
+            result.put(key, Collections.unmodifiableList(list));
+        });
+        return Collections.unmodifiableMap(result);
+    }
+
+    private static List<Category> copyOf(Collection<Category> categories) {
+        List<Category> result = new ArrayList<>(categories.size());
+        categories.forEach(category -> result.add(copyOf(category)));
+        return result;
+    }
+
+    private static Category copyOf(Category category) {
+        return new Category(category.getId(), category.getName(), category.getNo_level(), category.getId_category());
+    }
+}
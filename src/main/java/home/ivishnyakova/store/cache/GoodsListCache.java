@@ -0,0 +1,42 @@
+package home.ivishnyakova.store.cache;
+
+import home.ivishnyakova.store.entity.Goods;
+
+import java.util.List;
+import java.util.Optional;
+
+/*Класс GoodsListCache представляет собой кеш списков товаров (результатов запросов)
+* по ключу запроса, ограниченный по объему занимаемой памяти (maxBytes).
+* Размер списка оценивается по кол-ву товаров и длине наименований и описаний.
+*
+* Автор: Вишнякова И.
+* */
+public class GoodsListCache<K> extends WeightedLruCache<K, List<Goods>> {
+
+    //оценка памяти на товар без строк (ссылка в списке, объект, поля), байт
+    private static final long GOODS_BYTES = 64;
+    //оценка памяти на строку без символов, байт
+    private static final long STRING_BYTES = 40;
+    //оценка памяти на список без товаров, байт
+    private static final long LIST_BYTES = 64;
+
+    /*Конструктор создает кеш.
+    * @param    maxBytes - макс. суммарный размер списков, байт (0 - кеш отключен).
+    * @param    maxListBytes - макс. размер одного списка, байт.
+    * */
+    public GoodsListCache(long maxBytes, long maxListBytes) {
+        super(maxBytes, maxListBytes, GoodsListCache::estimateSize);
+    }
+
+    /*Метод estimateSize возвращает приблизительный объем памяти, занимаемый списком товаров, байт.*/
+    public static long estimateSize(List<Goods> goodsList) {
+        long size = LIST_BYTES;
+        for (Goods goods : goodsList)
+            size += GOODS_BYTES + estimateSize(goods.getName()) + estimateSize(goods.getDescription());
+        return size;
+    }
+
+    private static long estimateSize(String text) {
+        return Optional.ofNullable(text).map(value -> STRING_BYTES + 2L * value.length()).orElse(0L);
+    }
+}
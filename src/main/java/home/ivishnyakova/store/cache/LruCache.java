@@ -0,0 +1,131 @@
+package home.ivishnyakova.store.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/*Класс LruCache представляет собой кеш со сквозным чтением (read-through):
+* при промахе значение загружается функцией loader и сохраняется в кеше.
+*
+* Кеш ограничен по размеру: при переполнении вытесняется запись,
+* которая дольше всех не использовалась (LRU). Каждая запись хранится не дольше ttl,
+* после чего при следующем обращении загружается заново.
+* Значения null не кешируются. Загрузка выполняется вне блокировки кеша,
+* а запись, загруженная до вызова invalidate/invalidateAll, в кеш не сохраняется.
+* Кеш с размером 0 отключен: каждое обращение выполняет загрузку.
+* Методы потокобезопасны.
+*
+* Автор: Вишнякова И.
+* */
+public class LruCache<K, V> {
+
+    private final int maxSize;                  //макс. количество записей
+    private final long ttlNanos;                //время жизни записи (0 - не ограничено)
+    private final CacheStatistics statistics = new CacheStatistics();
+
+    //записи в порядке последнего использования
+    private final LinkedHashMap<K, CacheEntry<V>> entries;
+
+    //версия данных кеша (изменяется при удалении записей)
+    private long version;
+
+    /*Конструктор создает кеш.
+    * @param    maxSize - макс. количество записей (0 - кеш отключен).
+    * @param    ttlSeconds - время жизни записи в секундах (0 - не ограничено).
+    * */
+    public LruCache(int maxSize, long ttlSeconds) {
+        if (maxSize < 0 || ttlSeconds < 0)
+            throw new IllegalArgumentException("The size and the ttl of the cache must not be negative");
+
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.entries = new LinkedHashMap<K, CacheEntry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+                if (size() > LruCache.this.maxSize) {
+                    statistics.recordEviction();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /*Метод get возвращает значение по ключу key из кеша или загружает его функцией loader.
+    * @param    key - ключ.
+    * @param    loader - загрузка значения при промахе (исключения loader передаются вызывающему).
+    * @return   значение (null - если loader вернул null).
+    * */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        long loadVersion;
+        synchronized (this) {
+            CacheEntry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (!entry.isExpired(System.nanoTime())) {
+                    statistics.recordHit();
+                    return entry.value;
+                }
+                entries.remove(key);
+                statistics.recordExpiration();
+            }
+            statistics.recordMiss();
+            loadVersion = version;
+        }
+
+        V value = loader.apply(key);
+
+        if (value != null && maxSize > 0) {
+            synchronized (this) {
+                //данные изменились во время загрузки - значение может быть устаревшим
+                if (loadVersion == version)
+                    entries.put(key, new CacheEntry<>(value, ttlNanos == 0 ? 0 : System.nanoTime() + ttlNanos));
+            }
+        }
+        return value;
+    }
+
+    //удаление записи по ключу key
+    public synchronized void invalidate(K key) {
+        version++;
+        entries.remove(key);
+    }
+
+    //удаление всех записей
+    public synchronized void invalidateAll() {
+        version++;
+        entries.clear();
+    }
+
+    //текущее количество записей (включая устаревшие, еще не удаленные записи)
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getTtlSeconds() {
+        return TimeUnit.NANOSECONDS.toSeconds(ttlNanos);
+    }
+
+    public CacheStatistics getStatistics() {
+        return statistics;
+    }
+
+    /*Класс CacheEntry - запись кеша: значение и момент окончания срока жизни (System.nanoTime).*/
+    private static class CacheEntry<V> {
+        private final V value;
+        private final long expiresAt;   //0 - срок жизни не ограничен
+
+        CacheEntry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return expiresAt != 0 && now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package home.ivishnyakova.store.cache;
+
+/*Класс PageCache представляет собой кеш сформированных веб-страниц (тело ответа в байтах
+* и тип содержимого) по ключу страницы.
+*
+* Кеш ограничен по объему: сумма размеров хранимых страниц не превышает maxBytes,
+* при переполнении вытесняются страницы, которые дольше всех не использовались (LRU).
+* Страницы больше maxPageBytes не кешируются.
+* Страница, сформированная до вызова invalidateAll (версия которой устарела), в кеш не сохраняется.
+* Кеш с объемом 0 отключен. Методы потокобезопасны.
+*
+* Автор: Вишнякова И.
+* */
+public class PageCache extends WeightedLruCache<String, PageCache.Page> {
+
+    /*Конструктор создает кеш.
+    * @param    maxBytes - макс. суммарный размер страниц, байт (0 - кеш отключен).
+    * @param    maxPageBytes - макс. размер одной страницы, байт.
+    * */
+    public PageCache(long maxBytes, int maxPageBytes) {
+        super(maxBytes, maxPageBytes, Page::size);
+    }
+
+    //суммарный размер страниц, байт
+    public long getBytes() {
+        return getWeight();
+    }
+
+    public long getMaxBytes() {
+        return getMaxWeight();
+    }
+
+    public int getMaxPageBytes() {
+        return (int) getMaxEntryWeight();
+    }
+
+    /*Класс Page - сформированная страница: тип содержимого (с кодировкой) и тело ответа.*/
+    public static class Page {
+        private final String contentType;
+        private final byte[] content;
+
+        public Page(String contentType, byte[] content) {
+            this.contentType = contentType;
+            this.content = content;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public byte[] getContent() {
+            return content;
+        }
+
+        public int size() {
+            return content.length;
+        }
+    }
+}
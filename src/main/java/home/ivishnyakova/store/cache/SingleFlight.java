@@ -0,0 +1,115 @@
+package home.ivishnyakova.store.cache;
+
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/*Класс SingleFlight предназначен для объединения одинаковых одновременных запросов:
+* если запрос с ключом key уже выполняется другим потоком, то поток не выполняет запрос,
+* а ожидает его результат (не дольше timeoutMillis). Результат (или исключение) запроса
+* получают все ожидающие потоки, поэтому результат общий и изменять его не следует.
+*
+* Запрос выполняется в потоке, который начал его первым. Запрос, начатый после завершения
+* предыдущего запроса с тем же ключом или после вызова forgetAll (изменение данных),
+* выполняется заново (результаты не хранятся).
+* Методы потокобезопасны.
+*
+* Автор: Вишнякова И.
+* */
+public class SingleFlight<K> {
+
+    private final long timeoutMillis;           //макс. время ожидания результата запроса, мс
+
+    //выполняемые запросы по ключу
+    private final ConcurrentMap<K, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+
+    private final AtomicLong executions = new AtomicLong();     //выполненные запросы
+    private final AtomicLong coalesced = new AtomicLong();      //запросы, получившие результат другого потока
+
+    /*Конструктор создает объект.
+    * @param    timeoutMillis - макс. время ожидания результата запроса другого потока, мс.
+    * */
+    public SingleFlight(long timeoutMillis) {
+        if (timeoutMillis <= 0)
+            throw new IllegalArgumentException("The timeout must be greater than 0");
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /*Метод execute выполняет запрос query с ключом key или ожидает результат такого же запроса,
+    * выполняемого другим потоком.
+    * @param    key - ключ запроса (одинаковые запросы - равные ключи).
+    * @param    query - запрос.
+    * @return   результат запроса.
+    * @throws   исключение, возникшее при выполнении запроса (например, StoreException).
+    * @throws   QueryTimeoutException - результат запроса другого потока не получен за timeoutMillis
+    *           (или ожидание прервано).
+    * */
+    @SuppressWarnings("unchecked")
+    public <V> V execute(K key, Supplier<V> query) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> current = flights.putIfAbsent(key, flight);
+        if (current != null) {
+            coalesced.incrementAndGet();
+            return (V) await(key, current);
+        }
+
+        executions.incrementAndGet();
+        try {
+            V result = query.get();
+            flights.remove(key, flight);
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flights.remove(key, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /*Метод forgetAll вызывается при изменении данных: запросы, начатые после вызова,
+    * не ожидают результатов запросов, начатых до вызова (результаты которых могут быть устаревшими),
+    * а выполняются заново. Потоки, уже ожидающие результаты, получают их как обычно.
+    * */
+    public void forgetAll() {
+        flights.clear();
+    }
+
+    //кол-во выполненных запросов
+    public long getExecutions() {
+        return executions.get();
+    }
+
+    //кол-во запросов, получивших результат запроса другого потока
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    //ожидание результата запроса другого потока
+    private Object await(K key, CompletableFuture<Object> flight) {
+        try {
+            return flight.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error)
+                throw (Error) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("The result of the query " + key + " was not received in " + timeoutMillis + " ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueryTimeoutException("The waiting for the result of the query " + key + " was interrupted", e);
+        }
+    }
+}
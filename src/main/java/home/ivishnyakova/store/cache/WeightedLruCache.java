@@ -0,0 +1,172 @@
+package home.ivishnyakova.store.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/*Класс WeightedLruCache представляет собой кеш, ограниченный по объему: размер каждого значения
+* (в байтах, приблизительно) определяется функцией weigher, сумма размеров значений не превышает maxWeight.
+* При переполнении вытесняются записи, которые дольше всех не использовались (LRU).
+* Значения больше maxEntryWeight не кешируются.
+*
+* Каждая запись помечена версией данных кеша на момент начала загрузки значения.
+* Версия увеличивается при вызове invalidateAll (изменение данных), поэтому значение, загруженное
+* до изменения данных, в кеш не сохраняется и из кеша не выдается.
+* Значение можно получить со сквозным чтением (get с загрузкой) или загрузить вне кеша
+* и сохранить методом put с версией, полученной до загрузки (getVersion).
+* Значения null не кешируются. Кеш с объемом 0 отключен. Методы потокобезопасны.
+*
+* Автор: Вишнякова И.
+* */
+public class WeightedLruCache<K, V> {
+
+    private final long maxWeight;               //макс. суммарный размер значений, байт
+    private final long maxEntryWeight;          //макс. размер одного значения, байт
+    private final ToLongFunction<? super V> weigher;   //размер значения, байт
+    private final CacheStatistics statistics = new CacheStatistics();
+
+    //записи в порядке последнего использования
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long weight;                        //суммарный размер значений, байт
+    private long version;                       //версия данных кеша (изменяется при удалении записей)
+
+    /*Конструктор создает кеш.
+    * @param    maxWeight - макс. суммарный размер значений, байт (0 - кеш отключен).
+    * @param    maxEntryWeight - макс. размер одного значения, байт.
+    * @param    weigher - размер значения, байт.
+    * */
+    public WeightedLruCache(long maxWeight, long maxEntryWeight, ToLongFunction<? super V> weigher) {
+        if (maxWeight < 0 || maxEntryWeight < 0)
+            throw new IllegalArgumentException("The size limits of the cache must not be negative");
+
+        this.maxWeight = maxWeight;
+        this.maxEntryWeight = Math.min(maxEntryWeight, maxWeight);
+        this.weigher = weigher;
+    }
+
+    //кеш включен
+    public boolean isEnabled() {
+        return maxWeight > 0;
+    }
+
+    /*Метод get возвращает значение по ключу key.
+    * @return   значение (null - значение не найдено).
+    * */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.version != version) {
+            remove(key);
+            statistics.recordExpiration();
+            entry = null;
+        }
+        if (entry == null) {
+            statistics.recordMiss();
+            return null;
+        }
+        statistics.recordHit();
+        return entry.value;
+    }
+
+    /*Метод get возвращает значение по ключу key из кеша или загружает его функцией loader.
+    * Загрузка выполняется вне блокировки кеша.
+    * @param    key - ключ.
+    * @param    loader - загрузка значения при промахе (исключения loader передаются вызывающему).
+    * @return   значение (null - если loader вернул null).
+    * */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        long loadVersion;
+        synchronized (this) {
+            V value = get(key);
+            if (value != null)
+                return value;
+            loadVersion = version;
+        }
+
+        V value = loader.apply(key);
+        if (value != null)
+            put(key, value, loadVersion);
+        return value;
+    }
+
+    /*Метод getVersion возвращает текущую версию данных кеша.
+    * Версию следует получить до загрузки значения и передать в метод put.
+    * */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /*Метод put сохраняет значение в кеше.
+    * @param    key - ключ.
+    * @param    value - значение.
+    * @param    valueVersion - версия данных кеша на момент начала загрузки значения.
+    * @return   true - значение сохранено; false - значение слишком большое или устарело.
+    * */
+    public synchronized boolean put(K key, V value, long valueVersion) {
+        long valueWeight = weigher.applyAsLong(value);
+        if (!isEnabled() || valueWeight > maxEntryWeight || valueVersion != version)
+            return false;
+
+        remove(key);
+
+        Iterator<Entry<V>> eldest = entries.values().iterator();
+        while (weight + valueWeight > maxWeight && eldest.hasNext()) {
+            weight -= eldest.next().weight;
+            eldest.remove();
+            statistics.recordEviction();
+        }
+
+        entries.put(key, new Entry<>(value, valueWeight, valueVersion));
+        weight += valueWeight;
+        return true;
+    }
+
+    //удаление всех записей (данные изменились)
+    public synchronized void invalidateAll() {
+        version++;
+        entries.clear();
+        weight = 0;
+    }
+
+    //текущее количество записей
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    //суммарный размер значений, байт
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    public long getMaxEntryWeight() {
+        return maxEntryWeight;
+    }
+
+    public CacheStatistics getStatistics() {
+        return statistics;
+    }
+
+    private void remove(K key) {
+        Entry<V> entry = entries.remove(key);
+        if (entry != null)
+            weight -= entry.weight;
+    }
+
+    /*Класс Entry - запись кеша: значение, его размер и версия данных кеша, при которой оно загружено.*/
+    private static class Entry<V> {
+        private final V value;
+        private final long weight;
+        private final long version;
+
+        Entry(V value, long weight, long version) {
+            this.value = value;
+            this.weight = weight;
+            this.version = version;
+        }
+    }
+}
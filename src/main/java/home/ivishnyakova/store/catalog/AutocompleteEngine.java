@@ -0,0 +1,140 @@
+package home.ivishnyakova.store.catalog;
+
+import home.ivishnyakova.store.dao.ProducerDao;
+import home.ivishnyakova.store.entity.Producer;
+import home.ivishnyakova.store.exceptions.StoreException;
+import home.ivishnyakova.store.utils.LoggerUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*Класс AutocompleteEngine предназначен для подсказок наименований товаров и производителей
+* при вводе текста поиска (без обращения к БД).
+*
+* Хранит префиксный индекс AutocompleteIndex, построенный по снимку каталога товаров
+* (CatalogEngine) и списку производителей. Индекс устаревает при изменении товаров
+* (CatalogEngine заменил снимок каталога) или производителей (событие CatalogEvent PRODUCERS
+* или CATALOG). Первый индекс строится при первом обращении; устаревший индекс строится заново
+* в фоновом потоке, а до окончания построения подсказки выбираются из прежнего индекса,
+* поэтому построение индекса по большому каталогу не задерживает запросы.
+* Несколько изменений подряд приводят к одному построению индекса.
+*
+* Автор: Вишнякова И.
+* */
+@Component
+public class AutocompleteEngine {
+
+    //для логирования
+    private static final Logger logger = LogManager.getLogger(LoggerUtil.getClassName());
+
+    //для получения наименований товаров
+    @Autowired
+    private CatalogEngine catalogEngine;
+
+    //для загрузки производителей
+    @Autowired
+    private ProducerDao producerDao;
+
+    //текущий индекс и данные, по которым он построен (null - индекс не построен)
+    private final AtomicReference<State> state = new AtomicReference<>();
+
+    //версия списка производителей (изменяется при изменении производителей)
+    private final AtomicLong producersVersion = new AtomicLong();
+
+    //поток построения индекса
+    @Resource(name = "autocompleteExecutor")
+    private Executor buildExecutor;
+
+    //индекс строится в фоновом потоке
+    private final AtomicBoolean building = new AtomicBoolean();
+
+    /*Метод complete возвращает подсказки для префикса prefix (см. AutocompleteIndex.complete).
+    * @throws   StoreException - произошла ошибка при загрузке товаров или производителей.
+    * */
+    public List<AutocompleteIndex.Completion> complete(String prefix, int limit) {
+        return getIndex().complete(prefix, limit);
+    }
+
+    //изменение производителей или всего каталога
+    @EventListener
+    @Order(CatalogEvent.REFRESH_ORDER)
+    public void onCatalogChanged(CatalogEvent event) {
+        if (event.getChange() == CatalogEvent.Change.PRODUCERS || event.getChange() == CatalogEvent.Change.CATALOG)
+            producersVersion.incrementAndGet();
+    }
+
+    //текущий индекс (устаревший индекс возвращается до окончания построения нового индекса)
+    private AutocompleteIndex getIndex() {
+        CatalogSnapshot snapshot = catalogEngine.getSnapshot();
+        State current = state.get();
+        if (current == null)
+            return buildIndex(snapshot);
+
+        if (!current.isActual(snapshot, producersVersion.get()) && building.compareAndSet(false, true)) {
+            buildExecutor.execute(() -> {
+                try {
+                    buildIndex(catalogEngine.getSnapshot());
+                } catch (StoreException e) {
+                    logger.error("The autocomplete index was not built", e);
+                } finally {
+                    building.set(false);
+                }
+            });
+        }
+        return current.index;
+    }
+
+    //построение индекса, если он еще не построен другим потоком
+    private synchronized AutocompleteIndex buildIndex(CatalogSnapshot snapshot) {
+        long version = producersVersion.get();
+        State current = state.get();
+        if (current != null && current.isActual(snapshot, version))
+            return current.index;
+
+        List<Producer> producers = current != null && current.producersVersion == version ?
+                current.producers : producerDao.getProducerList();
+
+        List<AutocompleteIndex.Completion> completions = new ArrayList<>(snapshot.size() + producers.size());
+        for (int position = 0; position < snapshot.size(); position++)
+            completions.add(new AutocompleteIndex.Completion(AutocompleteIndex.Completion.GOODS,
+                    snapshot.getId(position), snapshot.getName(position)));
+        for (Producer producer : producers)
+            completions.add(new AutocompleteIndex.Completion(AutocompleteIndex.Completion.PRODUCER,
+                    producer.getId(), producer.getName()));
+
+        AutocompleteIndex index = new AutocompleteIndex(completions);
+        state.set(new State(snapshot, producers, version, index));
+        logger.info("The autocomplete index was built: " + index.size() + " names");
+        return index;
+    }
+
+    /*Класс State - индекс и данные, по которым он построен.*/
+    private static class State {
+        private final CatalogSnapshot snapshot;     //снимок каталога товаров
+        private final List<Producer> producers;     //производители
+        private final long producersVersion;        //версия списка производителей
+        private final AutocompleteIndex index;      //индекс
+
+        State(CatalogSnapshot snapshot, List<Producer> producers, long producersVersion, AutocompleteIndex index) {
+            this.snapshot = snapshot;
+            this.producers = producers;
+            this.producersVersion = producersVersion;
+            this.index = index;
+        }
+
+        boolean isActual(CatalogSnapshot snapshot, long producersVersion) {
+            return this.snapshot == snapshot && this.producersVersion == producersVersion;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package home.ivishnyakova.store.catalog;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/*Класс AutocompleteIndex - неизменяемый префиксный индекс наименований
+* для подсказок при вводе текста поиска (наименования товаров и производителей).
+*
+* Индекс - отсортированные массивы ключей: ключ - начало наименования или начало слова
+* внутри наименования (в нижнем регистре). Ключ хранится как номер наименования и смещение
+* в наименовании, поэтому подстроки наименований не создаются. Поиск ключей по префиксу -
+* двоичный поиск первого ключа и просмотр следующих ключей, пока они начинаются с префикса.
+* Сначала возвращаются наименования, которые начинаются с префикса, затем наименования,
+* в которых с префикса начинается слово; в каждой группе - по алфавиту.
+* Методы возвращают копии подсказок.
+* Индекс не изменяется после создания и может читаться из нескольких потоков без блокировок.
+*
+* Автор: Вишнякова И.
+* */
+public final class AutocompleteIndex {
+
+    //пустой индекс
+    public static final AutocompleteIndex EMPTY = new AutocompleteIndex(Collections.emptyList());
+
+    private final Completion[] completions;     //подсказки (тип, код, наименование)
+    private final String[] keys;                //наименования подсказок в нижнем регистре
+    private final int[] names;                  //номера подсказок по алфавиту
+    private final int[] wordEntries;            //номера подсказок ключей слов (по алфавиту ключей)
+    private final int[] wordOffsets;            //смещения ключей слов в наименовании
+
+    /*Конструктор строит индекс.
+    * @param    completions - подсказки (наименования товаров и производителей).
+    * */
+    public AutocompleteIndex(List<Completion> completions) {
+        int size = completions.size();
+        this.completions = completions.toArray(new Completion[size]);
+        keys = new String[size];
+        List<long[]> words = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            keys[i] = normalize(this.completions[i].getName());
+            for (int offset = 1; offset < keys[i].length(); offset++) {
+                if (!Character.isLetterOrDigit(keys[i].charAt(offset - 1)) && Character.isLetterOrDigit(keys[i].charAt(offset)))
+                    words.add(new long[]{i, offset});
+            }
+        }
+
+        names = sortedPositions(size, Comparator.comparing((Integer entry) -> keys[entry]));
+
+        Comparator<long[]> byKey = (a, b) -> compareKeys(keys[(int) a[0]], (int) a[1], keys[(int) b[0]], (int) b[1]);
+        words.sort(byKey);
+        wordEntries = new int[words.size()];
+        wordOffsets = new int[words.size()];
+        for (int i = 0; i < words.size(); i++) {
+            wordEntries[i] = (int) words.get(i)[0];
+            wordOffsets[i] = (int) words.get(i)[1];
+        }
+    }
+
+    //кол-во наименований в индексе
+    public int size() {
+        return completions.length;
+    }
+
+    /*Метод complete возвращает подсказки для префикса prefix.
+    * @param    prefix - введенный текст (регистр не учитывается).
+    * @param    limit - макс. кол-во подсказок.
+    * @return   подсказки: сначала наименования с префиксом в начале, затем - с префиксом в начале слова
+    *           (пустой список - если префикс пустой).
+    * */
+    public List<Completion> complete(String prefix, int limit) {
+        List<Integer> entries = new ArrayList<>();
+        String key = normalize(prefix == null ? "" : prefix);
+        if (key.isEmpty() || limit <= 0)
+            return new ArrayList<>();
+
+        for (int i = lowerBound(key, names, null); i < names.length && entries.size() < limit; i++) {
+            if (!keys[names[i]].startsWith(key))
+                break;
+            entries.add(names[i]);
+        }
+
+        for (int i = lowerBound(key, wordEntries, wordOffsets); i < wordEntries.length && entries.size() < limit; i++) {
+            int entry = wordEntries[i];
+            if (!keys[entry].startsWith(key, wordOffsets[i]))
+                break;
+            //наименование уже добавлено: начинается с префикса или префикс есть в нескольких словах
+            if (keys[entry].startsWith(key) || entries.contains(entry))
+                continue;
+            entries.add(entry);
+        }
+
+        List<Completion> result = new ArrayList<>(entries.size());
+        for (int entry : entries) {
+            Completion completion = completions[entry];
+            result.add(new Completion(completion.getType(), completion.getId(), completion.getName()));
+        }
+        return result;
+    }
+
+    //номер первого ключа (entries, offsets; offsets = null - ключи с начала наименований), не меньшего key
+    private int lowerBound(String key, int[] entries, int[] offsets) {
+        int low = 0, high = entries.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compareKeys(keys[entries[middle]], offsets == null ? 0 : offsets[middle], key, 0) < 0)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    //сравнение ключей: a с позиции offsetA и b с позиции offsetB
+    private static int compareKeys(String a, int offsetA, String b, int offsetB) {
+        int lengthA = a.length() - offsetA;
+        int lengthB = b.length() - offsetB;
+        int length = Math.min(lengthA, lengthB);
+        for (int i = 0; i < length; i++) {
+            char charA = a.charAt(offsetA + i);
+            char charB = b.charAt(offsetB + i);
+            if (charA != charB)
+                return charA - charB;
+        }
+        return lengthA - lengthB;
+    }
+
+    private static int[] sortedPositions(int size, Comparator<Integer> comparator) {
+        Integer[] positions = new Integer[size];
+        for (int i = 0; i < size; i++)
+            positions[i] = i;
+        Arrays.sort(positions, comparator);
+        return Arrays.stream(positions).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /*Класс Completion - подсказка: тип (товар или производитель), код и наименование.*/
+    public static class Completion implements Serializable {
+
+        //типы подсказок
+        public static final String GOODS = "goods";
+        public static final String PRODUCER = "producer";
+
+        private String type;    //тип: goods, producer
+        private int id;         //код товара или производителя
+        private String name;    //наименование
+
+        public Completion() {
+        }
+
+        public Completion(String type, int id, String name) {
+            this.type = type;
+            this.id = id;
+            this.name = name;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public void setType(String type) {
+            this.type = type;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return type + ":" + id + ":" + name;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package home.ivishnyakova.store.catalog;
+
+import home.ivishnyakova.store.dao.GoodsDao;
+import home.ivishnyakova.store.entity.GoodsSummary;
+import home.ivishnyakova.store.exceptions.StoreException;
+import home.ivishnyakova.store.utils.LoggerUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*Класс CatalogEngine предназначен для фильтрации товаров витрины магазина в памяти.
+*
+* Хранит снимок каталога товаров CatalogSnapshot, который загружается через GoodsDao
+* при первом обращении и обновляется при каждом изменении каталога (событие CatalogEvent):
+* при изменении одного или нескольких товаров новый снимок строится из текущего снимка и данных этих товаров,
+* при изменении всего каталога (импорт, скрипты) или более maxGoodsChanges товаров - загружается заново.
+* Снимок загружается и обновляется в одном потоке catalogExecutor (по одному изменению,
+* в порядке событий), поэтому запрос, изменивший каталог, не ожидает обновления снимка.
+* Новый снимок атомарно заменяет предыдущий (событие CatalogSnapshotEvent): чтение снимка не блокируется,
+* до замены снимка читается предыдущий.
+*
+* Автор: Вишнякова И.
+* */
+@Component
+public class CatalogEngine {
+
+    //для логирования
+    private static final Logger logger = LogManager.getLogger(LoggerUtil.getClassName());
+
+    //для загрузки каталога товаров
+    @Autowired
+    private GoodsDao goodsDao;
+
+    //для публикации события о замене снимка
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    //поток загрузки и обновления снимка
+    @Resource(name = "catalogExecutor")
+    private Executor catalogExecutor;
+
+    //текущий снимок каталога (null - снимок не загружен)
+    private final AtomicReference<CatalogSnapshot> snapshot = new AtomicReference<>();
+
+    //границы диапазонов цен для счетчиков товаров панели фильтра (по возрастанию)
+    private float[] priceBounds = new float[0];
+
+    //макс. кол-во товаров пакетного изменения, которые изменяются в снимке по одному
+    @Value("#{dbSettings['catalog.maxGoodsChanges']}")
+    private int maxGoodsChanges;
+
+    /*Метод getSnapshot возвращает текущий снимок каталога товаров
+    * (при первом обращении снимок загружается из БД).
+    * @throws   StoreException - произошла ошибка при загрузке товаров.
+    * */
+    public CatalogSnapshot getSnapshot() {
+        CatalogSnapshot current = snapshot.get();
+        return current != null ? current : loadSnapshot();
+    }
+
+    /*Метод getFacets возвращает счетчики товаров для панели фильтра по текущему снимку каталога
+    * (условия фильтра - как у CatalogSnapshot.filter, диапазоны цен - по границам priceBounds).
+    * @throws   StoreException - произошла ошибка при загрузке товаров.
+    * */
+    public CatalogFacets getFacets(float minPrice, float maxPrice, int[] idCategories, int[] idProducers,
+                                   boolean in_storage) {
+        return getSnapshot().getFacets(minPrice, maxPrice, idCategories, idProducers, in_storage, priceBounds);
+    }
+
+    /*Метод onCatalogChanged передает изменение каталога товаров в поток обновления снимка.
+    * Изменения производителей и категорий снимок не изменяют.
+    * */
+    @EventListener
+    @Order(CatalogEvent.REFRESH_ORDER)
+    public void onCatalogChanged(CatalogEvent event) {
+        if (event.getChange() != CatalogEvent.Change.PRODUCERS && event.getChange() != CatalogEvent.Change.CATEGORIES)
+            catalogExecutor.execute(() -> refreshSnapshot(event));
+    }
+
+    /*Метод refreshSnapshot применяет изменение каталога к снимку (в потоке обновления снимка).
+    * Если снимок еще не загружен, он будет загружен при первом обращении.
+    * При ошибке обновления снимок сбрасывается и загружается при следующем обращении.
+    * */
+    private void refreshSnapshot(CatalogEvent event) {
+        CatalogSnapshot current = snapshot.get();
+        if (current == null)
+            return;
+        CatalogSnapshot changed;
+        try {
+            switch (event.getChange()) {
+                case INSERTED:
+                case UPDATED:
+                    changed = current.withGoods(goodsDao.getGoodsSummaryById(event.getGoodsId()));
+                    break;
+                case DELETED:
+                    changed = current.withoutGoods(event.getGoodsId());
+                    break;
+                case GOODS:
+                    changed = withGoods(current, event.getGoodsIds());
+                    break;
+                default:
+                    changed = readSnapshot();
+            }
+        } catch (StoreException e) {
+            logger.error("The catalog snapshot was not updated", e);
+            changed = null;
+        }
+        snapshot.set(changed);
+        eventPublisher.publishEvent(new CatalogSnapshotEvent(this));
+    }
+
+    //загрузка снимка в потоке обновления снимка, если он еще не загружен
+    //(после изменений каталога, ожидающих обработки)
+    private CatalogSnapshot loadSnapshot() {
+        CompletableFuture<CatalogSnapshot> load = CompletableFuture.supplyAsync(() -> {
+            CatalogSnapshot current = snapshot.get();
+            if (current == null) {
+                current = readSnapshot();
+                snapshot.set(current);
+            }
+            return current;
+        }, catalogExecutor);
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error)
+                throw (Error) e.getCause();
+            throw e;
+        }
+    }
+
+    /*Метод withGoods возвращает снимок current с товарами ids, загруженными из БД одним запросом
+    * (товары, которых нет в БД, удаляются из снимка). Если товаров больше maxGoodsChanges,
+    * снимок загружается заново.
+    * */
+    private CatalogSnapshot withGoods(CatalogSnapshot current, int[] ids) {
+        if (ids.length > maxGoodsChanges)
+            return readSnapshot();
+
+        Map<Integer, GoodsSummary> found = new HashMap<>();
+        for (GoodsSummary goods : goodsDao.getGoodsSummaryListByIds(ids))
+            found.put(goods.getId(), goods);
+        CatalogSnapshot changed = current;
+        for (int id : ids)
+            changed = found.containsKey(id) ? changed.withGoods(found.get(id)) : changed.withoutGoods(id);
+        return changed;
+    }
+
+    public float[] getPriceBounds() {
+        return priceBounds.clone();
+    }
+
+    /*Метод setPriceBounds устанавливает границы диапазонов цен.
+    * @param    priceBounds - границы через запятую по возрастанию (например, "1000,5000").
+    * @throws   IllegalArgumentException - граница не число, меньше 0 или границы не по возрастанию.
+    * */
+    @Value("#{dbSettings['catalog.priceBounds']}")
+    public void setPriceBounds(String priceBounds) {
+        String[] values = priceBounds.trim().isEmpty() ? new String[0] : priceBounds.split(",");
+        float[] bounds = new float[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bounds[i] = Float.parseFloat(values[i].trim());
+            if (bounds[i] <= 0 || (i > 0 && bounds[i] <= bounds[i - 1]))
+                throw new IllegalArgumentException("The price bounds must be positive and ascending: " + priceBounds);
+        }
+        this.priceBounds = bounds;
+    }
+
+    //снимок всех товаров каталога
+    private CatalogSnapshot readSnapshot() {
+        CatalogSnapshot current = new CatalogSnapshot(goodsDao.getGoodsSummaryList(true));
+        logger.info("The catalog snapshot was loaded: " + current.size() + " goods");
+        return current;
+    }
+}
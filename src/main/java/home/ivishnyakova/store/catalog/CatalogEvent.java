@@ -0,0 +1,80 @@
+package home.ivishnyakova.store.catalog;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.core.Ordered;
+
+/*Класс CatalogEvent - событие "Изменен каталог товаров".
+* Публикуется после добавления, обновления, удаления или импорта товаров,
+* после изменения производителей или категорий, а также после выполнения sql-скриптов, изменяющих таблицы БД.
+* Источник события - объект, изменивший каталог.
+*
+* Событие об изменении одного товара содержит вид изменения и код товара,
+* событие об изменении нескольких товаров (пакетные операции) - вид изменения GOODS и коды товаров
+* (для обновления снимков каталога без загрузки всего каталога),
+* событие об изменении всего каталога - вид изменения CATALOG.
+*
+* Обработчики события выполняются в порядке (@Order): сначала сбрасываются кеши и выполняемые запросы,
+* затем обновляются снимки каталога (читают данные после сброса кешей), последними - версии ресурсов REST.
+* Иначе клиент может получить ETag новой версии ресурса вместе с данными до изменения.
+* Снимок товаров CatalogEngine обновляется в фоновом потоке и о замене снимка сообщает
+* событием CatalogSnapshotEvent.
+*
+* Автор: Вишнякова И.
+* */
+public class CatalogEvent extends ApplicationEvent {
+
+    //вид изменения каталога
+    public enum Change {
+        CATALOG,    //изменен весь каталог
+        GOODS,      //изменены несколько товаров (добавлены, обновлены или удалены)
+        INSERTED,   //добавлен товар
+        UPDATED,    //обновлен товар
+        DELETED,    //удален товар
+        PRODUCERS,  //изменены производители (товары не изменились)
+        CATEGORIES  //изменены категории (товары не изменились)
+    }
+
+    //порядок обработчиков события: сброс кешей и выполняемых запросов
+    public static final int INVALIDATE_ORDER = Ordered.HIGHEST_PRECEDENCE;
+    //порядок обработчиков события: обновление снимков каталога
+    public static final int REFRESH_ORDER = 0;
+    //порядок обработчиков события: изменение версий ресурсов (после обновления всех данных)
+    public static final int VERSION_ORDER = Ordered.LOWEST_PRECEDENCE;
+
+    private final Change change;    //вид изменения
+    private final int goodsId;      //код измененного товара (0 - для CATALOG, GOODS, PRODUCERS, CATEGORIES)
+    private final int[] goodsIds;   //коды измененных товаров (для GOODS)
+
+    //событие об изменении всего каталога
+    public CatalogEvent(Object source) {
+        this(source, Change.CATALOG, 0);
+    }
+
+    //событие об изменении товара с кодом goodsId
+    public CatalogEvent(Object source, Change change, int goodsId) {
+        super(source);
+        this.change = change;
+        this.goodsId = goodsId;
+        this.goodsIds = new int[0];
+    }
+
+    //событие об изменении товаров с кодами goodsIds
+    public CatalogEvent(Object source, int[] goodsIds) {
+        super(source);
+        this.change = Change.GOODS;
+        this.goodsId = 0;
+        this.goodsIds = goodsIds.clone();
+    }
+
+    public Change getChange() {
+        return change;
+    }
+
+    public int getGoodsId() {
+        return goodsId;
+    }
+
+    public int[] getGoodsIds() {
+        return goodsIds.clone();
+    }
+}
@@ -0,0 +1,169 @@
+package home.ivishnyakova.store.catalog;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*Класс CatalogFacets содержит счетчики товаров для панели фильтра (фасеты):
+* сколько товаров будет выбрано при выборе каждой категории, каждого производителя,
+* наличия на складе и каждого диапазона цен.
+*
+* Счетчик условия считается по остальным условиям фильтра (без самого условия):
+* например, счетчики категорий учитывают производителя, цены и наличие на складе,
+* но не выбранную категорию. Категории и производители без товаров не включаются.
+*
+* Автор: Вишнякова И.
+* */
+public class CatalogFacets implements Serializable {
+
+    private List<FacetCount> categories = new ArrayList<>();    //кол-во товаров по коду категории
+    private List<FacetCount> producers = new ArrayList<>();     //кол-во товаров по коду производителя
+    private int inStorage;                                      //кол-во товаров, которые есть на складе
+    private int notInStorage;                                   //кол-во товаров, которых нет на складе
+    private List<PriceBucket> priceBuckets = new ArrayList<>(); //кол-во товаров по диапазонам цен
+
+    public CatalogFacets() {
+    }
+
+    public CatalogFacets(List<FacetCount> categories, List<FacetCount> producers, int inStorage, int notInStorage,
+                         List<PriceBucket> priceBuckets) {
+        this.categories = categories;
+        this.producers = producers;
+        this.inStorage = inStorage;
+        this.notInStorage = notInStorage;
+        this.priceBuckets = priceBuckets;
+    }
+
+    //отображение: код -> кол-во товаров (для представлений)
+    public static Map<Integer, Integer> toMap(List<FacetCount> counts) {
+        Map<Integer, Integer> result = new LinkedHashMap<>();
+        counts.forEach(count -> result.put(count.getId(), count.getCount()));
+        return result;
+    }
+
+    public List<FacetCount> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<FacetCount> categories) {
+        this.categories = categories;
+    }
+
+    public List<FacetCount> getProducers() {
+        return producers;
+    }
+
+    public void setProducers(List<FacetCount> producers) {
+        this.producers = producers;
+    }
+
+    public int getInStorage() {
+        return inStorage;
+    }
+
+    public void setInStorage(int inStorage) {
+        this.inStorage = inStorage;
+    }
+
+    public int getNotInStorage() {
+        return notInStorage;
+    }
+
+    public void setNotInStorage(int notInStorage) {
+        this.notInStorage = notInStorage;
+    }
+
+    public List<PriceBucket> getPriceBuckets() {
+        return priceBuckets;
+    }
+
+    public void setPriceBuckets(List<PriceBucket> priceBuckets) {
+        this.priceBuckets = priceBuckets;
+    }
+
+    @Override
+    public String toString() {
+        return "CatalogFacets{" +
+                "categories=" + categories.size() +
+                ", producers=" + producers.size() +
+                ", inStorage=" + inStorage +
+                ", notInStorage=" + notInStorage +
+                ", priceBuckets=" + priceBuckets.size() +
+                '}';
+    }
+
+    /*Класс FacetCount - кол-во товаров для значения условия фильтра (код категории или производителя).*/
+    public static class FacetCount implements Serializable {
+
+        private int id;     //код категории или производителя
+        private int count;  //кол-во товаров
+
+        public FacetCount() {
+        }
+
+        public FacetCount(int id, int count) {
+            this.id = id;
+            this.count = count;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+    }
+
+    /*Класс PriceBucket - кол-во товаров с ценой от minPrice (включительно) до maxPrice (не включительно);
+    * maxPrice = 0 - у последнего диапазона (верхняя граница не ограничена).*/
+    public static class PriceBucket implements Serializable {
+
+        private float minPrice;     //нижняя граница цен
+        private float maxPrice;     //верхняя граница цен (0 - не ограничена)
+        private int count;          //кол-во товаров
+
+        public PriceBucket() {
+        }
+
+        public PriceBucket(float minPrice, float maxPrice, int count) {
+            this.minPrice = minPrice;
+            this.maxPrice = maxPrice;
+            this.count = count;
+        }
+
+        public float getMinPrice() {
+            return minPrice;
+        }
+
+        public void setMinPrice(float minPrice) {
+            this.minPrice = minPrice;
+        }
+
+        public float getMaxPrice() {
+            return maxPrice;
+        }
+
+        public void setMaxPrice(float maxPrice) {
+            this.maxPrice = maxPrice;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+    }
+}
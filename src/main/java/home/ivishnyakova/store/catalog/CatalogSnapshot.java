@@ -0,0 +1,630 @@
+package home.ivishnyakova.store.catalog;
+
+import home.ivishnyakova.store.entity.GoodsSummary;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/*Класс CatalogSnapshot - неизменяемый снимок каталога товаров в колоночном виде
+* для фильтрации товаров в памяти (без обращения к БД).
+*
+* Каждый товар занимает слот (номер строки колонок): поля товаров хранятся по слотам
+* в массивах примитивов (коды, цены, категории, производители), краткие описания - в массиве GoodsSummary.
+* Для фильтра построены индексы слотов товаров: сжатые битовые множества (RoaringBitmap)
+* по коду категории, по коду производителя, по признаку "есть на складе" и по диапазону цен.
+* Условия фильтра выполняются как операции над множествами: несколько кодов одного условия -
+* объединение (OR) множеств, разные условия - пересечение (AND).
+* Результаты фильтра упорядочиваются по наименованиям (NAME_ORDER): для этого хранятся
+* слоты товаров в порядке наименований и номер каждого слота в этом порядке.
+*
+* Снимок не изменяется после создания и может читаться из нескольких потоков без блокировок.
+* Методы withGoods/withoutGoods строят новый снимок с одним измененным товаром: товар записывается
+* в новый слот, прежний слот товара исключается из индексов (изменяются множества только его категории,
+* производителя, наличия и диапазона цен, а также порядок наименований). Колонки общие для снимков,
+* построенных друг из друга (снимок не читает слоты, записанные после его создания).
+* Если неиспользуемых слотов становится больше, чем товаров, снимок строится заново.
+*
+* Автор: Вишнякова И.
+* */
+public final class CatalogSnapshot {
+
+    //для сравнения наименований по правилам русского языка
+    private static final Collator COLLATOR = Collator.getInstance(new Locale("ru", "RU"));
+
+    //порядок товаров снимка: по наименованию (по правилам русского языка, затем по кодам символов), затем по коду
+    public static final Comparator<GoodsSummary> NAME_ORDER = Comparator
+            .comparing(GoodsSummary::getName, COLLATOR::compare)
+            .thenComparing(GoodsSummary::getName)
+            .thenComparingInt(GoodsSummary::getId);
+
+    //мин. кол-во неиспользуемых слотов, после которого снимок строится заново
+    private static final int MIN_FREE_SLOTS = 64;
+
+    //пустой каталог
+    public static final CatalogSnapshot EMPTY = new CatalogSnapshot(new ArrayList<>());
+
+    private final int slotCount;            //кол-во занятых слотов (включая неиспользуемые)
+    private final int[] ids;                //коды товаров по слотам
+    private final float[] prices;           //цены
+    private final int[] categories;         //коды категорий
+    private final int[] producers;          //коды производителей
+    private final GoodsSummary[] summaries; //товары без полного описания
+
+    private final RoaringBitmap slots;      //слоты товаров снимка
+    private final int[] nameOrder;          //слоты товаров в порядке наименований
+    private final int[] ranks;              //номер товара в порядке наименований по слоту (-1 - слот не используется)
+
+    private final Map<Integer, RoaringBitmap> categoryIndex;    //слоты товаров по коду категории
+    private final Map<Integer, RoaringBitmap> producerIndex;    //слоты товаров по коду производителя
+    private final RoaringBitmap inStorageIndex;                 //слоты товаров, которые есть на складе
+    private final PriceIndex priceIndex;                        //слоты товаров по диапазону цен
+
+    //слоты товаров по коду для последнего снимка, построенного из колонок
+    private final Lineage lineage;
+
+    /*Конструктор строит снимок каталога.
+    * @param    goodsList - товары (в любом порядке).
+    * */
+    public CatalogSnapshot(List<GoodsSummary> goodsList) {
+        List<GoodsSummary> sorted = new ArrayList<>(goodsList);
+        sorted.sort(NAME_ORDER);
+
+        slotCount = sorted.size();
+        int capacity = slotCount + (slotCount >> 2) + 16;
+        ids = new int[capacity];
+        prices = new float[capacity];
+        categories = new int[capacity];
+        producers = new int[capacity];
+        summaries = new GoodsSummary[capacity];
+        nameOrder = new int[slotCount];
+        ranks = new int[slotCount];
+
+        Map<Integer, RoaringBitmap> byCategory = new HashMap<>();
+        Map<Integer, RoaringBitmap> byProducer = new HashMap<>();
+        inStorageIndex = new RoaringBitmap();
+        lineage = new Lineage();
+
+        for (int slot = 0; slot < slotCount; slot++) {
+            GoodsSummary goods = sorted.get(slot);
+            ids[slot] = goods.getId();
+            prices[slot] = goods.getPrice();
+            categories[slot] = goods.getId_category();
+            producers[slot] = goods.getId_producer();
+            summaries[slot] = copyOf(goods);
+            nameOrder[slot] = slot;
+            ranks[slot] = slot;
+
+            byCategory.computeIfAbsent(categories[slot], key -> new RoaringBitmap()).add(slot);
+            byProducer.computeIfAbsent(producers[slot], key -> new RoaringBitmap()).add(slot);
+            if (goods.isIn_storage())
+                inStorageIndex.add(slot);
+            lineage.slots.put(ids[slot], slot);
+        }
+        byCategory.values().forEach(RoaringBitmap::runOptimize);
+        byProducer.values().forEach(RoaringBitmap::runOptimize);
+        inStorageIndex.runOptimize();
+
+        slots = RoaringBitmap.bitmapOfRange(0L, (long) slotCount);
+        categoryIndex = Collections.unmodifiableMap(byCategory);
+        producerIndex = Collections.unmodifiableMap(byProducer);
+        priceIndex = new PriceIndex(prices, slotCount);
+        lineage.last = this;
+    }
+
+    //снимок из готовых колонок и индексов (для withGoods/withoutGoods)
+    private CatalogSnapshot(int slotCount, int[] ids, float[] prices, int[] categories, int[] producers,
+                            GoodsSummary[] summaries, RoaringBitmap slots, int[] nameOrder, int[] ranks,
+                            Map<Integer, RoaringBitmap> categoryIndex, Map<Integer, RoaringBitmap> producerIndex,
+                            RoaringBitmap inStorageIndex, PriceIndex priceIndex, Lineage lineage) {
+        this.slotCount = slotCount;
+        this.ids = ids;
+        this.prices = prices;
+        this.categories = categories;
+        this.producers = producers;
+        this.summaries = summaries;
+        this.slots = slots;
+        this.nameOrder = nameOrder;
+        this.ranks = ranks;
+        this.categoryIndex = Collections.unmodifiableMap(categoryIndex);
+        this.producerIndex = Collections.unmodifiableMap(producerIndex);
+        this.inStorageIndex = inStorageIndex;
+        this.priceIndex = priceIndex;
+        this.lineage = lineage;
+    }
+
+    //кол-во товаров в каталоге
+    public int size() {
+        return nameOrder.length;
+    }
+
+    //код товара в позиции position порядка наименований
+    public int getId(int position) {
+        return ids[nameOrder[position]];
+    }
+
+    //наименование товара в позиции position порядка наименований
+    public String getName(int position) {
+        return summaries[nameOrder[position]].getName();
+    }
+
+    /*Метод filter выполняет выборку кодов товаров по фильтру.
+    * Условия фильтра такие же, как у GoodsDao.getGoodsListByFilter:
+    * категория и производитель учитываются, если их коды не равны 0,
+    * диапазон цен - если задана хотя бы одна граница и minPrice <= maxPrice.
+    * @return   коды товаров, удовлетворяющих фильтру, в порядке наименований.
+    * */
+    public int[] filter(float minPrice, float maxPrice, int id_category, int id_producer, boolean in_storage) {
+        return filter(minPrice, maxPrice, codes(id_category), codes(id_producer), in_storage);
+    }
+
+    /*Метод filter выполняет выборку кодов товаров по фильтру с несколькими категориями и производителями.
+    * @param    idCategories - коды категорий (товар любой из категорий; пустой массив - все категории).
+    * @param    idProducers - коды производителей (товар любого из производителей; пустой массив - все).
+    * Условия по ценам и наличию на складе - как у filter с одной категорией.
+    * @return   коды товаров, удовлетворяющих фильтру, в порядке наименований.
+    * */
+    public int[] filter(float minPrice, float maxPrice, int[] idCategories, int[] idProducers, boolean in_storage) {
+        int[] found = filterSlots(minPrice, maxPrice, idCategories, idProducers, in_storage);
+        for (int i = 0; i < found.length; i++)
+            found[i] = ids[found[i]];
+        return found;
+    }
+
+    /*Метод getGoodsSummaryListByFilter выполняет выборку товаров (без полного описания) по фильтру.
+    * Условия фильтра - как у метода filter.
+    * @return   список товаров в порядке наименований (копии товаров снимка).
+    * */
+    public List<GoodsSummary> getGoodsSummaryListByFilter(float minPrice, float maxPrice, int id_category,
+                                                          int id_producer, boolean in_storage) {
+        return getGoodsSummaryListByFilter(minPrice, maxPrice, codes(id_category), codes(id_producer), in_storage);
+    }
+
+    /*Метод getGoodsSummaryListByFilter выполняет выборку товаров (без полного описания)
+    * по фильтру с несколькими категориями и производителями (условия - как у метода filter).
+    * @return   список товаров в порядке наименований (копии товаров снимка).
+    * */
+    public List<GoodsSummary> getGoodsSummaryListByFilter(float minPrice, float maxPrice, int[] idCategories,
+                                                          int[] idProducers, boolean in_storage) {
+        int[] found = filterSlots(minPrice, maxPrice, idCategories, idProducers, in_storage);
+        List<GoodsSummary> result = new ArrayList<>(found.length);
+        for (int slot : found)
+            result.add(copyOf(summaries[slot]));
+        return result;
+    }
+
+    //все товары (без полного описания) в порядке наименований
+    public List<GoodsSummary> getGoodsSummaryList() {
+        List<GoodsSummary> result = new ArrayList<>(nameOrder.length);
+        for (int slot : nameOrder)
+            result.add(copyOf(summaries[slot]));
+        return result;
+    }
+
+    /*Метод withGoods возвращает новый снимок, в котором товар goods добавлен
+    * (или заменен, если товар с таким кодом уже есть в снимке); позиция товара в порядке наименований
+    * находится двоичным поиском (NAME_ORDER).
+    * @return   новый снимок (текущий снимок не изменяется).
+    * */
+    public CatalogSnapshot withGoods(GoodsSummary goods) {
+        synchronized (lineage) {
+            if (lineage.last != this)
+                return rebuild().withGoods(goods);
+            Integer slot = lineage.slots.get(goods.getId());
+            return change(slot != null ? slot : -1, copyOf(goods));
+        }
+    }
+
+    /*Метод withoutGoods возвращает новый снимок без товара с кодом id.
+    * @return   новый снимок или текущий - если товара нет в снимке.
+    * */
+    public CatalogSnapshot withoutGoods(int id) {
+        synchronized (lineage) {
+            if (lineage.last != this)
+                return rebuild().withoutGoods(id);
+            Integer slot = lineage.slots.get(id);
+            return slot != null ? change(slot, null) : this;
+        }
+    }
+
+    /*Метод getFacets считает товары для панели фильтра (см. CatalogFacets):
+    * счетчик каждого условия фильтра считается по остальным условиям (условия - как у метода filter).
+    * Счетчики считаются по индексам: для категорий и производителей - мощность пересечения
+    * множества товара условия с множеством кандидатов, для диапазонов цен - за один проход по кандидатам.
+    * @param    priceBounds - границы диапазонов цен по возрастанию (диапазоны: до первой границы,
+    *           между соседними границами, от последней границы).
+    * @return   счетчики товаров.
+    * */
+    public CatalogFacets getFacets(float minPrice, float maxPrice, int[] idCategories, int[] idProducers,
+                                   boolean in_storage, float[] priceBounds) {
+        RoaringBitmap storage = storageSet(in_storage);
+        RoaringBitmap category = idCategories.length > 0 ? union(categoryIndex, idCategories) : null;
+        RoaringBitmap producer = idProducers.length > 0 ? union(producerIndex, idProducers) : null;
+        RoaringBitmap price = isPriceFilter(minPrice, maxPrice) ? priceIndex.set(minPrice, maxPrice, prices) : null;
+
+        List<CatalogFacets.FacetCount> categoryCounts = countByIndex(categoryIndex, intersect(storage, producer, price));
+        List<CatalogFacets.FacetCount> producerCounts = countByIndex(producerIndex, intersect(storage, category, price));
+
+        RoaringBitmap storageCandidates = intersect(category, producer, price);
+        int inStorage = RoaringBitmap.andCardinality(inStorageIndex, storageCandidates);
+
+        int[] bucketCounts = new int[priceBounds.length + 1];
+        PeekableIntIterator iterator = intersect(storage, category, producer).getIntIterator();
+        while (iterator.hasNext())
+            bucketCounts[upperBound(priceBounds, prices[iterator.next()])]++;
+
+        List<CatalogFacets.PriceBucket> buckets = new ArrayList<>(bucketCounts.length);
+        for (int i = 0; i < bucketCounts.length; i++)
+            buckets.add(new CatalogFacets.PriceBucket(i == 0 ? 0 : priceBounds[i - 1],
+                    i == priceBounds.length ? 0 : priceBounds[i], bucketCounts[i]));
+
+        return new CatalogFacets(categoryCounts, producerCounts, inStorage,
+                storageCandidates.getCardinality() - inStorage, buckets);
+    }
+
+    //слоты товаров, удовлетворяющих фильтру, в порядке наименований
+    private int[] filterSlots(float minPrice, float maxPrice, int[] idCategories, int[] idProducers,
+                              boolean in_storage) {
+        RoaringBitmap result = storageSet(in_storage);
+        if (idCategories.length > 0)
+            result.and(union(categoryIndex, idCategories));
+        if (idProducers.length > 0)
+            result.and(union(producerIndex, idProducers));
+        if (isPriceFilter(minPrice, maxPrice))
+            result = filterByPrice(result, minPrice, maxPrice);
+
+        int[] found = new int[result.getCardinality()];
+        int i = 0;
+        PeekableIntIterator iterator = result.getIntIterator();
+        while (iterator.hasNext())
+            found[i++] = ranks[iterator.next()];
+        Arrays.sort(found);
+        for (i = 0; i < found.length; i++)
+            found[i] = nameOrder[found[i]];
+        return found;
+    }
+
+    //условие по ценам задано: хотя бы одна граница и minPrice <= maxPrice
+    private static boolean isPriceFilter(float minPrice, float maxPrice) {
+        return (minPrice != 0 || maxPrice != 0) && minPrice <= maxPrice;
+    }
+
+    //новое множество слотов товаров, которые есть (in_storage = true) или которых нет на складе
+    private RoaringBitmap storageSet(boolean in_storage) {
+        return in_storage ? inStorageIndex.clone() : RoaringBitmap.andNot(slots, inStorageIndex);
+    }
+
+    /*Метод filterByPrice оставляет в множестве слотов candidates товары с ценой от minPrice до maxPrice.
+    * Если кандидатов меньше, чем товаров в диапазонах цен индекса, проверяются цены кандидатов,
+    * иначе кандидаты пересекаются со слотами диапазона цен из индекса цен.
+    * */
+    private RoaringBitmap filterByPrice(RoaringBitmap candidates, float minPrice, float maxPrice) {
+        if (candidates.getCardinality() <= priceIndex.count(minPrice, maxPrice)) {
+            RoaringBitmap result = new RoaringBitmap();
+            PeekableIntIterator iterator = candidates.getIntIterator();
+            while (iterator.hasNext()) {
+                int slot = iterator.next();
+                if (prices[slot] >= minPrice && prices[slot] <= maxPrice)
+                    result.add(slot);
+            }
+            return result;
+        }
+        candidates.and(priceIndex.set(minPrice, maxPrice, prices));
+        return candidates;
+    }
+
+    //пересечение множеств sets (null - условие не задано; если не задано ни одно - все товары)
+    private RoaringBitmap intersect(RoaringBitmap... sets) {
+        RoaringBitmap result = null;
+        for (RoaringBitmap set : sets) {
+            if (set != null)
+                result = result == null ? set.clone() : RoaringBitmap.and(result, set);
+        }
+        return result != null ? result : slots.clone();
+    }
+
+    //кол-во кандидатов candidates для каждого кода индекса index (по возрастанию кода, без нулевых)
+    private static List<CatalogFacets.FacetCount> countByIndex(Map<Integer, RoaringBitmap> index,
+                                                               RoaringBitmap candidates) {
+        List<CatalogFacets.FacetCount> result = new ArrayList<>();
+        index.forEach((code, bitmap) -> {
+            int count = RoaringBitmap.andCardinality(bitmap, candidates);
+            if (count > 0)
+                result.add(new CatalogFacets.FacetCount(code, count));
+        });
+        result.sort(Comparator.comparingInt(CatalogFacets.FacetCount::getId));
+        return result;
+    }
+
+    //объединение множеств слотов индекса index по кодам codes
+    private static RoaringBitmap union(Map<Integer, RoaringBitmap> index, int[] codes) {
+        List<RoaringBitmap> bitmaps = new ArrayList<>(codes.length);
+        for (int code : codes) {
+            RoaringBitmap bitmap = index.get(code);
+            if (bitmap != null)
+                bitmaps.add(bitmap);
+        }
+        return RoaringBitmap.or(bitmaps.iterator());
+    }
+
+    //снимок, построенный заново из товаров текущего снимка (с новыми колонками)
+    private CatalogSnapshot rebuild() {
+        return new CatalogSnapshot(getGoodsSummaryList());
+    }
+
+    /*Метод change строит снимок, в котором слот oldSlot не используется, а товар goods записан в новый слот.
+    * Вызывается только для последнего снимка колонок (под блокировкой lineage).
+    * @param    oldSlot - прежний слот товара (-1 - товара нет в снимке).
+    * @param    goods - товар (null - товар удален).
+    * */
+    private CatalogSnapshot change(int oldSlot, GoodsSummary goods) {
+        int[] newIds = ids;
+        float[] newPrices = prices;
+        int[] newCategories = categories;
+        int[] newProducers = producers;
+        GoodsSummary[] newSummaries = summaries;
+        int newSlotCount = slotCount;
+
+        Map<Integer, RoaringBitmap> byCategory = new HashMap<>(categoryIndex);
+        Map<Integer, RoaringBitmap> byProducer = new HashMap<>(producerIndex);
+        RoaringBitmap newSlots = slots.clone();
+        RoaringBitmap inStorage = inStorageIndex;
+        PriceIndex price = priceIndex;
+        int[] order = nameOrder;
+
+        int removed = -1;
+        if (oldSlot >= 0) {
+            removeSlot(byCategory, categories[oldSlot], oldSlot);
+            removeSlot(byProducer, producers[oldSlot], oldSlot);
+            newSlots.remove(oldSlot);
+            if (inStorage.contains(oldSlot)) {
+                inStorage = inStorage.clone();
+                inStorage.remove(oldSlot);
+            }
+            price = price.without(prices[oldSlot], oldSlot);
+            removed = ranks[oldSlot];
+            order = remove(order, removed);
+        }
+
+        int inserted = -1;
+        if (goods != null) {
+            int slot = newSlotCount++;
+            if (slot == ids.length) {
+                int capacity = slot + (slot >> 1) + 16;
+                newIds = Arrays.copyOf(ids, capacity);
+                newPrices = Arrays.copyOf(prices, capacity);
+                newCategories = Arrays.copyOf(categories, capacity);
+                newProducers = Arrays.copyOf(producers, capacity);
+                newSummaries = Arrays.copyOf(summaries, capacity);
+            }
+            //слот не читается ни одним снимком: он больше slotCount всех снимков колонок
+            newIds[slot] = goods.getId();
+            newPrices[slot] = goods.getPrice();
+            newCategories[slot] = goods.getId_category();
+            newProducers[slot] = goods.getId_producer();
+            newSummaries[slot] = goods;
+
+            addSlot(byCategory, goods.getId_category(), slot);
+            addSlot(byProducer, goods.getId_producer(), slot);
+            newSlots.add(slot);
+            if (goods.isIn_storage()) {
+                inStorage = inStorage.clone();
+                inStorage.add(slot);
+            }
+            price = price.with(goods.getPrice(), slot);
+            inserted = rankOf(order, newSummaries, goods);
+            order = insert(order, inserted, slot);
+        }
+
+        //номера в порядке наименований изменились только у товаров между удаленной и добавленной позициями
+        int[] newRanks = Arrays.copyOf(ranks, newSlotCount);
+        if (oldSlot >= 0)
+            newRanks[oldSlot] = -1;
+        int from = removed < 0 ? inserted : inserted < 0 ? removed : Math.min(removed, inserted);
+        int to = removed < 0 || inserted < 0 ? order.length - 1 : Math.max(removed, inserted);
+        for (int i = from; i <= to; i++)
+            newRanks[order[i]] = i;
+
+        CatalogSnapshot result = new CatalogSnapshot(newSlotCount, newIds, newPrices, newCategories, newProducers,
+                newSummaries, newSlots, order, newRanks, byCategory, byProducer, inStorage, price, lineage);
+        if (oldSlot >= 0)
+            lineage.slots.remove(ids[oldSlot]);
+        if (goods != null)
+            lineage.slots.put(goods.getId(), newSlotCount - 1);
+        lineage.last = result;
+
+        if (newSlotCount - order.length > Math.max(order.length, MIN_FREE_SLOTS))
+            return result.rebuild();
+        return result;
+    }
+
+    //позиция товара goods в порядке наименований order (слоты товаров в summaries)
+    private static int rankOf(int[] order, GoodsSummary[] summaries, GoodsSummary goods) {
+        int low = 0, high = order.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (NAME_ORDER.compare(summaries[order[middle]], goods) < 0)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    //замена множества кода code индекса index копией со слотом slot
+    private static void addSlot(Map<Integer, RoaringBitmap> index, int code, int slot) {
+        RoaringBitmap bitmap = index.get(code);
+        bitmap = bitmap == null ? new RoaringBitmap() : bitmap.clone();
+        bitmap.add(slot);
+        index.put(code, bitmap);
+    }
+
+    //замена множества кода code индекса index копией без слота slot (пустое множество удаляется)
+    private static void removeSlot(Map<Integer, RoaringBitmap> index, int code, int slot) {
+        RoaringBitmap bitmap = index.get(code).clone();
+        bitmap.remove(slot);
+        if (bitmap.isEmpty())
+            index.remove(code);
+        else
+            index.put(code, bitmap);
+    }
+
+    //номер первой цены, большей price
+    private static int upperBound(float[] sorted, float price) {
+        int low = 0, high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] <= price)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    //коды условия фильтра (0 - условие не задано)
+    private static int[] codes(int code) {
+        return code == 0 ? new int[0] : new int[]{code};
+    }
+
+    private static int[] insert(int[] array, int position, int value) {
+        int[] result = new int[array.length + 1];
+        System.arraycopy(array, 0, result, 0, position);
+        result[position] = value;
+        System.arraycopy(array, position, result, position + 1, array.length - position);
+        return result;
+    }
+
+    private static int[] remove(int[] array, int position) {
+        int[] result = new int[array.length - 1];
+        System.arraycopy(array, 0, result, 0, position);
+        System.arraycopy(array, position + 1, result, position, array.length - position - 1);
+        return result;
+    }
+
+    private static GoodsSummary copyOf(GoodsSummary goods) {
+        return new GoodsSummary(goods.getId(), goods.getName(), goods.getPrice(), goods.isIn_storage(),
+                goods.getId_category(), goods.getId_producer(), goods.getShortDescription());
+    }
+
+    /*Класс Lineage - общие данные снимков, построенных из одних колонок:
+    * последний снимок (только он дописывает колонки) и слоты его товаров по коду.
+    * Изменяется под блокировкой объекта.*/
+    private static final class Lineage {
+        private final Map<Integer, Integer> slots = new HashMap<>();
+        private CatalogSnapshot last;
+    }
+
+    /*Класс PriceIndex - неизменяемый индекс слотов товаров по диапазонам цен.
+    * Диапазон цены - старшие 16 бит ее представления float (знак, порядок и 7 бит мантиссы),
+    * упорядоченные так же, как цены: в каждом интервале от 2^n до 2^(n+1) - 128 диапазонов.
+    * Выборка по ценам объединяет диапазоны внутри границ, цены товаров крайних диапазонов проверяются.*/
+    private static final class PriceIndex {
+        private final int[] keys;               //диапазоны цен по возрастанию
+        private final RoaringBitmap[] sets;     //слоты товаров диапазонов
+
+        //индекс цен prices слотов от 0 до slotCount
+        PriceIndex(float[] prices, int slotCount) {
+            Map<Integer, RoaringBitmap> byKey = new HashMap<>();
+            for (int slot = 0; slot < slotCount; slot++)
+                byKey.computeIfAbsent(key(prices[slot]), key -> new RoaringBitmap()).add(slot);
+            keys = byKey.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+            sets = new RoaringBitmap[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                sets[i] = byKey.get(keys[i]);
+                sets[i].runOptimize();
+            }
+        }
+
+        private PriceIndex(int[] keys, RoaringBitmap[] sets) {
+            this.keys = keys;
+            this.sets = sets;
+        }
+
+        //индекс со слотом slot товара с ценой price
+        PriceIndex with(float price, int slot) {
+            int key = key(price);
+            int i = Arrays.binarySearch(keys, key);
+            if (i >= 0) {
+                RoaringBitmap[] newSets = sets.clone();
+                newSets[i] = sets[i].clone();
+                newSets[i].add(slot);
+                return new PriceIndex(keys, newSets);
+            }
+            i = -i - 1;
+            int[] newKeys = insert(keys, i, key);
+            RoaringBitmap[] newSets = new RoaringBitmap[sets.length + 1];
+            System.arraycopy(sets, 0, newSets, 0, i);
+            newSets[i] = RoaringBitmap.bitmapOf(slot);
+            System.arraycopy(sets, i, newSets, i + 1, sets.length - i);
+            return new PriceIndex(newKeys, newSets);
+        }
+
+        //индекс без слота slot товара с ценой price (пустой диапазон удаляется)
+        PriceIndex without(float price, int slot) {
+            int i = Arrays.binarySearch(keys, key(price));
+            RoaringBitmap set = sets[i].clone();
+            set.remove(slot);
+            if (!set.isEmpty()) {
+                RoaringBitmap[] newSets = sets.clone();
+                newSets[i] = set;
+                return new PriceIndex(keys, newSets);
+            }
+            RoaringBitmap[] newSets = new RoaringBitmap[sets.length - 1];
+            System.arraycopy(sets, 0, newSets, 0, i);
+            System.arraycopy(sets, i + 1, newSets, i, sets.length - i - 1);
+            return new PriceIndex(remove(keys, i), newSets);
+        }
+
+        //новое множество слотов товаров с ценой от minPrice до maxPrice (prices - цены по слотам)
+        RoaringBitmap set(float minPrice, float maxPrice, float[] prices) {
+            int minKey = key(minPrice);
+            int maxKey = key(maxPrice);
+            List<RoaringBitmap> inner = new ArrayList<>();
+            RoaringBitmap result = new RoaringBitmap();
+            for (int i = first(minKey); i < keys.length && keys[i] <= maxKey; i++) {
+                if (keys[i] != minKey && keys[i] != maxKey) {
+                    inner.add(sets[i]);
+                    continue;
+                }
+                PeekableIntIterator iterator = sets[i].getIntIterator();
+                while (iterator.hasNext()) {
+                    int slot = iterator.next();
+                    if (prices[slot] >= minPrice && prices[slot] <= maxPrice)
+                        result.add(slot);
+                }
+            }
+            inner.add(result);
+            return RoaringBitmap.or(inner.iterator());
+        }
+
+        //кол-во товаров в диапазонах цен от minPrice до maxPrice (с товарами крайних диапазонов)
+        int count(float minPrice, float maxPrice) {
+            int maxKey = key(maxPrice);
+            int count = 0;
+            for (int i = first(key(minPrice)); i < keys.length && keys[i] <= maxKey; i++)
+                count += sets[i].getCardinality();
+            return count;
+        }
+
+        //номер первого диапазона, не меньшего key
+        private int first(int key) {
+            int i = Arrays.binarySearch(keys, key);
+            return i >= 0 ? i : -i - 1;
+        }
+
+        //диапазон цены price: биты float, упорядоченные как числа со знаком, без младших 16 бит
+        private static int key(float price) {
+            int bits = Float.floatToIntBits(price + 0.0f);
+            return (bits ^ ((bits >> 31) & 0x7fffffff)) >> 16;
+        }
+    }
+}
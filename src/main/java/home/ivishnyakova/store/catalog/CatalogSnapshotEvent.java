@@ -0,0 +1,18 @@
+package home.ivishnyakova.store.catalog;
+
+import org.springframework.context.ApplicationEvent;
+
+/*Класс CatalogSnapshotEvent - событие "Заменен снимок каталога товаров".
+* Публикуется CatalogEngine после того, как изменение каталога (CatalogEvent) применено к снимку
+* в потоке обновления снимка. Данные, построенные по снимку (страницы витрины, счетчики панели фильтра),
+* до этого события могут не содержать изменения, поэтому по событию они сбрасываются еще раз.
+* Источник события - CatalogEngine.
+*
+* Автор: Вишнякова И.
+* */
+public class CatalogSnapshotEvent extends ApplicationEvent {
+
+    public CatalogSnapshotEvent(Object source) {
+        super(source);
+    }
+}
@@ -0,0 +1,123 @@
+package home.ivishnyakova.store.catalog;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*Класс CatalogVersions хранит версии ресурсов каталога: товары, категории, производители
+* (для условных запросов к REST-ресурсам - заголовки ETag, Last-Modified).
+*
+* Версия ресурса - номер, который увеличивается при каждом изменении ресурса в БД
+* (событие CatalogEvent публикуется DAO после успешной записи), и время изменения.
+* Версия увеличивается после сброса кешей и обновления снимков каталога (CatalogEvent.VERSION_ORDER),
+* поэтому ресурс, загруженный с новой версией, содержит изменение.
+* Событие CATALOG (импорт, выполнение sql-скриптов) изменяет версии всех ресурсов.
+* Снимок каталога обновляется в фоновом потоке, поэтому версия товаров увеличивается
+* еще раз после замены снимка (событие CatalogSnapshotEvent).
+* Номера версий начинаются с 0 при каждом запуске приложения, поэтому ETag содержит
+* также время запуска (эпоху) - после перезапуска прежние ETag не совпадают с новыми.
+*
+* Автор: Вишнякова И.
+* */
+@Component
+public class CatalogVersions {
+
+    //ресурсы каталога
+    public enum Resource {
+        GOODS,
+        CATEGORIES,
+        PRODUCERS
+    }
+
+    //эпоха - время создания версий (в 36-ричной системе)
+    private final String epoch;
+
+    //текущие версии ресурсов
+    private final Map<Resource, AtomicReference<Version>> versions = new EnumMap<>(Resource.class);
+
+    public CatalogVersions() {
+        this(System.currentTimeMillis());
+    }
+
+    /*Конструктор создает версии ресурсов с номером 0.
+    * @param    startTime - время запуска (эпоха ETag и время изменения ресурсов), мс.
+    * */
+    public CatalogVersions(long startTime) {
+        epoch = Long.toString(startTime, Character.MAX_RADIX);
+        for (Resource resource : Resource.values())
+            versions.put(resource, new AtomicReference<>(new Version(0, startTime)));
+    }
+
+    /*Метод getVersion возвращает текущую версию ресурса resource.*/
+    public Version getVersion(Resource resource) {
+        return versions.get(resource).get();
+    }
+
+    /*Метод getETag возвращает строгий ETag версии version ресурса resource
+    * в формате format (разные форматы одного ресурса имеют разные ETag).
+    * @param    format - формат представления ресурса (json, xml).
+    * @return   ETag в кавычках, например "goods-k3x9p2a1-15-json".
+    * */
+    public String getETag(Resource resource, Version version, String format) {
+        return "\"" + resource.name().toLowerCase() + "-" + epoch + "-" + version.getNumber() + "-" + format + "\"";
+    }
+
+    //изменение каталога: увеличение версий измененных ресурсов
+    @EventListener
+    @Order(CatalogEvent.VERSION_ORDER)
+    public void onCatalogChanged(CatalogEvent event) {
+        switch (event.getChange()) {
+            case INSERTED:
+            case UPDATED:
+            case DELETED:
+            case GOODS:
+                increment(Resource.GOODS);
+                break;
+            case PRODUCERS:
+                increment(Resource.PRODUCERS);
+                break;
+            case CATEGORIES:
+                increment(Resource.CATEGORIES);
+                break;
+            default:
+                for (Resource resource : Resource.values())
+                    increment(resource);
+        }
+    }
+
+    //замена снимка каталога (CatalogEngine): изменились счетчики товаров, построенные по снимку
+    @EventListener
+    public void onSnapshotChanged(CatalogSnapshotEvent event) {
+        increment(Resource.GOODS);
+    }
+
+    private void increment(Resource resource) {
+        long now = System.currentTimeMillis();
+        versions.get(resource).updateAndGet(version -> new Version(version.getNumber() + 1,
+                Math.max(now, version.getLastModified())));
+    }
+
+    /*Класс Version - неизменяемая версия ресурса: номер и время изменения
+    * (с точностью до секунды, как в заголовке Last-Modified).*/
+    public static final class Version {
+        private final long number;          //номер версии
+        private final long lastModified;    //время изменения ресурса, мс
+
+        Version(long number, long lastModified) {
+            this.number = number;
+            this.lastModified = lastModified / 1000 * 1000;
+        }
+
+        public long getNumber() {
+            return number;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+    }
+}
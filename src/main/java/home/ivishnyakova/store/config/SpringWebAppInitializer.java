@@ -4,6 +4,7 @@ import org.springframework.web.WebApplicationInitializer;
 import org.springframework.web.context.ContextLoaderListener;
 import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
 import org.springframework.web.filter.CharacterEncodingFilter;
+import org.springframework.web.filter.DelegatingFilterProxy;
 import org.springframework.web.servlet.DispatcherServlet;
 
 import javax.servlet.FilterRegistration;
@@ -44,5 +45,15 @@ public class SpringWebAppInitializer implements WebApplicationInitializer {
         fr.setInitParameter("forceEncoding", "true");
         fr.addMappingForUrlPatterns(null, true, "/*");
 
+        //сжатие ответов (бин compressionFilter; типы содержимого и мин. размер - в db-settings.properties)
+        FilterRegistration.Dynamic compression = servletContext.addFilter("compressionFilter",
+                new DelegatingFilterProxy("compressionFilter"));
+        compression.addMappingForUrlPatterns(null, true, "/*");
+
+        //кеш страниц витрины (бин pageCacheFilter; кешированная страница передается без сервлета-диспетчера)
+        FilterRegistration.Dynamic pageCache = servletContext.addFilter("pageCacheFilter",
+                new DelegatingFilterProxy("pageCacheFilter"));
+        pageCache.addMappingForUrlPatterns(null, true, "/*");
+
     }
 }
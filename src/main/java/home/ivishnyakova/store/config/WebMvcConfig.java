@@ -1,11 +1,15 @@
 package home.ivishnyakova.store.config;
 
+import home.ivishnyakova.store.rest.CborHttpMessageConverter;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.DefaultServletHandlerConfigurer;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
 
+import java.util.List;
+
 /*WebMvcConfig - класс-настройка веб-контекста приложения.
 * Автор: Вишнякова И.
 * */
@@ -29,6 +33,12 @@ public class WebMvcConfig extends WebMvcConfigurerAdapter {
 
     }
 
+    //конвертер ресурсов REST в формате cbor (добавляется к конвертерам по умолчанию: json, xml)
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new CborHttpMessageConverter());
+    }
+
     //включить пересылку запросов на сервлетов «по умолчанию»
     @Override
     public void configureDefaultServletHandling(DefaultServletHandlerConfigurer configurer) {
@@ -1,6 +1,8 @@
 package home.ivishnyakova.store.config.db;
 
+import org.apache.commons.pool2.impl.AbandonedConfig;
 import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -8,6 +10,9 @@ import javax.annotation.Resource;
 import java.sql.Connection;
 
 /*Класс ConnectionConfig предназначен для создания пула соединений Connection.
+* Настройки пула (размер, время ожидания, проверка и вытеснение соединений)
+* задаются бином connectionPoolConfig, настройки обнаружения "брошенных"
+* (не возвращенных в пул) соединений - бином connectionAbandonedConfig (db-context.xml).
 *
 * Автор: Вишнякова И.
 * */
@@ -18,10 +23,18 @@ public class ConnectionConfig {
     @Resource(name="connectionFactory")
     private ConnectionFactory connectionFactory;
 
+    //настройки пула соединений
+    @Resource(name="connectionPoolConfig")
+    private GenericObjectPoolConfig connectionPoolConfig;
+
+    //настройки обнаружения соединений, не возвращенных в пул
+    @Resource(name="connectionAbandonedConfig")
+    private AbandonedConfig connectionAbandonedConfig;
+
     //пул соединений с БД
     @Bean(name="connectionPool")
     public GenericObjectPool<Connection> getConnectionPool(){
-        return new GenericObjectPool<>(connectionFactory);
+        return new GenericObjectPool<>(connectionFactory, connectionPoolConfig, connectionAbandonedConfig);
     }
 
 }
@@ -2,6 +2,11 @@ package home.ivishnyakova.store.config.db;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+
+import home.ivishnyakova.store.cache.CacheStatistics;
 
 import org.apache.commons.pool2.BasePooledObjectFactory;
 import org.apache.commons.pool2.PooledObject;
@@ -9,15 +14,34 @@ import org.apache.commons.pool2.impl.DefaultPooledObject;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /*Класс ConnectionFactory представляет собой фабрику соединений к БД.
+* Кроме создания соединений, фабрика выполняет проверку соединения
+* при выдаче его из пула (validateObject) и возвращает соединение
+* в исходное состояние при возврате в пул (passivateObject).
+* Если statementCacheSize > 0, то каждое соединение кеширует подготовленные запросы (StatementCache).
 *
 * Автор: Вишнякова И.
 * */
 public class ConnectionFactory extends BasePooledObjectFactory<Connection> {
 
+    //запрос для проверки соединения (драйвер не поддерживает Connection.isValid)
+    private static final String DEFAULT_VALIDATION_QUERY = "SELECT 1";
+
     //инфо о соединении к БД
     @Autowired
     private ConnectionInfo connectionInfo;
 
+    //запрос для проверки соединения
+    private String validationQuery = DEFAULT_VALIDATION_QUERY;
+
+    //макс. количество подготовленных запросов в кеше одного соединения (0 - кеш не используется)
+    private int statementCacheSize;
+
+    //статистика кешей подготовленных запросов всех соединений
+    private final CacheStatistics statementCacheStatistics = new CacheStatistics();
+
+    //поколение кешей запросов (увеличивается при сбросе кешей)
+    private final AtomicLong statementCacheGeneration = new AtomicLong();
+
     public ConnectionFactory(){}
 
     public ConnectionFactory(ConnectionInfo connectionInfo){
@@ -27,10 +51,13 @@ public class ConnectionFactory extends BasePooledObjectFactory<Connection> {
     @Override
     public Connection create() throws Exception {
         Class.forName(connectionInfo.getDriver());
-        return DriverManager.getConnection(
+        Connection connection = DriverManager.getConnection(
                 connectionInfo.getUrl(),
                 connectionInfo.getUserName(),
                 connectionInfo.getPassword());
+        return statementCacheSize > 0 ?
+                StatementCache.wrap(connection, statementCacheSize, statementCacheStatistics, statementCacheGeneration) :
+                connection;
     }
 
     @Override
@@ -42,4 +69,57 @@ public class ConnectionFactory extends BasePooledObjectFactory<Connection> {
     public void destroyObject(PooledObject<Connection> connection) throws Exception {
         connection.getObject().close();
     }
-}
\ No newline at end of file
+
+    /*Метод validateObject проверяет, что соединение не закрыто и сервер БД отвечает на запрос.
+    * @return   true - соединение можно использовать, иначе - соединение будет удалено из пула.
+    * */
+    @Override
+    public boolean validateObject(PooledObject<Connection> connection) {
+        try (Statement statement = connection.getObject().createStatement()) {
+            statement.execute(validationQuery);
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /*Метод passivateObject возвращает соединение в режим автоматической фиксации транзакций,
+    * если клиент пула не сделал этого сам (незавершенная транзакция откатывается).
+    * */
+    @Override
+    public void passivateObject(PooledObject<Connection> connection) throws Exception {
+        Connection connectionTmp = connection.getObject();
+        if (!connectionTmp.getAutoCommit()) {
+            connectionTmp.rollback();
+            connectionTmp.setAutoCommit(true);
+        }
+        connectionTmp.clearWarnings();
+    }
+
+    /*Метод clearStatementCaches сбрасывает кеши подготовленных запросов всех соединений.
+    * Вызывается после изменения структуры таблиц БД (подготовленные запросы становятся недействительными).
+    * Кеш соединения очищается при следующем обращении к нему.*/
+    public void clearStatementCaches() {
+        statementCacheGeneration.incrementAndGet();
+    }
+
+    public CacheStatistics getStatementCacheStatistics() {
+        return statementCacheStatistics;
+    }
+
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    public void setStatementCacheSize(int statementCacheSize) {
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    public String getValidationQuery() {
+        return validationQuery;
+    }
+
+    public void setValidationQuery(String validationQuery) {
+        this.validationQuery = validationQuery;
+    }
+}
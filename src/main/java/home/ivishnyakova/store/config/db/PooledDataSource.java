@@ -0,0 +1,223 @@
+package home.ivishnyakova.store.config.db;
+
+import home.ivishnyakova.store.cache.CacheStatistics;
+import home.ivishnyakova.store.utils.LoggerUtil;
+import org.apache.commons.pool2.PooledObjectFactory;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/*Класс PooledDataSource представляет собой источник данных, который выдает
+* соединения из пула соединений connectionPool (commons-pool2).
+* Соединение, полученное из источника, при закрытии (close) не закрывается,
+* а возвращается в пул. Повторное закрытие соединения игнорируется.
+* Каждый вызов метода соединения (и TrackedConnection.markUsed) отмечается в пуле как использование
+* соединения: если в настройках пула useUsageTracking = true, то соединение, которое используется
+* дольше removeAbandonedTimeout (например, при экспорте), не считается брошенным.
+*
+* Используется всеми DAO (через NamedParameterJdbcTemplate или напрямую)
+* и DatabaseScriptExecutor.
+*
+* Автор: Вишнякова И.
+* */
+public class PooledDataSource implements DataSource {
+
+    //для логирования
+    private static final Logger logger = LogManager.getLogger(LoggerUtil.getClassName());
+
+    //пул соединений
+    private final GenericObjectPool<Connection> connectionPool;
+
+    private PrintWriter logWriter;
+    private int loginTimeout;
+
+    public PooledDataSource(GenericObjectPool<Connection> connectionPool) {
+        this.connectionPool = Optional.ofNullable(connectionPool)
+                .orElseThrow(() -> new IllegalArgumentException("The connection pool is null"));
+    }
+
+    /*Метод getConnection выдает соединение из пула.
+    * Если свободных соединений нет, то ожидает освобождения соединения
+    * не дольше, чем maxWaitMillis (настройка пула).
+    * @throws   SQLTransientConnectionException - истекло время ожидания соединения.
+    * @throws   SQLException - не удалось создать соединение к БД.
+    * */
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection;
+        try {
+            connection = connectionPool.borrowObject();
+        } catch (NoSuchElementException e) {
+            throw new SQLTransientConnectionException("The connection pool is exhausted: " + e.getMessage(), e);
+        } catch (SQLException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new SQLException("Can't borrow the connection from the pool", e);
+        }
+        return (Connection) Proxy.newProxyInstance(TrackedConnection.class.getClassLoader(),
+                new Class<?>[]{Connection.class, TrackedConnection.class},
+                new PooledConnectionHandler(connection));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("The pooled data source uses the settings of the connection pool");
+    }
+
+    /*Метод close закрывает пул и все свободные соединения.
+    * Вызывается при уничтожении бина.*/
+    public void close() {
+        connectionPool.close();
+    }
+
+    public GenericObjectPool<Connection> getConnectionPool() {
+        return connectionPool;
+    }
+
+    //количество выданных соединений
+    public int getNumActive() {
+        return connectionPool.getNumActive();
+    }
+
+    //количество свободных соединений
+    public int getNumIdle() {
+        return connectionPool.getNumIdle();
+    }
+
+    /*Метод getStatementCacheStatistics возвращает статистику кешей подготовленных запросов.
+    * @return   статистика или null - если пул создан не фабрикой ConnectionFactory.*/
+    public CacheStatistics getStatementCacheStatistics() {
+        PooledObjectFactory<Connection> factory = connectionPool.getFactory();
+        return factory instanceof ConnectionFactory ?
+                ((ConnectionFactory) factory).getStatementCacheStatistics() : null;
+    }
+
+    /*Метод clearStatementCaches сбрасывает кеши подготовленных запросов всех соединений пула.*/
+    public void clearStatementCaches() {
+        PooledObjectFactory<Connection> factory = connectionPool.getFactory();
+        if (factory instanceof ConnectionFactory) {
+            ((ConnectionFactory) factory).clearStatementCaches();
+        }
+    }
+
+    /*Метод returnConnection возвращает соединение connection в пул.
+    * Закрытое (разорванное) соединение удаляется из пула.*/
+    private void returnConnection(Connection connection) {
+        try {
+            if (connection.isClosed()) {
+                connectionPool.invalidateObject(connection);
+            } else {
+                connectionPool.returnObject(connection);
+            }
+        } catch (Exception e) {
+            logger.error("The connection was not returned to the pool", e);
+        }
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return logWriter;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        this.logWriter = out;
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        this.loginTimeout = seconds;
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return loginTimeout;
+    }
+
+    @Override
+    public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this))
+            return (T) this;
+        throw new SQLException("The data source is not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this);
+    }
+
+    /*Класс PooledConnectionHandler перехватывает вызовы методов соединения,
+    * выданного из пула: close() возвращает соединение в пул, markUsed() и остальные методы
+    * отмечают использование соединения в пуле, после закрытия остальные методы недоступны.*/
+    private class PooledConnectionHandler implements InvocationHandler {
+
+        private final Connection connection;    //соединение из пула
+        private boolean closed;                 //соединение возвращено в пул
+
+        PooledConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        returnConnection(connection);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled " + connection;
+                case "markUsed":
+                    if (!closed)
+                        connectionPool.use(connection);
+                    return null;
+                case "unwrap":
+                case "isWrapperFor":
+                    if (!closed && ((Class<?>) args[0]).isInstance(proxy))
+                        return method.getName().equals("unwrap") ? proxy : true;
+                    //драйвер БД не реализует unwrap - соединение из пула выдается без обращения к драйверу
+                    if (!closed && ((Class<?>) args[0]).isInstance(connection))
+                        return method.getName().equals("unwrap") ? connection : true;
+                    //иначе - вызов метода соединения
+                default:
+                    if (closed)
+                        throw new SQLException("The connection is already returned to the pool");
+            }
+
+            connectionPool.use(connection);
+
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package home.ivishnyakova.store.config.db;
+
+import home.ivishnyakova.store.cache.CacheStatistics;
+import home.ivishnyakova.store.utils.LoggerUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*Класс StatementCache представляет собой кеш подготовленных запросов (PreparedStatement)
+* одного физического соединения к БД.
+* Ключ кеша - текст sql-запроса (и способ получения сгенерированных ключей).
+* Кеш ограничен по размеру, при переполнении вытесняется запрос,
+* который дольше всех не использовался (LRU).
+*
+* Соединение, созданное методом wrap, выдает запросы из кеша; закрытие такого запроса
+* возвращает его в кеш (параметры, пакет и настройки запроса сбрасываются), а не закрывает его.
+* Повторное использование одного и того же PreparedStatement позволяет драйверу
+* выполнять запрос на сервере как подготовленный (без повторного разбора и планирования).
+*
+* Автор: Вишнякова И.
+* */
+public class StatementCache {
+
+    //для логирования
+    private static final Logger logger = LogManager.getLogger(LoggerUtil.getClassName());
+
+    private final Connection connection;        //физическое соединение
+    private final int maxSize;                  //макс. количество запросов в кеше
+    private final CacheStatistics statistics;   //общая статистика кешей всех соединений
+    private final AtomicLong generation;        //поколение кешей (изменяется при сбросе всех кешей)
+    private long cacheGeneration;               //поколение данного кеша
+
+    //запросы в порядке последнего использования
+    private final LinkedHashMap<String, CachedStatement> statements;
+
+    private StatementCache(Connection connection, int maxSize, CacheStatistics statistics, AtomicLong generation) {
+        this.connection = connection;
+        this.maxSize = maxSize;
+        this.statistics = statistics;
+        this.generation = generation;
+        this.cacheGeneration = generation.get();
+        this.statements = new LinkedHashMap<String, CachedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() > StatementCache.this.maxSize) {
+                    StatementCache.this.statistics.recordEviction();
+                    discard(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /*Метод wrap создает соединение, которое кеширует подготовленные запросы физического соединения connection.
+    * @param    connection - физическое соединение к БД.
+    * @param    maxSize - макс. количество запросов в кеше соединения.
+    * @param    statistics - статистика попаданий/промахов кеша.
+    * @param    generation - поколение кешей; при его изменении кеш очищается перед следующим обращением.
+    * @return   соединение с кешем запросов.
+    * */
+    public static Connection wrap(Connection connection, int maxSize, CacheStatistics statistics, AtomicLong generation) {
+        StatementCache cache = new StatementCache(connection, maxSize, statistics, generation);
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                cache.new CachingConnectionHandler());
+    }
+
+    /*Метод prepare выдает запрос из кеша или подготавливает новый запрос.
+    * Если запрос с таким ключом уже выдан и не возвращен в кеш,
+    * то подготавливается запрос, который не кешируется.*/
+    private synchronized PreparedStatement prepare(String key, Method method, Object[] args) throws Throwable {
+        checkGeneration();
+
+        CachedStatement cached = statements.get(key);
+        if (cached != null && !cached.inUse) {
+            statistics.recordHit();
+            cached.inUse = true;
+            return cached.lease();
+        }
+
+        statistics.recordMiss();
+        PreparedStatement statement = (PreparedStatement) invoke(connection, method, args);
+        if (cached != null) {
+            return statement;
+        }
+
+        cached = new CachedStatement(key, statement);
+        cached.inUse = true;
+        statements.put(key, cached);
+        return cached.lease();
+    }
+
+    /*Метод release возвращает запрос в кеш после закрытия его клиентом.*/
+    private synchronized void release(CachedStatement cached) {
+        cached.inUse = false;
+        if (cached.evicted || statements.get(cached.key) != cached) {
+            closeQuietly(cached.statement);
+            return;
+        }
+        try {
+            cached.reset();
+        } catch (SQLException e) {
+            statements.remove(cached.key);
+            closeQuietly(cached.statement);
+        }
+    }
+
+    /*Метод checkGeneration очищает кеш, если все кеши были сброшены
+    * (например, после изменения структуры таблиц БД).*/
+    private void checkGeneration() {
+        long current = generation.get();
+        if (current != cacheGeneration) {
+            cacheGeneration = current;
+            clear();
+        }
+    }
+
+    //удаление всех запросов из кеша
+    private synchronized void clear() {
+        Iterator<CachedStatement> iterator = statements.values().iterator();
+        while (iterator.hasNext()) {
+            discard(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    //запрос, удаленный из кеша, закрывается сразу или после возврата клиентом
+    private void discard(CachedStatement cached) {
+        cached.evicted = true;
+        if (!cached.inUse) {
+            closeQuietly(cached.statement);
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            logger.warn("The cached statement was not closed", e);
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /*Метод keyOf формирует ключ кеша для вызова prepareStatement с аргументами args.
+    * @return   ключ или null - если такой вызов не кешируется.*/
+    private static String keyOf(Object[] args) {
+        if (args.length == 1) {
+            return (String) args[0];
+        }
+        if (args.length == 2 && args[1] instanceof String[]) {
+            return args[0] + "\n#keys:" + Arrays.toString((String[]) args[1]);
+        }
+        if (args.length == 2 && args[1] instanceof Integer) {
+            return args[0] + "\n#autoGeneratedKeys:" + args[1];
+        }
+        return null;
+    }
+
+    /*Класс CachedStatement - запись кеша.*/
+    private class CachedStatement {
+        private final String key;
+        private final PreparedStatement statement;
+        private boolean inUse;      //запрос выдан клиенту
+        private boolean evicted;    //запрос удален из кеша
+
+        CachedStatement(String key, PreparedStatement statement) {
+            this.key = key;
+            this.statement = statement;
+        }
+
+        //выдача запроса клиенту
+        PreparedStatement lease() {
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new CachedStatementHandler(this));
+        }
+
+        //подготовка запроса к повторному использованию
+        void reset() throws SQLException {
+            ResultSet resultSet = statement.getResultSet();
+            if (resultSet != null) {
+                resultSet.close();
+            }
+            statement.clearParameters();
+            statement.clearBatch();     //пакет, не выполненный клиентом, не выполняется следующим клиентом
+            statement.clearWarnings();
+            statement.setFetchSize(0);
+            statement.setMaxRows(0);
+            statement.setQueryTimeout(0);
+        }
+    }
+
+    /*Класс CachingConnectionHandler перехватывает подготовку запросов физическим соединением.
+    * При закрытии соединения закрываются все запросы в кеше.*/
+    private class CachingConnectionHandler implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "prepareStatement":
+                    String key = keyOf(args);
+                    if (key != null) {
+                        return prepare(key, method, args);
+                    }
+                    break;
+                case "close":
+                    List<CachedStatement> cachedStatements;
+                    synchronized (StatementCache.this) {
+                        cachedStatements = new ArrayList<>(statements.values());
+                        statements.clear();
+                    }
+                    cachedStatements.forEach(cached -> closeQuietly(cached.statement));
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Caching " + connection;
+                case "unwrap":
+                case "isWrapperFor":
+                    //драйвер БД не реализует unwrap - физическое соединение выдается без обращения к драйверу
+                    boolean isWrapper = ((Class<?>) args[0]).isInstance(connection);
+                    if (method.getName().equals("isWrapperFor"))
+                        return isWrapper;
+                    if (!isWrapper)
+                        throw new SQLException("The connection is not a wrapper for " + ((Class<?>) args[0]).getName());
+                    return connection;
+            }
+            return StatementCache.invoke(connection, method, args);
+        }
+    }
+
+    /*Класс CachedStatementHandler перехватывает закрытие запроса, выданного из кеша.*/
+    private class CachedStatementHandler implements InvocationHandler {
+
+        private final CachedStatement cached;
+        private boolean closed;     //запрос возвращен в кеш
+
+        CachedStatementHandler(CachedStatement cached) {
+            this.cached = cached;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(cached);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || cached.statement.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cached " + cached.statement;
+                default:
+                    if (closed)
+                        throw new SQLException("The statement is already closed");
+            }
+            return StatementCache.invoke(cached.statement, method, args);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package home.ivishnyakova.store.config.db;
+
+/*Интерфейс TrackedConnection - соединение из пула, использование которого отмечается в пуле.
+* Пул считает соединение "брошенным" (не возвращенным в пул) и закрывает его, если соединение
+* не использовалось дольше removeAbandonedTimeout (при useUsageTracking = true - с момента
+* последнего использования, иначе - с момента выдачи из пула).
+* Соединение из PooledDataSource можно получить методом unwrap(TrackedConnection.class).
+*
+* Автор: Вишнякова И.
+* */
+public interface TrackedConnection {
+
+    //отметить использование соединения (например, при чтении очередной порции строк курсора)
+    void markUsed();
+}
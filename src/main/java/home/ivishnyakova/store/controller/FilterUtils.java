@@ -1,14 +1,27 @@
 package home.ivishnyakova.store.controller;
 
+import home.ivishnyakova.store.catalog.CatalogEngine;
+import home.ivishnyakova.store.catalog.CatalogFacets;
+import home.ivishnyakova.store.catalog.CatalogSnapshot;
 import home.ivishnyakova.store.dao.CategoryDao;
 import home.ivishnyakova.store.dao.GoodsDao;
 import home.ivishnyakova.store.dao.ProducerDao;
+import home.ivishnyakova.store.entity.Category;
+import home.ivishnyakova.store.entity.Goods;
+import home.ivishnyakova.store.entity.GoodsSummary;
+import home.ivishnyakova.store.entity.Producer;
 import home.ivishnyakova.store.utils.CategoryLevel;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.ui.ModelMap;
 import org.springframework.web.bind.annotation.ModelAttribute;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
 /*Класс FilterUtils предназначен для загрузки и сохранения настроек фильтра
 * товаров с/в представление.
 *
@@ -22,40 +35,154 @@ public class FilterUtils {
     //для доступа к производителям в БД
     @Autowired
     private ProducerDao producerDao;
-    //для доступа к товарам в БД
+    //для фильтрации товаров витрины в памяти
+    @Autowired
+    private CatalogEngine catalogEngine;
+    //для поиска товаров по тексту в БД
     @Autowired
     private GoodsDao goodsDao;
+    //для загрузки данных страницы (один раз за запрос, параллельно)
+    @Autowired
+    private ModelLoader modelLoader;
+    //ключи загрузок данных страницы
+    private static final String CATEGORIES = "categories";
+    private static final String PRODUCERS = "producers";
+    private static final String SNAPSHOT = "snapshot";
+    private static final String SEARCH = "search";
+    //кол-во найденных товаров на витрине
+    private static final int SEARCH_PAGE_SIZE = 100;
     //уровень подкатегорий
     private short SUB_CATEGORY_LEVEL = CategoryLevel.SUB_CATEGORY.getLevel();
 
-    /*Установка значений по умолчанию для фильтра товаров в модели model*/
-    protected void setDefaultAttributes(ModelMap model) {
+    /*Установка значений по умолчанию для фильтра товаров в модели model
+    * (без списка товаров)*/
+    protected void setDefaultFilterAttributes(ModelMap model) {
 
         model.addAttribute("filterMinPrice", 0);
         model.addAttribute("filterMaxPrice", 0);
         model.addAttribute("filterInStorage", true);
         model.addAttribute("filterIdCategory", 0);
         model.addAttribute("filterIdProducer", 0);
+        model.addAttribute("filterText", "");
 
-        model.addAttribute("categoriesList", categoryDao.getCategoryFullNameListByLevel(SUB_CATEGORY_LEVEL));
-        model.addAttribute("producersList", producerDao.getProducerSortList(true));
-        model.addAttribute("goodsList", goodsDao.getGoodsList(true));
-
+        setListAttributes(model);
     }
 
-    /*Получение значений параметров фильтра товаров filter из модели model*/
-    protected void getGoodsByFilter (ModelMap model,  @ModelAttribute("goodsFilter") GoodsFilter filter){
+    /*Сохранение значений параметров фильтра товаров filter в модели model
+    * (без списка товаров)*/
+    protected void setFilterAttributes(ModelMap model, GoodsFilter filter) {
 
         model.addAttribute("filterMinPrice", filter.getFilterMinPrice());
         model.addAttribute("filterMaxPrice", filter.getFilterMaxPrice());
         model.addAttribute("filterInStorage", filter.isFilterInStorage());
         model.addAttribute("filterIdCategory", filter.getFilterIdCategory());
         model.addAttribute("filterIdProducer", filter.getFilterIdProducer());
+        model.addAttribute("filterText", Optional.ofNullable(filter.getFilterText()).orElse(""));
+
+        setListAttributes(model);
+    }
 
-        model.addAttribute("categoriesList", categoryDao.getCategoryFullNameListByLevel(SUB_CATEGORY_LEVEL));
-        model.addAttribute("producersList", producerDao.getProducerSortList(true));
-        model.addAttribute("goodsList", goodsDao.getGoodsListByFilter(filter.getFilterMinPrice(), filter.getFilterMaxPrice(), filter.getFilterIdCategory(), filter.getFilterIdProducer(), filter.isFilterInStorage()));
+    /*Сохранение списка товаров goodsList в модели model в виде строк таблицы товаров
+    * с наименованиями категорий и производителей.*/
+    protected void setGoodsRows(ModelMap model, List<Goods> goodsList) {
+        Map<Integer, String> categoryNames = getCategoryNames();
+        Map<Integer, String> producerNames = getProducerNames();
+        model.addAttribute("goodsList", goodsList.stream()
+                .map(goods -> GoodsRow.of(goods, categoryNames, producerNames))
+                .collect(Collectors.toList()));
+    }
+
+    /*Сохранение списка товаров без полного описания goodsList в модели model в виде строк таблицы товаров
+    * с наименованиями категорий и производителей.*/
+    protected void setGoodsSummaryRows(ModelMap model, List<GoodsSummary> goodsList) {
+        Map<Integer, String> categoryNames = getCategoryNames();
+        Map<Integer, String> producerNames = getProducerNames();
+        model.addAttribute("goodsList", goodsList.stream()
+                .map(goods -> GoodsRow.of(goods, categoryNames, producerNames))
+                .collect(Collectors.toList()));
+    }
+
+    /*Установка значений по умолчанию для фильтра товаров в модели model
+    * и списка всех товаров (без полного описания) для витрины магазина*/
+    protected void setDefaultAttributes(ModelMap model) {
+        CompletableFuture<CatalogSnapshot> snapshotLoad = loadSnapshot();
+        setDefaultFilterAttributes(model);
+        CatalogSnapshot snapshot = modelLoader.get(snapshotLoad);
+        setGoodsSummaryRows(model, snapshot.getGoodsSummaryList());
+        setFacetAttributes(model, snapshot.getFacets(0, 0, new int[0], new int[0], true, catalogEngine.getPriceBounds()));
+    }
+
+    /*Получение значений параметров фильтра товаров filter из модели model
+    * и списка товаров (без полного описания) согласно фильтру для витрины магазина.
+    * Если задан текст поиска, товары ищутся в БД (первые SEARCH_PAGE_SIZE товаров по релевантности),
+    * иначе выбираются из снимка каталога. Счетчики товаров панели фильтра текст поиска не учитывают.
+    * Поиск товаров, снимок каталога и списки категорий и производителей загружаются параллельно.*/
+    protected void getGoodsByFilter (ModelMap model,  @ModelAttribute("goodsFilter") GoodsFilter filter){
+        Optional<String> text = Optional.ofNullable(filter.getFilterText()).filter(value -> !value.trim().isEmpty());
+        CompletableFuture<List<GoodsSummary>> searchLoad = text.map(value -> modelLoader.load(SEARCH,
+                () -> goodsDao.searchGoods(value, filter.getFilterMinPrice(), filter.getFilterMaxPrice(), filter.getFilterIdCategory(), filter.getFilterIdProducer(), filter.isFilterInStorage(), 0, SEARCH_PAGE_SIZE)))
+                .orElse(null);
+        CompletableFuture<CatalogSnapshot> snapshotLoad = loadSnapshot();
+        setFilterAttributes(model, filter);
+        CatalogSnapshot snapshot = modelLoader.get(snapshotLoad);
+        if (searchLoad != null)
+            setGoodsSummaryRows(model, modelLoader.get(searchLoad));
+        else
+            setGoodsSummaryRows(model, snapshot.getGoodsSummaryListByFilter(filter.getFilterMinPrice(), filter.getFilterMaxPrice(), filter.getFilterIdCategory(), filter.getFilterIdProducer(), filter.isFilterInStorage()));
+        setFacetAttributes(model, snapshot.getFacets(filter.getFilterMinPrice(), filter.getFilterMaxPrice(),
+                codes(filter.getFilterIdCategory()), codes(filter.getFilterIdProducer()), filter.isFilterInStorage(),
+                catalogEngine.getPriceBounds()));
+    }
+
+    /*Сохранение счетчиков товаров панели фильтра facets в модели model:
+    * кол-во товаров по коду категории, по коду производителя, на складе/нет на складе и по диапазонам цен*/
+    private void setFacetAttributes(ModelMap model, CatalogFacets facets) {
+        model.addAttribute("categoryCounts", CatalogFacets.toMap(facets.getCategories()));
+        model.addAttribute("producerCounts", CatalogFacets.toMap(facets.getProducers()));
+        model.addAttribute("inStorageCount", facets.getInStorage());
+        model.addAttribute("notInStorageCount", facets.getNotInStorage());
+        model.addAttribute("priceBuckets", facets.getPriceBuckets());
+    }
+
+    /*Сохранение в модели model списков категорий и производителей
+    * (для панели фильтра и выбора категории/производителя товара); списки загружаются параллельно*/
+    private void setListAttributes(ModelMap model) {
+        CompletableFuture<List<Category>> categoriesLoad = loadCategories();
+        CompletableFuture<List<Producer>> producersLoad = loadProducers();
+        model.addAttribute("categoriesList", modelLoader.get(categoriesLoad));
+        model.addAttribute("producersList", modelLoader.get(producersLoad));
+    }
+
+    //загрузка списка подкатегорий (с полными наименованиями) - один раз за запрос
+    private CompletableFuture<List<Category>> loadCategories() {
+        return modelLoader.load(CATEGORIES, () -> categoryDao.getCategoryFullNameListByLevel(SUB_CATEGORY_LEVEL));
+    }
+
+    //загрузка списка производителей - один раз за запрос
+    private CompletableFuture<List<Producer>> loadProducers() {
+        return modelLoader.load(PRODUCERS, () -> producerDao.getProducerSortList(true));
+    }
+
+    //получение снимка каталога (если снимок не загружен, он загружается из БД) - один раз за запрос
+    private CompletableFuture<CatalogSnapshot> loadSnapshot() {
+        return modelLoader.load(SNAPSHOT, catalogEngine::getSnapshot);
+    }
+
+    //справочник код -> полное наименование подкатегории (для строк таблицы товаров)
+    private Map<Integer, String> getCategoryNames() {
+        return modelLoader.get(loadCategories()).stream()
+                .collect(Collectors.toMap(Category::getId, Category::getName, (a, b) -> a));
+    }
+
+    //справочник код -> наименование производителя (для строк таблицы товаров)
+    private Map<Integer, String> getProducerNames() {
+        return modelLoader.get(loadProducers()).stream()
+                .collect(Collectors.toMap(Producer::getId, Producer::getName, (a, b) -> a));
+    }
 
+    //коды условия фильтра (0 - условие не задано)
+    private static int[] codes(int code) {
+        return code == 0 ? new int[0] : new int[]{code};
     }
 
     public short getSUB_CATEGORY_LEVEL() {
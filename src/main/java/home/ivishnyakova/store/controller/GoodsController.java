@@ -1,8 +1,6 @@
 package home.ivishnyakova.store.controller;
 
-import home.ivishnyakova.store.dao.CategoryDao;
 import home.ivishnyakova.store.dao.GoodsDao;
-import home.ivishnyakova.store.dao.ProducerDao;
 import home.ivishnyakova.store.entity.Goods;
 import home.ivishnyakova.store.exceptions.StoreException;
 import home.ivishnyakova.store.exceptions.ValidationException;
@@ -14,7 +12,9 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.ModelAndView;
 
 import javax.annotation.Resource;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /* Класс GoodsController является контроллером для веб-страницы администрирования товаров.
 *
@@ -27,18 +27,14 @@ public class GoodsController {
     @Autowired
     private GoodsDao goodsDao;
 
-    //для доступа к категориям в БД
-    @Autowired
-    private CategoryDao categoryDao;
-
-    //для доступа к производителям в БД
-    @Autowired
-    private ProducerDao producerDao;
-
     //для работы с фильтром товаров
     @Autowired
     private FilterUtils filterUtils;
 
+    //для загрузки данных страницы (один раз за запрос, параллельно)
+    @Autowired
+    private ModelLoader modelLoader;
+
     //для обработки исключений и представления ошибок на веб-странице
     @Autowired
     private ViewHandlerException viewHandlerException;
@@ -59,6 +55,9 @@ public class GoodsController {
     private static final String UPDATE_GOODS = "/updateGoods/{id}";
     private static final String DELETE_GOODS = "/deleteGoods/{id}";
 
+    //ключ загрузки товаров страницы
+    private static final String GOODS = "goods";
+
 
     /*Метод getGoods загружает в модель инфо о товарах, категориях и производителях,
     * а также настраивает фильт товаров (по умолчанию - отображать все товары).
@@ -70,11 +69,11 @@ public class GoodsController {
     * */
     @RequestMapping(value = GET_GOODS, method = RequestMethod.GET)
     public String getGoods (ModelMap model){
-        model.addAttribute("goodsList", goodsDao.getGoodsList());
-        model.addAttribute("producersList", producerDao.getProducerSortList(true));
-        model.addAttribute("categoriesList", categoryDao.getCategoryFullNameListByLevel(filterUtils.getSUB_CATEGORY_LEVEL()));
-
-        filterUtils.setDefaultAttributes(model);
+        //страница администрирования редактирует описание товаров - нужны полные данные товаров
+        //(товары загружаются параллельно со списками категорий и производителей)
+        CompletableFuture<List<Goods>> goodsLoad = modelLoader.load(GOODS, () -> goodsDao.getGoodsList(true));
+        filterUtils.setDefaultFilterAttributes(model);
+        filterUtils.setGoodsRows(model, modelLoader.get(goodsLoad));
         return PAGE_GOODS;
     }
 
@@ -88,7 +87,11 @@ public class GoodsController {
     * */
     @RequestMapping(value = GET_FILTER_GOODS, method = RequestMethod.GET)
     public String getGoodsByFilter (ModelMap model, @ModelAttribute("goodsFilter") GoodsFilter filter){
-        filterUtils.getGoodsByFilter(model,filter);
+        CompletableFuture<List<Goods>> goodsLoad = modelLoader.load(GOODS, () -> goodsDao.getGoodsListByFilter(
+                filter.getFilterMinPrice(), filter.getFilterMaxPrice(),
+                filter.getFilterIdCategory(), filter.getFilterIdProducer(), filter.isFilterInStorage()));
+        filterUtils.setFilterAttributes(model, filter);
+        filterUtils.setGoodsRows(model, modelLoader.get(goodsLoad));
         return PAGE_GOODS;
     }
 
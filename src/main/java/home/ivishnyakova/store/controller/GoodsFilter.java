@@ -12,6 +12,7 @@ public class GoodsFilter implements Serializable{
     private float filterMinPrice;       //минимальная цена диапазона
     private float filterMaxPrice;       //максимальная цена диапазона
     private boolean filterInStorage;    //признак есть ли складе
+    private String filterText;          //текст поиска в наименовании и описании (пустой - без поиска)
 
     public GoodsFilter(){
     }
@@ -55,4 +56,12 @@ public class GoodsFilter implements Serializable{
     public void setFilterInStorage(boolean filterInStorage) {
         this.filterInStorage = filterInStorage;
     }
+
+    public String getFilterText() {
+        return filterText;
+    }
+
+    public void setFilterText(String filterText) {
+        this.filterText = filterText;
+    }
 }
@@ -0,0 +1,87 @@
+package home.ivishnyakova.store.controller;
+
+import home.ivishnyakova.store.entity.Goods;
+import home.ivishnyakova.store.entity.GoodsSummary;
+
+import java.util.Map;
+
+/*Класс GoodsRow - строка таблицы товаров на веб-странице: данные товара
+* и наименования его категории и производителя.
+* Наименования определяются один раз при подготовке модели (по справочникам код -> наименование),
+* поэтому страница не ищет категорию и производителя каждого товара в списках.
+*
+* Автор: Вишнякова И.
+* */
+public class GoodsRow {
+
+    private final int id;                   //код товара
+    private final String name;              //наименование товара
+    private final float price;              //цена
+    private final String description;       //описание (полное - для страницы администрирования, иначе - начало)
+    private final boolean in_storage;       //есть ли на складе
+    private final int id_category;          //код категории
+    private final int id_producer;          //код производителя
+    private final String categoryName;      //полное наименование категории ("" - категория не найдена)
+    private final String producerName;      //наименование производителя ("" - производитель не найден)
+
+    private GoodsRow(int id, String name, float price, String description, boolean in_storage,
+                     int id_category, int id_producer, Map<Integer, String> categoryNames, Map<Integer, String> producerNames) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.description = description;
+        this.in_storage = in_storage;
+        this.id_category = id_category;
+        this.id_producer = id_producer;
+        this.categoryName = categoryNames.getOrDefault(id_category, "");
+        this.producerName = producerNames.getOrDefault(id_producer, "");
+    }
+
+    //строка витрины (товар без полного описания)
+    public static GoodsRow of(GoodsSummary goods, Map<Integer, String> categoryNames, Map<Integer, String> producerNames) {
+        return new GoodsRow(goods.getId(), goods.getName(), goods.getPrice(), goods.getShortDescription(), goods.isIn_storage(),
+                goods.getId_category(), goods.getId_producer(), categoryNames, producerNames);
+    }
+
+    //строка страницы администрирования (товар с полным описанием)
+    public static GoodsRow of(Goods goods, Map<Integer, String> categoryNames, Map<Integer, String> producerNames) {
+        return new GoodsRow(goods.getId(), goods.getName(), goods.getPrice(), goods.getDescription(), goods.isIn_storage(),
+                goods.getId_category(), goods.getId_producer(), categoryNames, producerNames);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public float getPrice() {
+        return price;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public boolean isIn_storage() {
+        return in_storage;
+    }
+
+    public int getId_category() {
+        return id_category;
+    }
+
+    public int getId_producer() {
+        return id_producer;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public String getProducerName() {
+        return producerName;
+    }
+}
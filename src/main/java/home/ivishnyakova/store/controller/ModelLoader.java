@@ -0,0 +1,67 @@
+package home.ivishnyakova.store.controller;
+
+import org.springframework.context.annotation.Scope;
+import org.springframework.context.annotation.ScopedProxyMode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.annotation.Resource;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/*Класс ModelLoader предназначен для загрузки данных веб-страницы (товары, категории, производители)
+* в рамках одного запроса.
+*
+* Каждая загрузка выполняется не более одного раза за запрос: результат запоминается по ключу,
+* повторная загрузка с тем же ключом возвращает запомненный результат.
+* Независимые загрузки выполняются параллельно в пуле потоков modelExecutor (ограниченного размера),
+* поэтому время подготовки страницы определяется самой долгой загрузкой, а не суммой всех загрузок.
+* Объект создается для каждого запроса (область видимости - request).
+*
+* Автор: Вишнякова И.
+* */
+@Component
+@Scope(value = WebApplicationContext.SCOPE_REQUEST, proxyMode = ScopedProxyMode.TARGET_CLASS)
+public class ModelLoader {
+
+    //пул потоков для загрузки данных
+    @Resource(name = "modelExecutor")
+    private Executor modelExecutor;
+
+    //загрузки запроса по ключам
+    private final Map<String, CompletableFuture<?>> loads = new ConcurrentHashMap<>();
+
+    /*Метод load начинает загрузку данных в пуле потоков (если загрузка с ключом key еще не начиналась).
+    * @param    key - ключ загрузки (одинаковые данные - одинаковый ключ).
+    * @param    loader - загрузка данных.
+    * @return   результат загрузки (получить его следует методом get).
+    * */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> load(String key, Supplier<T> loader) {
+        return (CompletableFuture<T>) loads.computeIfAbsent(key, k -> CompletableFuture.supplyAsync(loader, modelExecutor));
+    }
+
+    /*Метод get ожидает окончания загрузки и возвращает загруженные данные.
+    * @throws   исключение, возникшее при загрузке данных (например, StoreException).
+    * */
+    public <T> T get(CompletableFuture<T> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error)
+                throw (Error) e.getCause();
+            throw e;
+        }
+    }
+
+    /*Метод get загружает данные с ключом key (или возвращает уже загруженные в запросе данные).*/
+    public <T> T get(String key, Supplier<T> loader) {
+        return get(load(key, loader));
+    }
+}
@@ -0,0 +1,48 @@
+package home.ivishnyakova.store.dao;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*Класс BatchResult содержит результат пакетной операции над списком записей:
+* количество успешно обработанных записей и ошибки по отдельным записям
+* (номер записи в переданном списке -> причина ошибки).
+* Ошибка в одной записи не отменяет обработку остальных записей пакета.
+*
+* Автор: Вишнякова И.
+* */
+public class BatchResult implements Serializable {
+
+    private int processed;                                          //кол-во обработанных записей
+    private final Map<Integer, String> failures = new TreeMap<>();  //ошибки по номеру записи
+
+    public void addProcessed() {
+        processed++;
+    }
+
+    public void addFailure(int index, String cause) {
+        failures.put(index, cause);
+    }
+
+    public int getProcessed() {
+        return processed;
+    }
+
+    public Map<Integer, String> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    //true - все записи обработаны без ошибок
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{" +
+                "processed=" + processed +
+                ", failures=" + failures +
+                '}';
+    }
+}
@@ -4,6 +4,7 @@ import home.ivishnyakova.store.entity.Category;
 import home.ivishnyakova.store.exceptions.ValidationException;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /* Интерфейс CategoryDao описывает возможности доступа к категориям товаров.
 *
@@ -32,7 +33,15 @@ public interface CategoryDao {
     //получение списка категорий заданного уровня no_level с детальным именем категории
     List<Category> getCategoryFullNameListByLevel(short no_level);
 
+    //получение категории с id и всех ее подкатегорий (на всех уровнях вложенности) с детальным именем категории
+    List<Category> getCategorySubtree(int id);
+
     //получение списка категорий заданного уровня no_level, у которых родит. категория c id_category
     List<Category> getCategoryListById(int id_category, short no_level);
 
+    //передать все категории обработчику consumer по одной записи
+    void exportCategories(Consumer<Category> consumer);
+
+    //сбросить закешированные категории (после изменения таблицы категорий в обход DAO)
+    void refreshCategories();
 }
@@ -1,9 +1,11 @@
 package home.ivishnyakova.store.dao;
 
 import home.ivishnyakova.store.entity.Goods;
+import home.ivishnyakova.store.entity.GoodsSummary;
 import home.ivishnyakova.store.exceptions.ValidationException;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /* Интерфейс GoodsDao описывает интерфейс доступа к данным товаров магазина.
 *
@@ -20,6 +22,15 @@ public interface GoodsDao {
     //удалить товар по id
     boolean delete(int id);
 
+    //добавить список товаров (пакетами), id добавленных товаров будут проинициализированы
+    BatchResult insertAll(List<Goods> goodsList);
+
+    //обновить список товаров (пакетами)
+    BatchResult updateAll(List<Goods> goodsList);
+
+    //удалить товары по списку id (пакетами)
+    BatchResult deleteAll(int[] ids);
+
     //получить товар по id
     Goods getGoodsById(int id);
 
@@ -29,6 +40,29 @@ public interface GoodsDao {
     //получить список товаров с сортировкой по наименованию товаров
     List<Goods> getGoodsList(boolean isAsc);
 
+    //получить список товаров (без полного описания) с сортировкой по наименованию товаров
+    List<GoodsSummary> getGoodsSummaryList(boolean isAsc);
+
+    //получить товар (без полного описания) по id
+    GoodsSummary getGoodsSummaryById(int id);
+
+    //получить список товаров (без полного описания) по списку id (товаров, которых нет в БД, нет в списке)
+    List<GoodsSummary> getGoodsSummaryListByIds(int[] ids);
+
+    //получить список товаров (без полного описания) согласно параметрам фильтра
+    List<GoodsSummary> getGoodsSummaryListByFilter(float minPrice, float maxPrice, int id_category, int id_producer, boolean in_storage);
+
+    //найти товары (без полного описания) по тексту в наименовании и описании согласно параметрам фильтра
+    //(по убыванию релевантности, страница: пропустить offset товаров, не больше limit товаров)
+    List<GoodsSummary> searchGoods(String text, float minPrice, float maxPrice, int id_category, int id_producer,
+                                   boolean in_storage, int offset, int limit);
+
+    //получить страницу товаров, следующую за страницей с ключом after (null - первая страница)
+    GoodsPage getGoodsPage(GoodsOrder order, String after, int limit);
+
     //получить список товаров согласно параметрам фильтра
     List<Goods> getGoodsListByFilter(float minPrice, float maxPrice, int id_category, int id_producer, boolean in_storage);
+
+    //передать все товары обработчику consumer по одной записи (без загрузки списка в память)
+    void exportGoods(Consumer<Goods> consumer);
 }
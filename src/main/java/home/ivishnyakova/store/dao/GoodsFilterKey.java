@@ -0,0 +1,99 @@
+package home.ivishnyakova.store.dao;
+
+import java.io.Serializable;
+
+/*Класс GoodsFilterKey представляет собой нормализованные условия фильтра товаров
+* (диапазон цен, код категории, код производителя, наличие на складе).
+*
+* Условия нормализуются так же, как выполняется запрос фильтра: диапазон цен учитывается,
+* если minPrice <= maxPrice и хотя бы одна из цен не 0; иначе (в т.ч. minPrice > maxPrice)
+* диапазон заменяется на (0, 0) - "без ограничения цены". Поэтому фильтры, по которым выполняется
+* один и тот же запрос, имеют равные ключи (ключ кеша результатов фильтра).
+*
+* Автор: Вишнякова И.
+* */
+public final class GoodsFilterKey implements Serializable {
+
+    private final float minPrice;       //минимальная цена диапазона (0 - диапазон не задан)
+    private final float maxPrice;       //максимальная цена диапазона (0 - диапазон не задан)
+    private final int id_category;      //код категории (0 - любая)
+    private final int id_producer;      //код производителя (0 - любой)
+    private final boolean in_storage;   //есть ли на складе
+
+    private GoodsFilterKey(float minPrice, float maxPrice, int id_category, int id_producer, boolean in_storage) {
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.id_category = id_category;
+        this.id_producer = id_producer;
+        this.in_storage = in_storage;
+    }
+
+    /*Метод of возвращает нормализованные условия фильтра.*/
+    public static GoodsFilterKey of(float minPrice, float maxPrice, int id_category, int id_producer, boolean in_storage) {
+        boolean byPrice = (minPrice != 0.0 || maxPrice != 0.0) && minPrice <= maxPrice;
+        //+ 0.0f заменяет -0.0 на 0.0 (одинаковые условия запроса - равные ключи)
+        return byPrice ?
+                new GoodsFilterKey(minPrice + 0.0f, maxPrice + 0.0f, id_category, id_producer, in_storage) :
+                new GoodsFilterKey(0.0f, 0.0f, id_category, id_producer, in_storage);
+    }
+
+    //задан ли диапазон цен
+    public boolean hasPriceRange() {
+        return minPrice != 0.0 || maxPrice != 0.0;
+    }
+
+    public float getMinPrice() {
+        return minPrice;
+    }
+
+    public float getMaxPrice() {
+        return maxPrice;
+    }
+
+    public int getId_category() {
+        return id_category;
+    }
+
+    public int getId_producer() {
+        return id_producer;
+    }
+
+    public boolean isIn_storage() {
+        return in_storage;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        GoodsFilterKey that = (GoodsFilterKey) o;
+
+        if (Float.compare(that.minPrice, minPrice) != 0) return false;
+        if (Float.compare(that.maxPrice, maxPrice) != 0) return false;
+        if (id_category != that.id_category) return false;
+        if (id_producer != that.id_producer) return false;
+        return in_storage == that.in_storage;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Float.floatToIntBits(minPrice);
+        result = 31 * result + Float.floatToIntBits(maxPrice);
+        result = 31 * result + id_category;
+        result = 31 * result + id_producer;
+        result = 31 * result + (in_storage ? 1 : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "GoodsFilterKey{" +
+                "minPrice=" + minPrice +
+                ", maxPrice=" + maxPrice +
+                ", id_category=" + id_category +
+                ", id_producer=" + id_producer +
+                ", in_storage=" + in_storage +
+                '}';
+    }
+}
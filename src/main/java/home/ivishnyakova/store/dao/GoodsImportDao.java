@@ -0,0 +1,13 @@
+package home.ivishnyakova.store.dao;
+
+import java.io.Reader;
+
+/* Интерфейс GoodsImportDao описывает импорт каталога товаров из файла.
+*
+* Автор: Вишнякова И.
+* */
+public interface GoodsImportDao {
+
+    //импортировать товары из CSV-файла: добавить новые товары и обновить существующие (по наименованию)
+    ImportResult importGoods(Reader csv);
+}
@@ -0,0 +1,10 @@
+package home.ivishnyakova.store.dao;
+
+/*Перечисление GoodsOrder описывает порядок сортировки товаров при постраничной выборке.
+*
+* Автор: Вишнякова И.
+* */
+public enum GoodsOrder {
+    ID_DESC,    //по коду товара в обратном порядке (новые товары - первыми)
+    NAME_ASC    //по наименованию товара
+}
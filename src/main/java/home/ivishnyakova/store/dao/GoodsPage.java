@@ -0,0 +1,51 @@
+package home.ivishnyakova.store.dao;
+
+import home.ivishnyakova.store.entity.Goods;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/*Класс GoodsPage представляет собой страницу списка товаров:
+* товары страницы и ключ следующей страницы (null - если это последняя страница).
+* Ключ страницы передается клиентом без изменений для получения следующей страницы.
+*
+* Автор: Вишнякова И.
+* */
+public class GoodsPage implements Serializable {
+
+    private List<Goods> items = new ArrayList<>();  //товары страницы
+    private String next;                            //ключ следующей страницы
+
+    public GoodsPage() {
+    }
+
+    public GoodsPage(List<Goods> items, String next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    public List<Goods> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Goods> items) {
+        this.items = items;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public void setNext(String next) {
+        this.next = next;
+    }
+
+    @Override
+    public String toString() {
+        return "GoodsPage{" +
+                "items=" + items.size() +
+                ", next='" + next + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,73 @@
+package home.ivishnyakova.store.dao;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/*Класс ImportResult содержит результат импорта товаров:
+* количество добавленных, обновленных и отклоненных записей,
+* а также описания ошибок по отклоненным записям (не более maxErrors описаний).
+*
+* Автор: Вишнякова И.
+* */
+public class ImportResult implements Serializable {
+
+    private long inserted;      //кол-во добавленных товаров
+    private long updated;       //кол-во обновленных товаров
+    private long rejected;      //кол-во отклоненных записей
+
+    //описания ошибок (номер строки файла и причина)
+    private final List<String> errors = new ArrayList<>();
+    private int maxErrors;      //макс. кол-во описаний ошибок
+
+    public ImportResult() {
+    }
+
+    public ImportResult(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    /*Метод reject учитывает отклоненную запись.
+    * @param    lineNumber - номер строки файла, с которой начинается запись.
+    * @param    cause - причина.
+    * */
+    public void reject(long lineNumber, String cause) {
+        rejected++;
+        if (errors.size() < maxErrors)
+            errors.add("line " + lineNumber + ": " + cause);
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public void setInserted(long inserted) {
+        this.inserted = inserted;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(long updated) {
+        this.updated = updated;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public List<String> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    @Override
+    public String toString() {
+        return "ImportResult{" +
+                "inserted=" + inserted +
+                ", updated=" + updated +
+                ", rejected=" + rejected +
+                '}';
+    }
+}
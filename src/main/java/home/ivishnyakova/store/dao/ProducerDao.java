@@ -4,6 +4,7 @@ import home.ivishnyakova.store.entity.Producer;
 import home.ivishnyakova.store.exceptions.ValidationException;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /* Интерфейс ProducerDao описывает интерфейс доступа к данным производителя товаров.
 *
@@ -28,4 +29,7 @@ public interface ProducerDao {
 
     //получить список всех производителей (с сортировков по названию производителя)
     List<Producer> getProducerSortList(boolean isAsc);
+
+    //передать всех производителей обработчику consumer по одной записи (без загрузки списка в память)
+    void exportProducers(Consumer<Producer> consumer);
 }
@@ -32,6 +32,9 @@ public enum SqlScripts {
     INSERT_DATA_CATEGORIES_TABLE(Collections.singletonList("/sql/insert-categories.sql")),
     INSERT_DATA_TABLES(Collections.singletonList("/sql/insert-data.sql")),
 
+    //обновление таблиц БД, созданной прежней версией приложения
+    MIGRATE_CATEGORIES_TABLE(Collections.singletonList("/sql/migrate-categories.sql")),
+
     INIT_TABLES(Arrays.asList("/sql/drop-tables.sql",
                               "/sql/create-tables.sql",
                               "/sql/insert-data.sql"));
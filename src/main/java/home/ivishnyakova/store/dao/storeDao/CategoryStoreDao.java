@@ -1,5 +1,7 @@
 package home.ivishnyakova.store.dao.storeDao;
 
+import home.ivishnyakova.store.cache.CategoryTree;
+import home.ivishnyakova.store.catalog.CatalogEvent;
 import home.ivishnyakova.store.dao.CategoryDao;
 import home.ivishnyakova.store.entity.Category;
 import home.ivishnyakova.store.exceptions.StoreException;
@@ -9,20 +11,25 @@ import home.ivishnyakova.store.utils.LoggerUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
-import org.springframework.jdbc.support.GeneratedKeyHolder;
-import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.annotation.Resource;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /*Класс CategoryStoreDao реализует запросы CRUD к таблице categories.
 *
@@ -33,6 +40,19 @@ import java.util.Properties;
 * Категории имеют уровень no_level = 1, подкатегории -  no_level = 2 и т.д. до 5.
 * Другие категории не должны иметь id_category = null.
 *
+* Для каждой категории в таблице хранится путь в дереве: path_ids - коды категорий от корня
+* до данной категории ('/1/2/7/') и full_name - полное название категории: названия категорий от корня
+* через '->' ('Корень->Категория->Подкатегория'; корень в данных называется ' ', поэтому ' ->Категория->...').
+* Пути заполняются при добавлении категории и пересчитываются для всего поддерева
+* при переименовании или перемещении категории, поэтому запросы полных названий
+* и поддерева категории выполняются по индексам, без рекурсии.
+*
+* Запросы на чтение категорий выполняются по неизменяемому снимку дерева категорий CategoryTree,
+* который загружается из БД при первом обращении. После добавления, обновления или удаления
+* категории снимок загружается заново и атомарно заменяет предыдущий, поэтому чтение категорий
+* не обращается к БД. Если таблица categories изменена в обход DAO (sql-скриптами),
+* снимок следует сбросить методом refreshCategories.
+*
 * Автор: Вишнякова И.Н.
 * */
 @Repository
@@ -45,6 +65,10 @@ public class CategoryStoreDao implements CategoryDao {
     @Autowired
     private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
 
+    //для обновления категории и путей ее поддерева в одной транзакции
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     //сообщения - для логгирования
     @Resource(name="messages")
     private Properties messages;
@@ -53,6 +77,13 @@ public class CategoryStoreDao implements CategoryDao {
     @Resource(name="errors")
     private ErrorProperties errors;
 
+    //для публикации события "Изменены категории"
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    //снимок дерева категорий (null - снимок не загружен)
+    private final AtomicReference<CategoryTree> categoryTree = new AtomicReference<>();
+
     public CategoryStoreDao(NamedParameterJdbcTemplate namedParameterJdbcTemplate){
         this.namedParameterJdbcTemplate = Optional.ofNullable(namedParameterJdbcTemplate)
                 .orElseThrow(( ) -> new IllegalArgumentException(errors.getErrorMessage("ILLEGAL_JDBC").getMessage()));
@@ -84,6 +115,10 @@ public class CategoryStoreDao implements CategoryDao {
                     //добавление не корневой категории
                 } else
                     result = insertNotRootCategory(category);
+                if (result) {
+                    reloadCategoryTree();
+                    publishCategoriesChanged();
+                }
             }catch (DataAccessException e){
                 logger.error(messages.getProperty("NOT_INSERTED_CATEGORY") + ": " + category, e);
                 throw new StoreException(errors.getErrorMessage("NOT_INSERTED_CATEGORY"), e);
@@ -98,22 +133,19 @@ public class CategoryStoreDao implements CategoryDao {
     * @throws   StoreException - категория не добавлена - произошла ошибка при выполнении запроса.
     * */
     private boolean insertRootCategory(Category category){
-        String sql = "INSERT INTO categories(name) VALUES(:name)";
-
-        //для получения ключа новой записи
-        KeyHolder keyHolder = new GeneratedKeyHolder();
+        //ключ новой записи нужен для пути категории, поэтому он получается из последовательности заранее
+        String sql = "WITH new_id AS (SELECT nextval(pg_get_serial_sequence('categories', 'id')) AS id) " +
+                "INSERT INTO categories(id,name,path_ids,full_name) " +
+                "SELECT new_id.id, :name, '/' || new_id.id || '/', :name FROM new_id " +
+                "RETURNING id";
 
         //формирование отображения именованных параметров
         MapSqlParameterSource parameters = new MapSqlParameterSource();
         parameters.addValue("name", category.getName());
 
-        if (namedParameterJdbcTemplate.update(sql, parameters, keyHolder, new String[]{"id"}) == 1) {
-            //получить значение ключа добавленного продукта
-            Integer generatedId = keyHolder.getKey().intValue();
-            category.setId(generatedId);
-            return true;
-        }
-        return false;
+        //получить значение ключа добавленной категории
+        category.setId(namedParameterJdbcTemplate.queryForObject(sql, parameters, Integer.class));
+        return true;
     }
 
     /*Метод insertNotRootCategory выполняет добавление некорневой категории  в таблицу БД categories.
@@ -126,10 +158,13 @@ public class CategoryStoreDao implements CategoryDao {
         if (category.getNo_level() == 0)
             throw new StoreException(errors.getErrorMessage("ROOT_CATEGORY"));
 
-        String sql = "INSERT INTO categories(name,no_level,id_category) VALUES(:name,:no_level,:id_category)";
-
-        //для получения ключа новой записи
-        KeyHolder keyHolder = new GeneratedKeyHolder();
+        //путь категории продолжает путь родительской категории;
+        //если родительской категории нет в таблице, запись не добавляется
+        String sql = "WITH new_id AS (SELECT nextval(pg_get_serial_sequence('categories', 'id')) AS id) " +
+                "INSERT INTO categories(id,name,no_level,id_category,path_ids,full_name) " +
+                "SELECT new_id.id, :name, :no_level, p.id, p.path_ids || new_id.id || '/', p.full_name || '->' || :name " +
+                "FROM new_id, categories p WHERE p.id = :id_category " +
+                "RETURNING id";
 
         //формирование отображения именованных параметров
         MapSqlParameterSource parameters = new MapSqlParameterSource();
@@ -137,13 +172,9 @@ public class CategoryStoreDao implements CategoryDao {
         parameters.addValue("no_level", category.getNo_level());
         parameters.addValue("id_category", category.getId_category());
 
-        if (namedParameterJdbcTemplate.update(sql, parameters, keyHolder, new String[]{"id"}) == 1) {
-            //получить значение ключа добавленного продукта
-            Integer generatedId = keyHolder.getKey().intValue();
-            category.setId(generatedId);
-            return true;
-        }
-        return false;
+        //получить значение ключа добавленной категории
+        category.setId(namedParameterJdbcTemplate.queryForObject(sql, parameters, Integer.class));
+        return true;
     }
 
     /*Метод updateRootCategory выполняет обновление корневой категории  в таблице БД categories.
@@ -159,7 +190,7 @@ public class CategoryStoreDao implements CategoryDao {
         parameters.addValue("name", category.getName());
         parameters.addValue("id", category.getId());
 
-        return namedParameterJdbcTemplate.update(sql, parameters) == 1;
+        return updateCategory(category, true, sql, parameters);
     }
 
     /*Метод updateNotRootCategory выполняет обновление некорневой категории  в таблице БД categories.
@@ -182,7 +213,71 @@ public class CategoryStoreDao implements CategoryDao {
         parameters.addValue("id_category", category.getId_category());
         parameters.addValue("id", category.getId());
 
-        return namedParameterJdbcTemplate.update(sql, parameters) == 1;
+        return updateCategory(category, false, sql, parameters);
+    }
+
+    /*Метод updateCategory выполняет в одной транзакции обновление категории запросом sql
+    * и пересчет путей категории и всех ее подкатегорий.
+    * @param    category - новые данные категории.
+    * @param    root - true - обновляется корневая категория.
+    * @return   true - категория обновлена, иначе - нет.
+    * @throws   StoreException - новая родительская категория является подкатегорией данной категории.
+    * */
+    private boolean updateCategory(Category category, boolean root, String sql, MapSqlParameterSource parameters){
+        return transactionTemplate.execute(status -> {
+            //путь категории до обновления (запись блокируется до конца транзакции)
+            CategoryPath oldPath = namedParameterJdbcTemplate.queryForObject(
+                    "SELECT path_ids, full_name FROM categories WHERE id=:id FOR UPDATE",
+                    new MapSqlParameterSource("id", category.getId()), new CategoryPathMapper());
+
+            if (namedParameterJdbcTemplate.update(sql, parameters) != 1)
+                return false;
+
+            CategoryPath newPath;
+            if (root) {
+                newPath = new CategoryPath("/" + category.getId() + "/", category.getName());
+            } else {
+                CategoryPath parentPath = getCategoryPath(category.getId_category());
+                //категорию нельзя переместить в ее подкатегорию
+                if (parentPath.pathIds.startsWith(oldPath.pathIds))
+                    throw new StoreException(errors.getErrorMessage("MOVE_TO_SUBCATEGORY_CATEGORY"));
+                newPath = new CategoryPath(parentPath.pathIds + category.getId() + "/",
+                        parentPath.fullName + "->" + category.getName());
+            }
+            updateSubtreePaths(oldPath, newPath);
+            return true;
+        });
+    }
+
+    /*Метод updateSubtreePaths заменяет начало пути oldPath на newPath
+    * у категории и всех ее подкатегорий.
+    * */
+    private void updateSubtreePaths(CategoryPath oldPath, CategoryPath newPath){
+        if (oldPath.equals(newPath))
+            return;
+
+        String sql = "UPDATE categories SET " +
+                "path_ids = :path_ids || substring(path_ids from :old_path_ids_length + 1), " +
+                "full_name = :full_name || substring(full_name from :old_full_name_length + 1) " +
+                "WHERE path_ids LIKE :old_path_ids";
+
+        //формирование отображения именованных параметров
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        parameters.addValue("path_ids", newPath.pathIds);
+        parameters.addValue("full_name", newPath.fullName);
+        parameters.addValue("old_path_ids_length", oldPath.pathIds.length());
+        parameters.addValue("old_full_name_length", oldPath.fullName.length());
+        parameters.addValue("old_path_ids", oldPath.pathIds + "%");
+
+        namedParameterJdbcTemplate.update(sql, parameters);
+    }
+
+    /*Метод getCategoryPath выполняет поиск пути категории в дереве категорий по id.
+    * @throws   EmptyResultDataAccessException - категории нет в таблице.
+    * */
+    private CategoryPath getCategoryPath(int id){
+        String sql = "SELECT path_ids, full_name FROM categories WHERE id=:id";
+        return namedParameterJdbcTemplate.queryForObject(sql, new MapSqlParameterSource("id", id), new CategoryPathMapper());
     }
 
     /*Метод update выполняет обновление категории в таблице БД categories.
@@ -214,6 +309,10 @@ public class CategoryStoreDao implements CategoryDao {
                 else {
                     result = false;
                 }
+                if (result) {
+                    reloadCategoryTree();
+                    publishCategoriesChanged();
+                }
             }catch (DataAccessException e){
                 logger.error(messages.getProperty("NOT_UPDATED_CATEGORY") + ": " + category, e);
                 throw new StoreException(errors.getErrorMessage("NOT_UPDATED_CATEGORY"), e);
@@ -232,117 +331,172 @@ public class CategoryStoreDao implements CategoryDao {
     public boolean delete(int id) {
         String sql = "DELETE FROM categories WHERE id=:id";
         try {
-            return namedParameterJdbcTemplate.update(sql, new MapSqlParameterSource("id", id)) == 1;
+            boolean result = namedParameterJdbcTemplate.update(sql, new MapSqlParameterSource("id", id)) == 1;
+            if (result) {
+                reloadCategoryTree();
+                publishCategoriesChanged();
+            }
+            return result;
         }catch (DataAccessException e){
             logger.error(messages.getProperty("NOT_DELETED_CATEGORY") + ": " + id, e);
             throw new StoreException(errors.getErrorMessage("NOT_DELETED_CATEGORY"), e);
         }
     }
 
-    /*Метод getCategoryById выполняет поиск категории в таблице БД categories по id.
+    /*Метод getCategoryById выполняет поиск категории в снимке дерева категорий по id.
     * @param    id  категории.
-    * @return   категория Category с id, если категория есть в БД, иначе - null.
-    * @throws   StoreException - произошла ошибка при выполнении запроса.
+    * @return   категория Category с id.
+    * @throws   StoreException - категории нет в БД или произошла ошибка при загрузке категорий.
     * */
     @Override
     public Category getCategoryById(int id) {
-        String sql = "SELECT * FROM categories WHERE id=:id";
-        try{
-            return namedParameterJdbcTemplate.queryForObject(sql, new MapSqlParameterSource("id", id), new CategoryMapper());
-        }catch (DataAccessException e){
-            logger.error(messages.getProperty("NO_CATEGORY") + ": " + id, e);
-            throw new StoreException(errors.getErrorMessage("NO_CATEGORY"), e);
+        Category category = getCategoryTree().getCategory(id);
+        if (category == null) {
+            logger.error(messages.getProperty("NO_CATEGORY") + ": " + id);
+            throw new StoreException(errors.getErrorMessage("NO_CATEGORY"));
         }
+        return category;
+    }
+
+    /*Метод exportCategories передает все категории (с сортировкой по уровню и коду) обработчику consumer.
+    * @param    consumer - обработчик категорий.
+    * @throws   StoreException - произошла ошибка при загрузке категорий.
+    * */
+    @Override
+    public void exportCategories(Consumer<Category> consumer) {
+        getCategoryTree().forEach(consumer);
     }
 
     /*Метод getCategoryList выполняет запрос на получение списка всех категорий
-    * из таблицы categories (не рекурсивно).
+    * (с сортировкой по уровню и коду).
     * @return пустой список, если таблица пуста, иначе список категорий.
-    * @throws   StoreException - произошла ошибка при выполнении запроса.
+    * @throws   StoreException - произошла ошибка при загрузке категорий.
     * */
     @Override
     public List<Category> getCategoryList() {
-        String sql = "SELECT * FROM categories ORDER BY no_level ASC";
-        try {
-            return namedParameterJdbcTemplate.query(sql, new CategoryMapper());
-        }catch (DataAccessException e){
-            logger.error(messages.getProperty("NO_CATEGORIES"), e);
-            throw new StoreException(errors.getErrorMessage("NO_CATEGORIES"), e);
-        }
+        return getCategoryTree().getCategories();
     }
 
     @Override
     /*Метод getCategoryListByLevel выполняет запрос на получение списка категорий
-    * заданного уровня no_level из таблицы categories.
+    * заданного уровня no_level (с сортировкой по названию).
     * @param    no_level  уровень вложенности категорий (0 - корень, 1 - категории, 2 - подкатегории и т.д.).
     * @return   пустой список - категорий заданного уровня нет в таблице, или список категорий.
-    * @throws   StoreException - произошла ошибка при выполнении запроса.
+    * @throws   StoreException - произошла ошибка при загрузке категорий.
     */
     public List<Category> getCategoryListByLevel(short no_level) {
-        String sql = "SELECT * FROM categories WHERE no_level=:no_level ORDER BY name ASC";
-        try {
-            return namedParameterJdbcTemplate.query(sql, new MapSqlParameterSource("no_level", no_level), new CategoryMapper());
-        }catch (DataAccessException e){
-            logger.error(messages.getProperty("NO_CATEGORIES_BY_LEVEL") + " : " + no_level, e);
-            throw new StoreException(errors.getErrorMessage("NO_CATEGORIES_BY_LEVEL"),e);
-        }
+        return getCategoryTree().getCategoriesByLevel(no_level);
     }
 
     /*Метод getCategoryListById выполняет получение  списка категорий заданного уровня no_level
-    * и заданной родительской категории id_category из таблицы categories.
-    * @param    id_category  ключ родительской категории.
+    * и заданной родительской категории id_category (с сортировкой по названию).
+    * @param    id_category  ключ родительской категории (0 - категории без родительской категории).
     * @param    no_level  уровень вложенности категорий (0 - корень, 1 - категории, 2 - подкатегории и т.д.).
     * @return   пустой список - категорий заданного уровня и заданной родительской категории нет в таблице,
     *           или список категорий.
-    * @throws   StoreException - произошла ошибка при выполнении запроса.
+    * @throws   StoreException - произошла ошибка при загрузке категорий.
     */
     public List<Category> getCategoryListById(int id_category, short no_level) {
-        String sql;
-        //формирование отображения именованных параметров
-        MapSqlParameterSource parameters = new MapSqlParameterSource();
-        parameters.addValue("no_level", no_level);
-
-        if(id_category == 0){
-            sql = "SELECT * FROM categories WHERE no_level=:no_level AND id_category IS NULL ORDER BY name ASC";
-        }
-        else{
-            sql = "SELECT * FROM categories WHERE no_level=:no_level AND id_category=:id_category ORDER BY name ASC";
-            parameters.addValue("id_category", id_category);
-        }
-
-        try {
-            return namedParameterJdbcTemplate.query(sql, parameters, new CategoryMapper());
-        }catch (DataAccessException e){
-            logger.error(messages.getProperty("NO_CATEGORIES_BY_LEVEL") + " : " + no_level + ", id = " + id_category, e);
-            throw new StoreException(errors.getErrorMessage("NO_CATEGORIES_BY_LEVEL"),e);
-        }
+        return getCategoryTree().getChildren(id_category, no_level);
     }
 
     @Override
     /*Метод getCategoryFullNameListByLevel выполняет запрос на получение списка категорий
-    * заданного уровня вложенности no_level из таблицы categories.
+    * заданного уровня вложенности no_level (с сортировкой по полному названию).
     * Категория содержит поле Path - полное название категории в дереве категорий.
     * @param    no_level  уровень вложенности категорий (0 - корень, 1 - категории, 2 - подкатегории и т.д.).
     * @return   пустой список - категорий заданного уровня нет в таблице,
     *           или список категорий.
-    * @throws   StoreException - произошла ошибка при выполнении запроса.
+    * @throws   StoreException - произошла ошибка при загрузке категорий.
     */
     public List<Category> getCategoryFullNameListByLevel(short no_level) {
-        String sql = " WITH RECURSIVE res(id, id_category, name, no_level) AS ( " +
-                "   SELECT t1.id, t1.id_category, t1.name, t1.no_level, CAST (t1.name AS VARCHAR (255)) as PATH" +
-                "   FROM categories t1 " +
-                "   WHERE t1.id_category IS NULL " +
-                "       UNION " +
-                "   SELECT t2.id, t2.id_category, t2.name, t2.no_level, CAST (res.PATH ||\'->\'|| t2.name AS VARCHAR(255)) " +
-                "   FROM categories t2 " +
-                "   INNER JOIN res ON (res.id = t2.id_category) )" +
-                "SELECT * FROM res WHERE no_level=:no_level LIMIT 100";
+        return getCategoryTree().getFullNameCategoriesByLevel(no_level);
+    }
+
+    @Override
+    /*Метод getCategorySubtree выполняет запрос на получение категории с заданным id
+    * и всех ее подкатегорий (на всех уровнях вложенности).
+    * Категория содержит поле Path - полное название категории в дереве категорий.
+    * @param    id  категории - корня поддерева.
+    * @return   список категорий поддерева (с сортировкой по полному названию).
+    * @throws   StoreException - категории нет в таблице или произошла ошибка при загрузке категорий.
+    */
+    public List<Category> getCategorySubtree(int id) {
+        List<Category> subtree = getCategoryTree().getSubtree(id);
+        if (subtree.isEmpty()) {
+            logger.error(messages.getProperty("NO_SUBCATEGORIES") + " : " + id);
+            throw new StoreException(errors.getErrorMessage("NO_CATEGORY"));
+        }
+        return subtree;
+    }
+
+    //публикация события "Изменены категории" (для версий ресурсов REST)
+    private void publishCategoriesChanged() {
+        eventPublisher.publishEvent(new CatalogEvent(this, CatalogEvent.Change.CATEGORIES, 0));
+    }
+
+    /*Метод refreshCategories сбрасывает снимок дерева категорий,
+    * следующее чтение категорий загрузит снимок из БД.
+    * Ожидает завершения загрузки снимка, начатой другим потоком.
+    * */
+    @Override
+    public synchronized void refreshCategories() {
+        categoryTree.set(null);
+    }
+
+    //снимок дерева категорий (загружается при первом обращении)
+    private CategoryTree getCategoryTree() {
+        CategoryTree tree = categoryTree.get();
+        return tree != null ? tree : loadCategoryTree();
+    }
+
+    //загрузка снимка, если он еще не загружен другим потоком
+    private synchronized CategoryTree loadCategoryTree() {
+        CategoryTree tree = categoryTree.get();
+        if (tree == null) {
+            tree = readCategoryTree();
+            categoryTree.set(tree);
+        }
+        return tree;
+    }
 
+    /*Метод reloadCategoryTree загружает новый снимок дерева категорий после изменения таблицы categories.
+    * Если снимок не загружен, он сбрасывается и будет загружен при следующем чтении категорий.
+    * */
+    private synchronized void reloadCategoryTree() {
+        try {
+            categoryTree.set(readCategoryTree());
+        } catch (StoreException e) {
+            categoryTree.set(null);
+        }
+    }
+
+    /*Метод readCategoryTree выполняет запрос всех категорий из таблицы categories
+    * и строит по ним снимок дерева категорий.
+    * Номера категорий по названию и по полному названию вычисляются в БД,
+    * поэтому списки снимка упорядочены так же, как ORDER BY name и ORDER BY full_name.
+    * @throws   StoreException - произошла ошибка при выполнении запроса.
+    * */
+    private CategoryTree readCategoryTree() {
+        String sql = "SELECT *, row_number() OVER (ORDER BY name ASC) AS name_order, " +
+                "row_number() OVER (ORDER BY full_name ASC) AS full_name_order " +
+                "FROM categories ORDER BY no_level ASC, id ASC";
         try {
-            return namedParameterJdbcTemplate.query(sql, new MapSqlParameterSource("no_level", no_level), new CategoryFullNameMapper());
+            List<Category> categories = new ArrayList<>();
+            Map<Integer, String> fullNames = new HashMap<>();
+            Map<Integer, Integer> nameOrder = new HashMap<>();
+            Map<Integer, Integer> fullNameOrder = new HashMap<>();
+            namedParameterJdbcTemplate.query(sql, resultSet -> {
+                Category category = new CategoryMapper().mapRow(resultSet, categories.size());
+                categories.add(category);
+                fullNames.put(category.getId(), resultSet.getString("full_name"));
+                nameOrder.put(category.getId(), resultSet.getInt("name_order"));
+                fullNameOrder.put(category.getId(), resultSet.getInt("full_name_order"));
+            });
+            return new CategoryTree(categories, fullNames, nameOrder, fullNameOrder);
         }catch (DataAccessException e){
-            logger.error(messages.getProperty("NO_CATEGORIES_BY_LEVEL") + " : " + no_level, e);
-            throw new StoreException(errors.getErrorMessage("NO_CATEGORIES_BY_LEVEL"),e);
+            logger.error(messages.getProperty("NO_CATEGORIES"), e);
+            throw new StoreException(errors.getErrorMessage("NO_CATEGORIES"), e);
         }
     }
 
@@ -374,18 +528,39 @@ public class CategoryStoreDao implements CategoryDao {
         }
     }
 
-    /*Класс CategoryFullNameMapper преобразовывает строку таблицы categories
-    * в объект Category, где имя категории - это полное название категории в дереве категорий.
+    /*Класс CategoryPath содержит путь категории в дереве категорий:
+    * коды категорий от корня (path_ids) и полное название категории (full_name).
     * */
-    private static class CategoryFullNameMapper implements RowMapper<Category>{
+    private static class CategoryPath {
+        private final String pathIds;
+        private final String fullName;
+
+        CategoryPath(String pathIds, String fullName) {
+            this.pathIds = pathIds;
+            this.fullName = fullName;
+        }
+
         @Override
-        public Category mapRow(ResultSet resultSet, int i) throws SQLException {
-            return new Category(
-                    resultSet.getInt("id"),
-                    resultSet.getString("path"),
-                    resultSet.getShort("no_level"),
-                    resultSet.getInt("id_category")
-            );
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            CategoryPath that = (CategoryPath) o;
+            return pathIds.equals(that.pathIds) && fullName.equals(that.fullName);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * pathIds.hashCode() + fullName.hashCode();
+        }
+    }
+
+    /*Класс CategoryPathMapper преобразовывает строку таблицы categories
+    * в путь категории CategoryPath.
+    * */
+    private static class CategoryPathMapper implements RowMapper<CategoryPath>{
+        @Override
+        public CategoryPath mapRow(ResultSet resultSet, int i) throws SQLException {
+            return new CategoryPath(resultSet.getString("path_ids"), resultSet.getString("full_name"));
         }
     }
 }
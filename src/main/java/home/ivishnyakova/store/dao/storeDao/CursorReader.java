@@ -0,0 +1,64 @@
+package home.ivishnyakova.store.dao.storeDao;
+
+import home.ivishnyakova.store.config.db.TrackedConnection;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+/*Класс CursorReader выполняет чтение результата запроса с помощью курсора на сервере БД:
+* строки результата передаются клиенту порциями по fetchSize строк и сразу
+* передаются обработчику consumer, не накапливаясь в памяти.
+* Драйвер PostgreSQL использует курсор только внутри транзакции (autoCommit = false)
+* и при fetchSize > 0, поэтому запрос выполняется в транзакции только для чтения.
+*
+* Соединение занято, пока обработчик не обработает все строки (например, пока медленный клиент
+* не получит весь экспорт). Чтобы пул не закрыл такое соединение как брошенное
+* (removeAbandonedTimeout), чтение каждой порции строк отмечается как использование соединения
+* (TrackedConnection). Соединение все же будет закрыто, если обработка одной порции строк
+* длится дольше removeAbandonedTimeout.
+*
+* Автор: Вишнякова И.
+* */
+final class CursorReader {
+
+    private CursorReader() {
+    }
+
+    /*Метод forEach выполняет запрос sql и передает каждую строку результата обработчику consumer.
+    * @param    connection - соединение с БД.
+    * @param    sql - запрос на выборку.
+    * @param    fetchSize - кол-во строк, получаемых от сервера за одно обращение.
+    * @param    mapper - преобразование строки результата в объект.
+    * @param    consumer - обработчик объектов.
+    * @throws   SQLException - ошибка при выполнении запроса.
+    * */
+    static <T> void forEach(Connection connection, String sql, int fetchSize,
+                            RowMapper<T> mapper, Consumer<? super T> consumer) throws SQLException {
+        TrackedConnection tracked = connection.isWrapperFor(TrackedConnection.class) ?
+                connection.unwrap(TrackedConnection.class) : null;
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setFetchSize(fetchSize);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                int rowNum = 0;
+                while (resultSet.next()) {
+                    //очередная порция строк получена от сервера
+                    if (tracked != null && rowNum % Math.max(fetchSize, 1) == 0)
+                        tracked.markUsed();
+                    consumer.accept(mapper.mapRow(resultSet, rowNum++));
+                }
+            }
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+}
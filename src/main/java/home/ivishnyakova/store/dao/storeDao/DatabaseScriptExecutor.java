@@ -1,10 +1,16 @@
 package home.ivishnyakova.store.dao.storeDao;
 
+import home.ivishnyakova.store.cache.LruCache;
+import home.ivishnyakova.store.catalog.CatalogEvent;
+import home.ivishnyakova.store.config.db.PooledDataSource;
+import home.ivishnyakova.store.dao.CategoryDao;
 import home.ivishnyakova.store.dao.SqlScripts;
+import home.ivishnyakova.store.entity.Goods;
 import home.ivishnyakova.store.exceptions.StoreException;
 import home.ivishnyakova.store.message.ErrorMessage;
 import home.ivishnyakova.store.message.ErrorProperties;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
@@ -13,6 +19,7 @@ import org.springframework.stereotype.Component;
 
 import javax.annotation.Resource;
 import javax.sql.DataSource;
+import java.sql.SQLException;
 import java.util.List;
 
 /*Класс DatabaseScriptExecutor предназначен выполнения sql-скриптов,
@@ -36,6 +43,17 @@ public class DatabaseScriptExecutor {
     @Resource(name="errors")
     private ErrorProperties errors;
 
+    //для сброса закешированных категорий и товаров после выполнения скриптов
+    @Autowired
+    private CategoryDao categoryDao;
+
+    @Resource(name="goodsCache")
+    private LruCache<Integer, Goods> goodsCache;
+
+    //для публикации события "Изменен каталог товаров"
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public DatabaseScriptExecutor(){}
 
     /*Метод выполняет sql-скрипты, определенные в файлах из списка scripts.
@@ -47,6 +65,8 @@ public class DatabaseScriptExecutor {
     }
 
     /*Метод выполняет sql-скрипты, определенные в файлах из списка scripts.
+    * После выполнения скриптов сбрасываются кеши подготовленных запросов,
+    * т.к. скрипты могут изменить структуру таблиц, закешированные категории и товары.
     * @throws файл с sql-скриптами не существует или в sql-скрипте - ошибка.
     */
     public void executeScripts(List<String> scripts){
@@ -55,6 +75,10 @@ public class DatabaseScriptExecutor {
             action.setSqlScriptEncoding("UTF-8");
             scripts.forEach(script -> action.addScript(new ClassPathResource(script)));
             DatabasePopulatorUtils.execute(action, dataSource);
+            clearStatementCaches();
+            categoryDao.refreshCategories();
+            goodsCache.invalidateAll();
+            eventPublisher.publishEvent(new CatalogEvent(this));
 
         }catch (DataAccessException e){
             ErrorMessage errorMessage = errors.getErrorMessage("NO_SCRIPT");
@@ -64,6 +88,17 @@ public class DatabaseScriptExecutor {
         }
     }
 
+    //сброс кешей подготовленных запросов пула соединений
+    private void clearStatementCaches() {
+        try {
+            if (dataSource.isWrapperFor(PooledDataSource.class)) {
+                dataSource.unwrap(PooledDataSource.class).clearStatementCaches();
+            }
+        } catch (SQLException e) {
+            throw new StoreException(e);
+        }
+    }
+
     public DataSource getDataSource() {
         return dataSource;
     }
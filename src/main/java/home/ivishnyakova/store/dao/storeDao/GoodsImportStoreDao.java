@@ -0,0 +1,303 @@
+package home.ivishnyakova.store.dao.storeDao;
+
+import home.ivishnyakova.store.cache.LruCache;
+import home.ivishnyakova.store.catalog.CatalogEvent;
+import home.ivishnyakova.store.dao.GoodsImportDao;
+import home.ivishnyakova.store.dao.ImportResult;
+import home.ivishnyakova.store.entity.Goods;
+import home.ivishnyakova.store.exceptions.StoreException;
+import home.ivishnyakova.store.exceptions.ValidationException;
+import home.ivishnyakova.store.message.ErrorProperties;
+import home.ivishnyakova.store.utils.CsvReader;
+import home.ivishnyakova.store.utils.LoggerUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.Resource;
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+
+/*Класс GoodsImportStoreDao выполняет импорт каталога товаров из CSV-файла.
+*
+* Формат файла: name,price,description,in_storage,id_category,id_producer
+* (первая строка может быть заголовком). Каждая запись проверяется по правилам Goods.validate,
+* корректные записи передаются в БД протоколом COPY во временную таблицу goods_import,
+* после чего товары таблицы goods обновляются и добавляются запросами над всей таблицей goods_import
+* (товар определяется по наименованию). Файл читается потоком, в памяти хранится только
+* текущая запись и буфер COPY, поэтому размер файла не ограничен.
+* Импорт выполняется в одной транзакции.
+*
+* Автор: Вишнякова И.
+* */
+@Repository
+public class GoodsImportStoreDao implements GoodsImportDao {
+
+    //для логирования
+    private static final Logger logger = LogManager.getLogger(LoggerUtil.getClassName());
+
+    //кол-во полей записи файла
+    private static final int FIELDS_COUNT = 6;
+
+    //размер буфера данных COPY (байт)
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    //временная таблица для загрузки записей файла (удаляется при завершении транзакции)
+    private static final String CREATE_STAGING_TABLE =
+            "CREATE TEMP TABLE goods_import(" +
+            "line_no BIGINT NOT NULL, name VARCHAR(255) NOT NULL, price REAL NOT NULL, description TEXT, " +
+            "in_storage BOOLEAN NOT NULL, id_category INTEGER NOT NULL, id_producer INTEGER NOT NULL) " +
+            "ON COMMIT DROP";
+
+    private static final String COPY_STAGING_TABLE =
+            "COPY goods_import(line_no,name,price,description,in_storage,id_category,id_producer) FROM STDIN";
+
+    //отклонение записей с несуществующими категорией или производителем
+    private static final String DELETE_NOT_FOUND_REFERENCES =
+            "DELETE FROM goods_import i " +
+            "WHERE NOT EXISTS (SELECT 1 FROM categories c WHERE c.id = i.id_category) " +
+            "OR NOT EXISTS (SELECT 1 FROM producers p WHERE p.id = i.id_producer) " +
+            "RETURNING line_no";
+
+    //отклонение повторов наименования (сохраняется последняя запись файла)
+    private static final String DELETE_DUPLICATES =
+            "DELETE FROM goods_import i USING goods_import d " +
+            "WHERE i.name = d.name AND i.line_no < d.line_no " +
+            "RETURNING i.line_no";
+
+    //обновление существующих товаров (только изменившихся)
+    private static final String UPDATE_GOODS =
+            "UPDATE goods g SET price = i.price, description = i.description, in_storage = i.in_storage, " +
+            "id_category = i.id_category, id_producer = i.id_producer " +
+            "FROM goods_import i " +
+            "WHERE g.name = i.name AND " +
+            "(g.price, g.description, g.in_storage, g.id_category, g.id_producer) IS DISTINCT FROM " +
+            "(i.price, i.description, i.in_storage, i.id_category, i.id_producer)";
+
+    //добавление новых товаров
+    private static final String INSERT_GOODS =
+            "INSERT INTO goods(name,price,description,in_storage,id_category,id_producer) " +
+            "SELECT i.name, i.price, i.description, i.in_storage, i.id_category, i.id_producer " +
+            "FROM goods_import i " +
+            "WHERE NOT EXISTS (SELECT 1 FROM goods g WHERE g.name = i.name)";
+
+    private DataSource dataSource;  //источник соединений (пул соединений)
+
+    //макс. кол-во описаний ошибок в результате импорта
+    private int maxErrors = 100;
+
+    //сообщения - для логгирования и описания ошибок
+    @Resource(name="messages")
+    private Properties messages;
+
+    //описания ошибок
+    @Resource(name="errors")
+    private ErrorProperties errors;
+
+    //кеш товаров по id (сбрасывается после импорта)
+    @Resource(name="goodsCache")
+    private LruCache<Integer, Goods> goodsCache;
+
+    //для публикации события "Изменен каталог товаров"
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public GoodsImportStoreDao(){}
+
+    @Autowired
+    public GoodsImportStoreDao(DataSource dataSource) {
+        this.dataSource = Optional.ofNullable(dataSource)
+                .orElseThrow(()-> new IllegalArgumentException("The connection pool is null"));
+    }
+
+    /*Метод importGoods выполняет импорт товаров из CSV-файла csv.
+    * @param    csv - поток данных CSV-файла.
+    * @return   кол-во добавленных, обновленных и отклоненных записей.
+    *           Отклоняются записи с некорректными данными, с несуществующими категорией или производителем,
+    *           а также повторы наименования товара в файле (сохраняется последняя запись).
+    * @throws   StoreException - товары не импортированы: ошибка чтения файла
+    *           или ошибка при выполнении запроса (изменения в БД отменяются).
+    * */
+    @Override
+    public ImportResult importGoods(Reader csv) {
+        ImportResult result = new ImportResult(maxErrors);
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(CREATE_STAGING_TABLE);
+                }
+                copyRecords(connection, new CsvReader(csv), result);
+                mergeGoods(connection, result);
+                connection.commit();
+            } catch (SQLException | IOException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                goodsCache.invalidateAll();
+            }
+            eventPublisher.publishEvent(new CatalogEvent(this));
+            logger.info("The goods were imported: " + result);
+            return result;
+
+        } catch (SQLException | IOException e) {
+            logger.error(messages.getProperty("NOT_IMPORTED_PRODUCTS"), e);
+            throw new StoreException(errors.getErrorMessage("NOT_IMPORTED_PRODUCTS"), e);
+        }
+    }
+
+    /*Метод copyRecords читает записи CSV-файла, проверяет их и передает
+    * корректные записи во временную таблицу goods_import протоколом COPY.
+    * Некорректные записи учитываются в result как отклоненные.
+    * */
+    private void copyRecords(Connection connection, CsvReader reader, ImportResult result) throws SQLException, IOException {
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_STAGING_TABLE);
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(COPY_BUFFER_SIZE);
+            StringBuilder row = new StringBuilder();
+            boolean first = true;
+
+            List<String> fields;
+            while ((fields = reader.readRecord()) != null) {
+                if (first && isHeader(fields)) {
+                    first = false;
+                    continue;
+                }
+                first = false;
+                if (fields.size() == 1 && fields.get(0).trim().isEmpty())
+                    continue;
+
+                try {
+                    Goods goods = parseGoods(fields);
+                    goods.validate(messages);
+                    appendRow(row, reader.getLineNumber(), goods);
+                } catch (ValidationException | IllegalArgumentException e) {
+                    result.reject(reader.getLineNumber(), e.getMessage());
+                    continue;
+                }
+
+                buffer.write(row.toString().getBytes(StandardCharsets.UTF_8));
+                row.setLength(0);
+                if (buffer.size() >= COPY_BUFFER_SIZE) {
+                    copyIn.writeToCopy(buffer.toByteArray(), 0, buffer.size());
+                    buffer.reset();
+                }
+            }
+            if (buffer.size() > 0)
+                copyIn.writeToCopy(buffer.toByteArray(), 0, buffer.size());
+            copyIn.endCopy();
+
+        } finally {
+            if (copyIn.isActive())
+                copyIn.cancelCopy();
+        }
+    }
+
+    /*Метод mergeGoods отклоняет записи временной таблицы, которые нельзя сохранить,
+    * и сохраняет остальные записи в таблицу goods: обновляет существующие товары и добавляет новые.
+    * */
+    private void mergeGoods(Connection connection, ImportResult result) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE goods_import");
+
+            try (ResultSet resultSet = statement.executeQuery(DELETE_NOT_FOUND_REFERENCES)) {
+                while (resultSet.next())
+                    result.reject(resultSet.getLong("line_no"), messages.getProperty("NO_CATEGORY_PRODUCER_PRODUCT"));
+            }
+            try (ResultSet resultSet = statement.executeQuery(DELETE_DUPLICATES)) {
+                while (resultSet.next())
+                    result.reject(resultSet.getLong("line_no"), messages.getProperty("DUPLICATE_NAME_PRODUCT"));
+            }
+
+            result.setUpdated(statement.executeUpdate(UPDATE_GOODS));
+            result.setInserted(statement.executeUpdate(INSERT_GOODS));
+        }
+    }
+
+    //первая запись файла - заголовок
+    private static boolean isHeader(List<String> fields) {
+        return !fields.isEmpty() && "name".equalsIgnoreCase(fields.get(0).trim());
+    }
+
+    /*Метод parseGoods преобразует поля записи в товар.
+    * @throws   IllegalArgumentException - кол-во полей или формат поля не корректны.
+    * */
+    private Goods parseGoods(List<String> fields) {
+        if (fields.size() != FIELDS_COUNT)
+            throw new IllegalArgumentException(messages.getProperty("NOT_CORRECT_CSV_PRODUCT"));
+
+        float price = Float.parseFloat(fields.get(1).trim());
+        if (Float.isNaN(price) || Float.isInfinite(price))
+            throw new IllegalArgumentException(messages.getProperty("NOT_CORRECT_PRICE_PRODUCT"));
+
+        String description = fields.get(2);
+        return new Goods(0,
+                fields.get(0).trim(),
+                price,
+                description.isEmpty() ? null : description,
+                parseBoolean(fields.get(3).trim()),
+                Integer.parseInt(fields.get(4).trim()),
+                Integer.parseInt(fields.get(5).trim()));
+    }
+
+    private static boolean parseBoolean(String value) {
+        if ("true".equalsIgnoreCase(value) || "1".equals(value))
+            return true;
+        if ("false".equalsIgnoreCase(value) || "0".equals(value))
+            return false;
+        throw new IllegalArgumentException("Not boolean value: " + value);
+    }
+
+    /*Метод appendRow добавляет строку данных COPY (текстовый формат) для товара goods.*/
+    private static void appendRow(StringBuilder row, long lineNumber, Goods goods) {
+        row.append(lineNumber).append('\t');
+        appendValue(row, goods.getName()).append('\t');
+        row.append(goods.getPrice()).append('\t');
+        appendValue(row, goods.getDescription()).append('\t');
+        row.append(goods.isIn_storage()).append('\t');
+        row.append(goods.getId_category()).append('\t');
+        row.append(goods.getId_producer()).append('\n');
+    }
+
+    //значение поля в текстовом формате COPY (спец. символы экранируются, null - \N)
+    private static StringBuilder appendValue(StringBuilder row, String value) {
+        if (value == null)
+            return row.append("\\N");
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '\\': row.append("\\\\"); break;
+                case '\t': row.append("\\t"); break;
+                case '\n': row.append("\\n"); break;
+                case '\r': row.append("\\r"); break;
+                default: row.append(ch);
+            }
+        }
+        return row;
+    }
+
+    public int getMaxErrors() {
+        return maxErrors;
+    }
+
+    @Value("#{dbSettings['import.maxErrors']}")
+    public void setMaxErrors(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+}
@@ -1,7 +1,16 @@
 package home.ivishnyakova.store.dao.storeDao;
 
+import home.ivishnyakova.store.cache.GoodsListCache;
+import home.ivishnyakova.store.cache.LruCache;
+import home.ivishnyakova.store.cache.SingleFlight;
+import home.ivishnyakova.store.catalog.CatalogEvent;
+import home.ivishnyakova.store.dao.BatchResult;
+import home.ivishnyakova.store.dao.GoodsFilterKey;
 import home.ivishnyakova.store.dao.GoodsDao;
+import home.ivishnyakova.store.dao.GoodsOrder;
+import home.ivishnyakova.store.dao.GoodsPage;
 import home.ivishnyakova.store.entity.Goods;
+import home.ivishnyakova.store.entity.GoodsSummary;
 import home.ivishnyakova.store.exceptions.StoreException;
 import home.ivishnyakova.store.exceptions.ValidationException;
 import home.ivishnyakova.store.message.ErrorProperties;
@@ -9,7 +18,13 @@ import home.ivishnyakova.store.utils.LoggerUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
@@ -18,12 +33,23 @@ import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
 import javax.annotation.Resource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /*Класс GoodsStoreDao реализовывает запросы CRUD к таблице goods.
 *
+* Пакетные операции (insertAll, updateAll, deleteAll) выполняются частями по batchSize записей,
+* каждая часть - одним обращением к БД в отдельной транзакции. Если часть не выполнена,
+* то ее записи выполняются по одной, чтобы определить ошибочные записи.
+*
 *Автор: Вишнякова И.Н.
 * */
 @Repository
@@ -32,6 +58,61 @@ public class GoodsStoreDao implements GoodsDao {
     //для логирования
     private static final Logger logger = LogManager.getLogger(LoggerUtil.getClassName());
 
+    //кол-во записей в пакете по умолчанию
+    private static final int DEFAULT_BATCH_SIZE = 500;
+
+    //макс. кол-во товаров на странице
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    //кол-во символов начала описания товара в списке товаров
+    private static final int SHORT_DESCRIPTION_LENGTH = 200;
+
+    //поля товара для списка товаров: начало описания выбирается с одним лишним символом,
+    //чтобы определить, что описание обрезано
+    private static final String SUMMARY_COLUMNS = "id, name, price, in_storage, id_category, id_producer, " +
+            "LEFT(description, " + (SHORT_DESCRIPTION_LENGTH + 1) + ") AS short_description";
+
+    //условия фильтра товаров (номер шаблона запроса фильтра - сумма условий)
+    private static final int FILTER_BY_CATEGORY = 1;
+    private static final int FILTER_BY_PRODUCER = 2;
+    private static final int FILTER_BY_PRICE = 4;
+
+    //шаблоны запросов фильтра товаров - по одному на каждый набор условий;
+    //все значения передаются параметрами, поэтому текст запроса не зависит от значений фильтра
+    //и подготовленный запрос повторно используется (кеш запросов соединения и план запроса на сервере БД)
+    private static final String[] FILTER_SQL = createFilterSql("*");
+    private static final String[] FILTER_SUMMARY_SQL = createFilterSql(SUMMARY_COLUMNS);
+
+    //документ полнотекстового поиска товара: наименование (вес A) и описание (вес B);
+    //выражение совпадает с выражением индекса goods_search (create-tables.sql), иначе индекс не используется
+    private static final String SEARCH_VECTOR = "(setweight(to_tsvector('russian', name), 'A') || " +
+            "setweight(to_tsvector('russian', COALESCE(description, '')), 'B'))";
+
+    //шаблоны запросов поиска товаров по тексту с условиями фильтра (по убыванию релевантности)
+    private static final String[] SEARCH_SQL = createFilterSql(
+            "SELECT " + SUMMARY_COLUMNS + " FROM goods, plainto_tsquery('russian', :text) search_query " +
+            "WHERE " + SEARCH_VECTOR + " @@ search_query AND in_storage = :in_storage",
+            " ORDER BY ts_rank(" + SEARCH_VECTOR + ", search_query) DESC, name ASC LIMIT :limit OFFSET :offset");
+
+    //разделитель полей ключа страницы
+    private static final String PAGE_KEY_SEPARATOR = "|";
+
+    //поля таблицы goods, заполняемые при добавлении товара
+    private static final String INSERT_COLUMNS = "INSERT INTO goods(name,price,description,in_storage,id_category,id_producer) VALUES ";
+    private static final String INSERT_VALUES = "(?,?,?,?,?,?)";
+
+    //макс. кол-во параметров в одном запросе (протокол PostgreSQL)
+    private static final int MAX_BIND_PARAMETERS = 32767;
+    //макс. кол-во записей в пакете: запрос INSERT пакета содержит 6 параметров на товар (INSERT_VALUES)
+    public static final int MAX_BATCH_SIZE = MAX_BIND_PARAMETERS / 6;
+
+    //кол-во записей в пакете
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    //кол-во строк, получаемых от сервера БД за одно обращение при экспорте
+    @Value("#{dbSettings['export.fetchSize']}")
+    private int exportFetchSize;
+
     //для выполнения запросов к БД
     @Autowired
     private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
@@ -44,6 +125,22 @@ public class GoodsStoreDao implements GoodsDao {
     @Resource(name="errors")
     private ErrorProperties errors;
 
+    //кеш товаров по id (для getGoodsById)
+    @Resource(name="goodsCache")
+    private LruCache<Integer, Goods> goodsCache;
+
+    //кеш списков товаров по нормализованным условиям фильтра (для getGoodsListByFilter)
+    @Resource(name="goodsFilterCache")
+    private GoodsListCache<GoodsFilterKey> goodsFilterCache;
+
+    //объединение одинаковых одновременных запросов к БД
+    @Resource(name="queryFlight")
+    private SingleFlight<String> queryFlight;
+
+    //для публикации события "Изменен каталог товаров"
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public GoodsStoreDao(NamedParameterJdbcTemplate namedParameterJdbcTemplate){
         this.namedParameterJdbcTemplate = Optional.ofNullable(namedParameterJdbcTemplate)
                 .orElseThrow(( ) -> new IllegalArgumentException(errors.getErrorMessage("ILLEGAL_JDBC").getMessage()));
@@ -82,6 +179,7 @@ public class GoodsStoreDao implements GoodsDao {
                     //получить значение ключа добавленного продукта
                     Integer generatedId = keyHolder.getKey().intValue();
                     goods.setId(generatedId);
+                    publishCatalogChanged(CatalogEvent.Change.INSERTED, generatedId);
                 }
             }catch(DataAccessException e){
                 logger.error(messages.getProperty("NOT_INSERTED_GOODS") + ": " + goods, e);
@@ -117,12 +215,19 @@ public class GoodsStoreDao implements GoodsDao {
             parameters.put("id_producer", goods.getId_producer());
             parameters.put("id", goods.getId());
 
+            boolean result;
             try {
-                return namedParameterJdbcTemplate.update(sql, parameters) == 1;
+                result = namedParameterJdbcTemplate.update(sql, parameters) == 1;
             }catch (DataAccessException e){
                 logger.error(messages.getProperty("NOT_UPDATED_GOODS") + ": " + goods, e);
                 throw new StoreException(errors.getErrorMessage("NOT_UPDATED_PRODUCT"), e);
+            }finally {
+                goodsCache.invalidate(goods.getId());
             }
+            //событие публикуется после сброса товара в кеше
+            if (result)
+                publishCatalogChanged(CatalogEvent.Change.UPDATED, goods.getId());
+            return result;
         }
         return false;
     }
@@ -135,38 +240,383 @@ public class GoodsStoreDao implements GoodsDao {
     @Override
     public boolean delete(int id) {
         String sql = "DELETE FROM goods WHERE id=:id";
+        boolean result;
         try {
-            return namedParameterJdbcTemplate.update(sql, new MapSqlParameterSource("id", id)) == 1;
+            result = namedParameterJdbcTemplate.update(sql, new MapSqlParameterSource("id", id)) == 1;
         }catch (DataAccessException e){
             logger.error(messages.getProperty("NOT_DELETED_GOODS") + ": " + id, e);
             throw new StoreException(errors.getErrorMessage("NOT_DELETED_PRODUCT"), e);
+        }finally {
+            goodsCache.invalidate(id);
+        }
+        //событие публикуется после сброса товара в кеше
+        if (result)
+            publishCatalogChanged(CatalogEvent.Change.DELETED, id);
+        return result;
+    }
+
+    /*Метод insertAll выполняет добавление списка товаров в таблицу БД goods.
+    * Товары добавляются пакетами по batchSize записей (один запрос INSERT ... RETURNING на пакет).
+    * @param    goodsList - список товаров для добавления.
+    * @return   результат: кол-во добавленных товаров и ошибки по номерам товаров в списке
+    *           (не корректные данные, нарушение уникальности и т.п.).
+    *           У добавленных товаров будет проинициализировано поле id.
+    * @throws   StoreException - произошла ошибка при обращении к БД (нет соединения).
+    * */
+    @Override
+    public BatchResult insertAll(List<Goods> goodsList) {
+        BatchResult result = new BatchResult();
+        List<Integer> rows = getValidRows(goodsList, result);
+        List<Integer> changed = new ArrayList<>();
+
+        try {
+            return executeBatch(rows, result, "NOT_INSERTED_PRODUCT",
+                    (connection, chunk) -> insertGoods(connection, goodsList, chunk),
+                    (row, id) -> {
+                        goodsList.get(row).setId(id);
+                        changed.add(id);
+                        return true;
+                    });
+        } finally {
+            if (!changed.isEmpty())
+                publishGoodsChanged(changed);
         }
     }
 
-    /*Метод getGoodsById выполняет получение товара из таблицы БД goods по id.
+    /*Метод updateAll выполняет обновление списка товаров в таблице БД goods.
+    * Товары обновляются пакетами по batchSize записей (executeBatch).
+    * @param    goodsList - список товаров с новой инфо.
+    * @return   результат: кол-во обновленных товаров и ошибки по номерам товаров в списке
+    *           (не корректные данные, товар не найден и т.п.).
+    * @throws   StoreException - произошла ошибка при обращении к БД (нет соединения).
+    * */
+    @Override
+    public BatchResult updateAll(List<Goods> goodsList) {
+        BatchResult result = new BatchResult();
+        List<Integer> rows = getValidRows(goodsList, result);
+        List<Integer> changed = new ArrayList<>();
+
+        String sql = "UPDATE goods SET name=?, price=?, description=?, " +
+                     "in_storage=?, id_category=?, id_producer=? WHERE id=?";
+
+        try {
+            return executeBatch(rows, result, "NOT_UPDATED_PRODUCT",
+                    (connection, chunk) -> {
+                        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                            for (int row : chunk) {
+                                Goods goods = goodsList.get(row);
+                                setGoodsParameters(statement, 1, goods);
+                                statement.setInt(7, goods.getId());
+                                statement.addBatch();
+                            }
+                            return statement.executeBatch();
+                        }
+                    },
+                    (row, count) -> count == 1 && changed.add(goodsList.get(row).getId()));
+        } finally {
+            rows.forEach(row -> goodsCache.invalidate(goodsList.get(row).getId()));
+            if (!changed.isEmpty())
+                publishGoodsChanged(changed);
+        }
+    }
+
+    /*Метод deleteAll выполняет удаление товаров из таблицы БД goods по списку id.
+    * Товары удаляются пакетами по batchSize записей (executeBatch).
+    * @param    ids - список id товаров.
+    * @return   результат: кол-во удаленных товаров и ошибки по номерам id в списке
+    *           (товар не найден и т.п.).
+    * @throws   StoreException - произошла ошибка при обращении к БД (нет соединения).
+    * */
+    @Override
+    public BatchResult deleteAll(int[] ids) {
+        BatchResult result = new BatchResult();
+        List<Integer> rows = new ArrayList<>();
+        List<Integer> changed = new ArrayList<>();
+        if (Optional.ofNullable(ids).isPresent()) {
+            for (int i = 0; i < ids.length; i++)
+                rows.add(i);
+        }
+
+        String sql = "DELETE FROM goods WHERE id=?";
+
+        try {
+            return executeBatch(rows, result, "NOT_DELETED_PRODUCT",
+                    (connection, chunk) -> {
+                        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                            for (int row : chunk) {
+                                statement.setInt(1, ids[row]);
+                                statement.addBatch();
+                            }
+                            return statement.executeBatch();
+                        }
+                    },
+                    (row, count) -> count == 1 && changed.add(ids[row]));
+        } finally {
+            rows.forEach(row -> goodsCache.invalidate(ids[row]));
+            if (!changed.isEmpty())
+                publishGoodsChanged(changed);
+        }
+    }
+
+    /*Метод coalesce выполняет запрос к БД query или ожидает результат такого же запроса,
+    * выполняемого другим потоком (результат получают все ожидающие потоки, см. SingleFlight).
+    * @param    key - текст и параметры запроса.
+    * @throws   StoreException - произошла ошибка при выполнении запроса
+    *           или результат запроса другого потока не получен вовремя.
+    * */
+    private <V> V coalesce(String key, Supplier<V> query) {
+        try {
+            return queryFlight.execute(key, query);
+        } catch (QueryTimeoutException e) {
+            logger.error(messages.getProperty("QUERY_TIMEOUT") + ": " + key, e);
+            throw new StoreException(errors.getErrorMessage("QUERY_TIMEOUT"), e);
+        }
+    }
+
+    //изменение каталога (товары, категории, производители): списки товаров в кеше устарели,
+    //а выполняемые запросы (товаров и производителей) могут вернуть данные до изменения
+    //(при изменении товаров этим DAO кеш сброшен до публикации события)
+    @EventListener
+    @Order(CatalogEvent.INVALIDATE_ORDER)
+    public void onCatalogChanged(CatalogEvent event) {
+        if (event.getSource() != this)
+            invalidateQueries();
+    }
+
+    //сброс списков товаров в кеше и выполняемых запросов
+    private void invalidateQueries() {
+        goodsFilterCache.invalidateAll();
+        queryFlight.forgetAll();
+    }
+
+    //публикация события "Изменены товары" с кодами ids (пакетные операции)
+    private void publishGoodsChanged(List<Integer> ids) {
+        invalidateQueries();
+        eventPublisher.publishEvent(new CatalogEvent(this, ids.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    //публикация события "Изменен товар" с кодом id (вид изменения - change)
+    private void publishCatalogChanged(CatalogEvent.Change change, int id) {
+        invalidateQueries();
+        eventPublisher.publishEvent(new CatalogEvent(this, change, id));
+    }
+
+    /*Метод getValidRows выполняет проверку товаров списка goodsList.
+    * @return   номера корректных товаров в списке; ошибки по остальным товарам заносятся в result.
+    * */
+    private List<Integer> getValidRows(List<Goods> goodsList, BatchResult result) {
+        List<Integer> rows = new ArrayList<>();
+        if (!Optional.ofNullable(goodsList).isPresent())
+            return rows;
+
+        for (int i = 0; i < goodsList.size(); i++) {
+            Goods goods = goodsList.get(i);
+            if (!Optional.ofNullable(goods).isPresent()) {
+                result.addFailure(i, messages.getProperty("NOT_SPECIFIED_PRODUCT"));
+                continue;
+            }
+            try {
+                goods.validate(messages);
+                rows.add(i);
+            } catch (ValidationException e) {
+                result.addFailure(i, e.getMessage());
+            }
+        }
+        return rows;
+    }
+
+    /*Метод insertGoods добавляет товары с номерами rows из списка goodsList одним запросом.
+    * @return   id добавленных товаров (в порядке rows).
+    * */
+    private int[] insertGoods(Connection connection, List<Goods> goodsList, List<Integer> rows) throws SQLException {
+        StringBuilder sql = new StringBuilder(INSERT_COLUMNS);
+        for (int i = 0; i < rows.size(); i++) {
+            sql.append(i == 0 ? "" : ",").append(INSERT_VALUES);
+        }
+        sql.append(" RETURNING id, name");
+
+        //id добавленных товаров по наименованию (наименование товара уникально)
+        Map<String, Integer> generatedIds = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+            int index = 1;
+            for (int row : rows) {
+                index = setGoodsParameters(statement, index, goodsList.get(row));
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    generatedIds.put(resultSet.getString("name"), resultSet.getInt("id"));
+                }
+            }
+        }
+
+        int[] ids = new int[rows.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = generatedIds.get(goodsList.get(rows.get(i)).getName());
+        }
+        return ids;
+    }
+
+    /*Метод setGoodsParameters устанавливает параметры запроса statement по данным товара goods,
+    * начиная с параметра с номером index.
+    * @return   номер следующего параметра запроса.
+    * */
+    private static int setGoodsParameters(PreparedStatement statement, int index, Goods goods) throws SQLException {
+        statement.setString(index++, goods.getName());
+        statement.setFloat(index++, goods.getPrice());
+        if (Optional.ofNullable(goods.getDescription()).isPresent())
+            statement.setString(index++, goods.getDescription());
+        else
+            statement.setNull(index++, Types.VARCHAR);
+        statement.setBoolean(index++, goods.isIn_storage());
+        statement.setInt(index++, goods.getId_category());
+        statement.setInt(index++, goods.getId_producer());
+        return index;
+    }
+
+    /*Метод executeBatch выполняет действие action над записями rows частями по batchSize записей.
+    * Каждая часть выполняется в отдельной транзакции. Если часть не выполнена, то ее записи
+    * выполняются по одной: ошибочные записи заносятся в result, остальные - сохраняются.
+    * @param    rows - номера записей.
+    * @param    result - результат пакетной операции.
+    * @param    errorKey - ключ описания ошибки (если нет соединения с БД).
+    * @param    action - действие над частью записей, возвращает результат по каждой записи.
+    * @param    handler - обработка результата записи после фиксации транзакции.
+    * @return   результат пакетной операции result.
+    * @throws   StoreException - произошла ошибка при обращении к БД.
+    * */
+    private BatchResult executeBatch(List<Integer> rows, BatchResult result, String errorKey,
+                                     BatchAction action, RowHandler handler) {
+        if (rows.isEmpty())
+            return result;
+        try {
+            return namedParameterJdbcTemplate.getJdbcOperations().execute((ConnectionCallback<BatchResult>) connection -> {
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+                try {
+                    for (int from = 0; from < rows.size(); from += batchSize) {
+                        List<Integer> chunk = rows.subList(from, Math.min(from + batchSize, rows.size()));
+                        try {
+                            int[] values = action.execute(connection, chunk);
+                            connection.commit();
+                            handleRows(chunk, values, result, handler);
+                        } catch (SQLException e) {
+                            connection.rollback();
+                            logger.warn("The batch of " + chunk.size() + " goods was failed, rows are executed separately", e);
+                            executeByRow(connection, chunk, result, action, handler);
+                        }
+                    }
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+                logger.info("The batch of goods was executed: " + result);
+                return result;
+            });
+        } catch (DataAccessException e) {
+            logger.error(messages.getProperty(errorKey), e);
+            throw new StoreException(errors.getErrorMessage(errorKey), e);
+        }
+    }
+
+    //выполнение записей части пакета по одной
+    private void executeByRow(Connection connection, List<Integer> chunk, BatchResult result,
+                              BatchAction action, RowHandler handler) throws SQLException {
+        for (int row : chunk) {
+            List<Integer> single = Collections.singletonList(row);
+            try {
+                int[] values = action.execute(connection, single);
+                connection.commit();
+                handleRows(single, values, result, handler);
+            } catch (SQLException e) {
+                connection.rollback();
+                result.addFailure(row, e.getMessage());
+            }
+        }
+    }
+
+    //обработка результатов выполненных записей
+    private void handleRows(List<Integer> rows, int[] values, BatchResult result, RowHandler handler) {
+        for (int i = 0; i < rows.size(); i++) {
+            if (handler.handle(rows.get(i), values[i]))
+                result.addProcessed();
+            else
+                result.addFailure(rows.get(i), messages.getProperty("NO_PRODUCT"));
+        }
+    }
+
+    /*Интерфейс BatchAction - действие над частью записей пакетной операции.*/
+    @FunctionalInterface
+    private interface BatchAction {
+        //возвращает результат по каждой записи (id добавленной записи или кол-во измененных строк)
+        int[] execute(Connection connection, List<Integer> rows) throws SQLException;
+    }
+
+    /*Интерфейс RowHandler - обработка результата записи пакетной операции.*/
+    @FunctionalInterface
+    private interface RowHandler {
+        //возвращает true - запись обработана, false - запись не найдена
+        boolean handle(int row, int value);
+    }
+
+    /*Метод getGoodsById выполняет получение товара по id.
+    * Товар читается из кеша товаров goodsCache, при промахе - из таблицы БД goods.
+    * Возвращается копия товара, поэтому изменение товара не изменяет кеш.
     * @param    id товара.
-    * @return   товар - если такой есть в БД, иначе - null (не найден).
-    * @throws   StoreException - произошла ошибка при выполнении запроса.
+    * @return   товар - если такой есть в БД.
+    * @throws   StoreException - товар не найден или произошла ошибка при выполнении запроса.
     * */
     @Override
     public Goods getGoodsById(int id) {
+        Goods goods = goodsCache.get(id, this::readGoodsById);
+        return new Goods(goods.getId(), goods.getName(), goods.getPrice(), goods.getDescription(),
+                goods.isIn_storage(), goods.getId_category(), goods.getId_producer());
+    }
+
+    /*Метод readGoodsById выполняет получение товара из таблицы БД goods по id.
+    * @param    id товара.
+    * @return   товар - если такой есть в БД.
+    * @throws   StoreException - товар не найден или произошла ошибка при выполнении запроса.
+    * */
+    private Goods readGoodsById(int id) {
         String sql = "SELECT * FROM goods WHERE id=:id";
-        try{
-            return namedParameterJdbcTemplate.queryForObject(sql, new MapSqlParameterSource("id", id), new GoodsMapper());
-        }catch (DataAccessException e){
-            logger.error(messages.getProperty("NO_PRODUCT") + ": " + id, e);
-            throw new StoreException(errors.getErrorMessage("NO_PRODUCT"), e);
-        }
+        return coalesce(sql + id, () -> {
+            try{
+                return namedParameterJdbcTemplate.queryForObject(sql, new MapSqlParameterSource("id", id), new GoodsMapper());
+            }catch (DataAccessException e){
+                logger.error(messages.getProperty("NO_PRODUCT") + ": " + id, e);
+                throw new StoreException(errors.getErrorMessage("NO_PRODUCT"), e);
+            }
+        });
     }
 
     /*Метод getGoodsListBySql выполняет получение товара из таблицы БД по заданному запросу sql.
     * @param    sql - запрос на выборку товара.
-    * @return   список товаров, или пустой - если товаров (согдасно запросу sql) нет в БД.
+    * @return   неизменяемый список товаров, или пустой - если товаров (согдасно запросу sql) нет в БД.
     * @throws   StoreException - произошла ошибка при выполнении запроса.
     * */
     private List<Goods> getGoodsListBySql(String sql) {
+        return coalesce(sql, () -> {
+            try{
+                return Collections.unmodifiableList(namedParameterJdbcTemplate.query(sql, new GoodsMapper()));
+            }catch (DataAccessException e){
+                logger.error(messages.getProperty("NO_PRODUCTS"), e);
+                throw new StoreException(errors.getErrorMessage("NO_PRODUCTS"), e);
+            }
+        });
+    }
+
+    /*Метод exportGoods передает все товары (с сортировкой по коду) обработчику consumer.
+    * Товары читаются курсором порциями по exportFetchSize записей и не накапливаются в памяти.
+    * @param    consumer - обработчик товаров.
+    * @throws   StoreException - произошла ошибка при выполнении запроса.
+    * */
+    @Override
+    public void exportGoods(Consumer<Goods> consumer) {
+        String sql = "SELECT * FROM goods ORDER BY id";
         try{
-            return namedParameterJdbcTemplate.query(sql, new GoodsMapper());
+            namedParameterJdbcTemplate.getJdbcOperations().execute((ConnectionCallback<Void>) connection -> {
+                CursorReader.forEach(connection, sql, exportFetchSize, new GoodsMapper(), consumer);
+                return null;
+            });
         }catch (DataAccessException e){
             logger.error(messages.getProperty("NO_PRODUCTS"), e);
             throw new StoreException(errors.getErrorMessage("NO_PRODUCTS"), e);
@@ -174,7 +624,7 @@ public class GoodsStoreDao implements GoodsDao {
     }
 
     /*Метод getGoodsList возвращает список товаров (с сортировкой в обратном порядке по коду).
-    * @return   список товаров, или пустой - если товаров нет в БД.
+    * @return   неизменяемый список товаров, или пустой - если товаров нет в БД.
     * @throws   StoreException - произошла ошибка при выполнении запроса.
     * */
     @Override
@@ -185,7 +635,7 @@ public class GoodsStoreDao implements GoodsDao {
 
     /*Метод getGoodsList возвращает список товаров
     * (с сортировкой согласно параметру isAsc по наименованию товара).
-    * @return   список товаров, или пустой - если товаров нет в БД.
+    * @return   неизменяемый список товаров, или пустой - если товаров нет в БД.
     * @throws   StoreException - произошла ошибка при выполнении запроса.
     * */
     @Override
@@ -194,8 +644,89 @@ public class GoodsStoreDao implements GoodsDao {
         return getGoodsListBySql(sql);
     }
 
+    /*Метод getGoodsPage возвращает страницу товаров (keyset-пагинация).
+    * Следующая страница выбирается по значению ключа сортировки последнего товара
+    * предыдущей страницы (id < :id или name > :name) с использованием индекса,
+    * поэтому время выборки не зависит от номера страницы (в отличие от OFFSET).
+    * Наименование товара уникально, поэтому сортировка по наименованию однозначна.
+    * @param    order - порядок сортировки товаров.
+    * @param    after - ключ страницы (GoodsPage.next предыдущей страницы) или null - первая страница.
+    * @param    limit - кол-во товаров на странице (от 1 до MAX_PAGE_SIZE).
+    * @return   страница товаров (список товаров неизменяемый); ключ следующей страницы - null, если это последняя страница.
+    * @throws   IllegalArgumentException - не корректные порядок сортировки, ключ страницы или кол-во товаров.
+    * @throws   StoreException - произошла ошибка при выполнении запроса.
+    * */
+    @Override
+    public GoodsPage getGoodsPage(GoodsOrder order, String after, int limit) {
+        if (!Optional.ofNullable(order).isPresent())
+            throw new IllegalArgumentException("The order of goods is not specified");
+        if (limit <= 0 || limit > MAX_PAGE_SIZE)
+            throw new IllegalArgumentException("The page size must be between 1 and " + MAX_PAGE_SIZE);
+
+        //выбирается на один товар больше, чтобы определить наличие следующей страницы
+        MapSqlParameterSource parameters = new MapSqlParameterSource("limit", limit + 1);
+        StringBuilder sql = new StringBuilder("SELECT * FROM goods");
+
+        if (Optional.ofNullable(after).isPresent()) {
+            String key = decodePageKey(order, after);
+            if (order == GoodsOrder.ID_DESC) {
+                sql.append(" WHERE id < :id");
+                parameters.addValue("id", parsePageId(key));
+            } else {
+                sql.append(" WHERE name > :name");
+                parameters.addValue("name", key);
+            }
+        }
+        sql.append(order == GoodsOrder.ID_DESC ? " ORDER BY id DESC" : " ORDER BY name ASC");
+        sql.append(" LIMIT :limit");
+
+        List<Goods> items = coalesce(sql.toString() + parameters.getValues(), () -> {
+            try{
+                return Collections.unmodifiableList(namedParameterJdbcTemplate.query(sql.toString(), parameters, new GoodsMapper()));
+            }catch (DataAccessException e){
+                logger.error(messages.getProperty("NO_PRODUCTS"), e);
+                throw new StoreException(errors.getErrorMessage("NO_PRODUCTS"), e);
+            }
+        });
+
+        String next = null;
+        if (items.size() > limit) {
+            items = Collections.unmodifiableList(new ArrayList<>(items.subList(0, limit)));
+            Goods last = items.get(limit - 1);
+            next = encodePageKey(order, order == GoodsOrder.ID_DESC ? String.valueOf(last.getId()) : last.getName());
+        }
+        return new GoodsPage(items, next);
+    }
+
+    //ключ страницы: порядок сортировки и значение ключа сортировки последнего товара (Base64)
+    private static String encodePageKey(GoodsOrder order, String value) {
+        String key = order.name() + PAGE_KEY_SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /*Метод decodePageKey возвращает значение ключа сортировки из ключа страницы pageKey.
+    * @throws   IllegalArgumentException - ключ не корректен или создан для другого порядка сортировки.
+    * */
+    private static String decodePageKey(GoodsOrder order, String pageKey) {
+        String key = new String(Base64.getUrlDecoder().decode(pageKey), StandardCharsets.UTF_8);
+        String prefix = order.name() + PAGE_KEY_SEPARATOR;
+        if (!key.startsWith(prefix))
+            throw new IllegalArgumentException("The page key is not valid for the order " + order);
+        return key.substring(prefix.length());
+    }
+
+    private static int parsePageId(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The page key is not valid", e);
+        }
+    }
+
     /*Метод getGoodsListByFilter выполняет запрос на выборку товаров согласно параметра фильтра
     * с сортировкой по возрастанию по наименованию товара.
+    * Список читается из кеша goodsFilterCache по нормализованным условиям фильтра (GoodsFilterKey),
+    * при промахе - из таблицы БД goods. Возвращаются копии товаров, поэтому их изменение не изменяет кеш.
     * @param    minPrice - минимальная цена.
     * @param    maxPrice - максимальная цена.
     * @param    id_category - код категории.
@@ -210,40 +741,240 @@ public class GoodsStoreDao implements GoodsDao {
     * */
     @Override
     public List<Goods> getGoodsListByFilter(float minPrice, float maxPrice, int id_category, int id_producer, boolean in_storage) {
+        List<Goods> goodsList = goodsFilterCache.get(
+                GoodsFilterKey.of(minPrice, maxPrice, id_category, id_producer, in_storage), this::readGoodsListByFilter);
+        return goodsList.stream()
+                .map(goods -> new Goods(goods.getId(), goods.getName(), goods.getPrice(), goods.getDescription(),
+                        goods.isIn_storage(), goods.getId_category(), goods.getId_producer()))
+                .collect(Collectors.toList());
+    }
 
-        //формирование отображения именованных параметров
+    /*Метод readGoodsListByFilter выполняет запрос на выборку товаров из таблицы БД goods
+    * согласно нормализованным условиям фильтра filter.
+    * @return   неизменяемый список товаров, или пустой - если нет товаров в БД согдасно фильтру.
+    * @throws   StoreException - произошла ошибка при выполнении запроса.
+    * */
+    private List<Goods> readGoodsListByFilter(GoodsFilterKey filter) {
         Map<String, Object> parameters = new HashMap<>();
+        String sql = getFilterSql(FILTER_SQL, parameters, filter);
+        return coalesce(sql + parameters, () -> {
+            try{
+                return Collections.unmodifiableList(namedParameterJdbcTemplate.query(sql, parameters, new GoodsMapper()));
+            }catch (DataAccessException e){
+                logger.error(messages.getProperty("NO_PRODUCTS"), e);
+                throw new StoreException(errors.getErrorMessage("NO_PRODUCTS"), e);
+            }
+        });
+    }
 
-        StringBuilder sql = new StringBuilder("SELECT * FROM goods WHERE in_storage = ");
-        sql.append(in_storage);
-
-        if(id_category != 0) {
-            sql.append(" AND id_category = ");
-            sql.append(id_category);
-        }
-
-        if(id_producer != 0){
-            sql.append(" AND id_producer = ");
-            sql.append(id_producer);
-       }
+    /*Метод getGoodsSummaryList возвращает список товаров без полного описания
+    * (с сортировкой согласно параметру isAsc по наименованию товара).
+    * @return   неизменяемый список товаров, или пустой - если товаров нет в БД.
+    * @throws   StoreException - произошла ошибка при выполнении запроса.
+    * */
+    @Override
+    public List<GoodsSummary> getGoodsSummaryList(boolean isAsc) {
+        String sql = "SELECT " + SUMMARY_COLUMNS + " FROM goods ORDER BY name " + (isAsc ? "ASC" : "DESC");
+        return coalesce(sql, () -> {
+            try{
+                return Collections.unmodifiableList(namedParameterJdbcTemplate.query(sql, new GoodsSummaryMapper()));
+            }catch (DataAccessException e){
+                logger.error(messages.getProperty("NO_PRODUCTS"), e);
+                throw new StoreException(errors.getErrorMessage("NO_PRODUCTS"), e);
+            }
+        });
+    }
 
-        if((minPrice != 0.0 || maxPrice != 0.0) && minPrice <= maxPrice) {
-            sql.append(" AND price BETWEEN :minPrice AND :maxPrice");
-            parameters.put("minPrice", minPrice);
-            parameters.put("maxPrice", maxPrice);
-        }
+    /*Метод getGoodsSummaryById выполняет получение товара без полного описания по id.
+    * @param    id товара.
+    * @return   товар - если такой есть в БД.
+    * @throws   StoreException - товар не найден или произошла ошибка при выполнении запроса.
+    * */
+    @Override
+    public GoodsSummary getGoodsSummaryById(int id) {
+        String sql = "SELECT " + SUMMARY_COLUMNS + " FROM goods WHERE id=:id";
+        return coalesce(sql + id, () -> {
+            try{
+                return namedParameterJdbcTemplate.queryForObject(sql, new MapSqlParameterSource("id", id), new GoodsSummaryMapper());
+            }catch (DataAccessException e){
+                logger.error(messages.getProperty("NO_PRODUCT") + ": " + id, e);
+                throw new StoreException(errors.getErrorMessage("NO_PRODUCT"), e);
+            }
+        });
+    }
 
-        sql.append(" ORDER BY name ASC");
-        logger.info("SQL = " + sql.toString());
+    /*Метод getGoodsSummaryListByIds выполняет получение товаров без полного описания по списку id.
+    * @param    ids - список id товаров.
+    * @return   список товаров в любом порядке (товаров, которых нет в БД, в списке нет).
+    * @throws   StoreException - произошла ошибка при выполнении запроса.
+    * */
+    @Override
+    public List<GoodsSummary> getGoodsSummaryListByIds(int[] ids) {
+        if (ids.length == 0)
+            return Collections.emptyList();
 
+        String sql = "SELECT " + SUMMARY_COLUMNS + " FROM goods WHERE id IN (:ids)";
+        List<Integer> idList = Arrays.stream(ids).boxed().collect(Collectors.toList());
         try{
-            return namedParameterJdbcTemplate.query(sql.toString(), parameters, new GoodsMapper());
+            return namedParameterJdbcTemplate.query(sql, new MapSqlParameterSource("ids", idList), new GoodsSummaryMapper());
         }catch (DataAccessException e){
             logger.error(messages.getProperty("NO_PRODUCTS"), e);
             throw new StoreException(errors.getErrorMessage("NO_PRODUCTS"), e);
         }
     }
 
+    /*Метод getGoodsSummaryListByFilter выполняет запрос на выборку товаров без полного описания
+    * согласно параметрам фильтра (условия отбора - как в getGoodsListByFilter).
+    * @return   неизменяемый список товаров, или пустой - если нет товаров в БД согдасно фильтру.
+    * @throws   StoreException - произошла ошибка при выполнении запроса.
+    * */
+    @Override
+    public List<GoodsSummary> getGoodsSummaryListByFilter(float minPrice, float maxPrice, int id_category, int id_producer, boolean in_storage) {
+        Map<String, Object> parameters = new HashMap<>();
+        String sql = getFilterSql(FILTER_SUMMARY_SQL, parameters,
+                GoodsFilterKey.of(minPrice, maxPrice, id_category, id_producer, in_storage));
+        return coalesce(sql + parameters, () -> {
+            try{
+                return Collections.unmodifiableList(namedParameterJdbcTemplate.query(sql, parameters, new GoodsSummaryMapper()));
+            }catch (DataAccessException e){
+                logger.error(messages.getProperty("NO_PRODUCTS"), e);
+                throw new StoreException(errors.getErrorMessage("NO_PRODUCTS"), e);
+            }
+        });
+    }
+
+    /*Метод searchGoods выполняет полнотекстовый поиск товаров без полного описания
+    * по наименованию и описанию товара (индекс goods_search) с условиями фильтра
+    * (условия отбора - как в getGoodsListByFilter).
+    * Слова текста ищутся с учетом словоформ (словарь russian), все слова должны быть в товаре.
+    * Товары сортируются по убыванию релевантности: совпадение в наименовании весит больше,
+    * чем в описании; при равной релевантности - по наименованию.
+    * @param    text - текст поиска.
+    * @param    offset - кол-во пропускаемых товаров (номер первого товара страницы).
+    * @param    limit - кол-во товаров на странице (от 1 до MAX_PAGE_SIZE).
+    * @return   неизменяемый список найденных товаров (страница), или пустой - если товары не найдены.
+    * @throws   IllegalArgumentException - не задан текст, не корректные offset или limit.
+    * @throws   StoreException - произошла ошибка при выполнении запроса.
+    * */
+    @Override
+    public List<GoodsSummary> searchGoods(String text, float minPrice, float maxPrice, int id_category, int id_producer,
+                                          boolean in_storage, int offset, int limit) {
+        if (!Optional.ofNullable(text).filter(value -> !value.trim().isEmpty()).isPresent())
+            throw new IllegalArgumentException("The text of the search is not specified");
+        if (offset < 0)
+            throw new IllegalArgumentException("The offset must not be negative");
+        if (limit <= 0 || limit > MAX_PAGE_SIZE)
+            throw new IllegalArgumentException("The page size must be between 1 and " + MAX_PAGE_SIZE);
+
+        Map<String, Object> parameters = new HashMap<>();
+        String sql = getFilterSql(SEARCH_SQL, parameters,
+                GoodsFilterKey.of(minPrice, maxPrice, id_category, id_producer, in_storage));
+        parameters.put("text", text);
+        parameters.put("offset", offset);
+        parameters.put("limit", limit);
+        return coalesce(sql + parameters, () -> {
+            try{
+                return Collections.unmodifiableList(namedParameterJdbcTemplate.query(sql, parameters, new GoodsSummaryMapper()));
+            }catch (DataAccessException e){
+                logger.error(messages.getProperty("NO_PRODUCTS") + ": " + text, e);
+                throw new StoreException(errors.getErrorMessage("NO_PRODUCTS"), e);
+            }
+        });
+    }
+
+    /*Метод getFilterSql выбирает шаблон запроса фильтра товаров из templates
+    * согласно нормализованным условиям фильтра key и заполняет параметры запроса parameters.
+    * В запрос включаются условия при выполнении след.условий:
+    *- id_producer <> 0;
+    *- id_category <> 0;
+    *- задан диапазон цен (minPrice <= maxPrice и (minPrice <> 0 или maxPrice <> 0) - см. GoodsFilterKey);
+    * @return   запрос.
+    * */
+    private static String getFilterSql(String[] templates, Map<String, Object> parameters, GoodsFilterKey key) {
+        int filter = 0;
+        parameters.put("in_storage", key.isIn_storage());
+
+        if (key.getId_category() != 0) {
+            filter |= FILTER_BY_CATEGORY;
+            parameters.put("id_category", key.getId_category());
+        }
+
+        if (key.getId_producer() != 0) {
+            filter |= FILTER_BY_PRODUCER;
+            parameters.put("id_producer", key.getId_producer());
+        }
+
+        if (key.hasPriceRange()) {
+            filter |= FILTER_BY_PRICE;
+            parameters.put("minPrice", key.getMinPrice());
+            parameters.put("maxPrice", key.getMaxPrice());
+        }
+        return templates[filter];
+    }
+
+    /*Метод createFilterSql формирует шаблоны запросов на выборку полей columns товаров
+    * для всех наборов условий фильтра (с сортировкой по возрастанию по наименованию товара).
+    * @return   шаблоны запросов по номеру набора условий.
+    * */
+    private static String[] createFilterSql(String columns) {
+        return createFilterSql("SELECT " + columns + " FROM goods WHERE in_storage = :in_storage", " ORDER BY name ASC");
+    }
+
+    /*Метод createFilterSql формирует шаблоны запросов для всех наборов условий фильтра:
+    * к запросу select (с условием WHERE) добавляются условия фильтра и окончание запроса order.
+    * @return   шаблоны запросов по номеру набора условий.
+    * */
+    private static String[] createFilterSql(String select, String order) {
+        String[] templates = new String[(FILTER_BY_CATEGORY | FILTER_BY_PRODUCER | FILTER_BY_PRICE) + 1];
+        for (int filter = 0; filter < templates.length; filter++) {
+            StringBuilder sql = new StringBuilder(select);
+            if ((filter & FILTER_BY_CATEGORY) != 0)
+                sql.append(" AND id_category = :id_category");
+            if ((filter & FILTER_BY_PRODUCER) != 0)
+                sql.append(" AND id_producer = :id_producer");
+            if ((filter & FILTER_BY_PRICE) != 0)
+                sql.append(" AND price BETWEEN :minPrice AND :maxPrice");
+            sql.append(order);
+            templates[filter] = sql.toString();
+        }
+        return templates;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /*Метод setBatchSize задает кол-во записей в пакете.
+    * @throws   IllegalArgumentException - кол-во не от 1 до MAX_BATCH_SIZE
+    *           (пакет большего размера не выполнится одним запросом INSERT).
+    * */
+    @Value("#{dbSettings['goods.batchSize']}")
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0 || batchSize > MAX_BATCH_SIZE)
+            throw new IllegalArgumentException("The batch size must be between 1 and " + MAX_BATCH_SIZE);
+        this.batchSize = batchSize;
+    }
+
+    /*Класс GoodsSummaryMapper преобразовывает строку таблицы goods (поля SUMMARY_COLUMNS)
+    * в объект GoodsSummary. Обрезанное описание дополняется многоточием.*/
+    private static class GoodsSummaryMapper implements RowMapper<GoodsSummary> {
+        @Override
+        public GoodsSummary mapRow(ResultSet resultSet, int i) throws SQLException {
+            String shortDescription = resultSet.getString("short_description");
+            if (shortDescription != null && shortDescription.length() > SHORT_DESCRIPTION_LENGTH)
+                shortDescription = shortDescription.substring(0, SHORT_DESCRIPTION_LENGTH) + "\u2026";
+            return new GoodsSummary(
+                    resultSet.getInt("id"),
+                    resultSet.getString("name"),
+                    resultSet.getFloat("price"),
+                    resultSet.getBoolean("in_storage"),
+                    resultSet.getInt("id_category"),
+                    resultSet.getInt("id_producer"),
+                    shortDescription
+            );
+        }
+    }
+
     /*Класс GoodsMapper преобразовывает строку таблицы goods
     * в объект Goods. */
     private static class GoodsMapper implements RowMapper<Goods> {
@@ -1,36 +1,46 @@
 package home.ivishnyakova.store.dao.storeDao;
 
+import home.ivishnyakova.store.cache.SingleFlight;
+import home.ivishnyakova.store.catalog.CatalogEvent;
 import home.ivishnyakova.store.exceptions.ValidationException;
 import home.ivishnyakova.store.message.ErrorProperties;
 import home.ivishnyakova.store.utils.LoggerUtil;
 import home.ivishnyakova.store.dao.ProducerDao;
 import home.ivishnyakova.store.entity.Producer;
 import home.ivishnyakova.store.exceptions.StoreException;
-import org.apache.commons.pool2.impl.GenericObjectPool;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.stereotype.Repository;
 
-import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
+import javax.sql.DataSource;
 import java.sql.*;
 import java.sql.Connection;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /*Класс ProducerStoreDao предоставляет реализацию доступа к данным о
 * производителе товаров в интернет-магазине с применением "чистого" JDBC.
 *
+* Каждая операция получает соединение из пула (через dataSource)
+* и возвращает его в пул по завершении, поэтому запросы разных потоков
+* выполняются параллельно в пределах размера пула.
+*
 * Автор: Вишнякова И.
 * */
 @Repository
 public class ProducerStoreDao implements ProducerDao {
 
-    private Connection connection;  //соединение к БД
-    private GenericObjectPool<Connection> connectionPool;   //пул соединений
+    private DataSource dataSource;  //источник соединений (пул соединений)
 
     //для логирования
     private static final Logger logger = LogManager.getLogger(LoggerUtil.getClassName());
@@ -43,19 +53,24 @@ public class ProducerStoreDao implements ProducerDao {
     @Resource(name="errors")
     private ErrorProperties errors;
 
-    public ProducerStoreDao(){}
+    //кол-во строк, получаемых от сервера БД за одно обращение при экспорте
+    @Value("#{dbSettings['export.fetchSize']}")
+    private int exportFetchSize;
+
+    //объединение одинаковых одновременных запросов к БД
+    @Resource(name="queryFlight")
+    private SingleFlight<String> queryFlight;
 
+    //для публикации события "Изменены производители"
     @Autowired
-    public ProducerStoreDao(GenericObjectPool<Connection> connectionPool) throws Exception {
-        this.connectionPool = Optional.ofNullable(connectionPool)
-                .orElseThrow(()-> new IllegalArgumentException(messages.getProperty("ILLEGAL_CONNECTION_POOL")));
-        this.connection = connectionPool.borrowObject();
-    }
+    private ApplicationEventPublisher eventPublisher;
 
-    @PreDestroy
-    public void destroy() throws Exception {
-        Optional.ofNullable(connection).ifPresent(
-            (connectionTmp) ->  connectionPool.returnObject(connectionTmp));
+    public ProducerStoreDao(){}
+
+    @Autowired
+    public ProducerStoreDao(DataSource dataSource) {
+        this.dataSource = Optional.ofNullable(dataSource)
+                .orElseThrow(()-> new IllegalArgumentException("The connection pool is null"));
     }
 
     /*Метод insert выполняет добавление нового producer в БД.
@@ -75,13 +90,15 @@ public class ProducerStoreDao implements ProducerDao {
 
         String sql = "INSERT INTO producers(name) VALUES(?)";
 
-        try (PreparedStatement statement = connection.prepareStatement(sql, new String[]{"id"})) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql, new String[]{"id"})) {
             statement.setString(1, producerOpt.getName());
             statement.executeUpdate();
             ResultSet resultSet = statement.getGeneratedKeys();
             if (resultSet.next()) {
                 producer.setId(resultSet.getInt("id"));
             }
+            publishProducersChanged();
         }
         catch (SQLException e){
             throw new StoreException(errors.getErrorMessage("NOT_INSERTED_PRODUCER"), e);
@@ -107,11 +124,15 @@ public class ProducerStoreDao implements ProducerDao {
 
         String sql = "UPDATE producers SET name=? WHERE id=?";
 
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
 
             statement.setString(1, producerOpt.getName());
             statement.setInt(2, producerOpt.getId());
-            return statement.executeUpdate() == 1;
+            boolean result = statement.executeUpdate() == 1;
+            if (result)
+                publishProducersChanged();
+            return result;
         }
         catch (SQLException e){
             throw new StoreException(errors.getErrorMessage("NOT_UPDATED_PRODUCER"), e);
@@ -129,15 +150,24 @@ public class ProducerStoreDao implements ProducerDao {
     public boolean delete(int id) throws StoreException{
         String sql = "DELETE FROM producers WHERE id=?";
 
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
             statement.setInt(1, id);
-            return statement.executeUpdate() == 1;
+            boolean result = statement.executeUpdate() == 1;
+            if (result)
+                publishProducersChanged();
+            return result;
         }
         catch (SQLException e){
             throw new StoreException(errors.getErrorMessage("NOT_DELETED_PRODUCER"), e);
         }
     }
 
+    //публикация события "Изменены производители" (для обновления подсказок наименований)
+    private void publishProducersChanged() {
+        eventPublisher.publishEvent(new CatalogEvent(this, CatalogEvent.Change.PRODUCERS, 0));
+    }
+
     /*Метод getProducerById выполняет выборку инфо о производителе по его коду id.
     * @param    id производителя, кот. следует найти.
     * @returns  производитель, если такой есть в БД, иначе - StoreException.
@@ -147,54 +177,75 @@ public class ProducerStoreDao implements ProducerDao {
     * */
     @Override
     public Producer getProducerById(int id) throws StoreException{
-        Producer producer = null;
         String sql = "SELECT * FROM producers WHERE id=?";
 
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setInt(1, id);
-            if (statement.execute()) {
-                ResultSet resultSet = statement.getResultSet();
-                if (resultSet.next()) {
-                    producer = new Producer();
-                    producer.setId(resultSet.getInt("id"));
-                    producer.setName(resultSet.getString("name"));
+        return coalesce(sql + id, () -> {
+            Producer producer = null;
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setInt(1, id);
+                if (statement.execute()) {
+                    ResultSet resultSet = statement.getResultSet();
+                    if (resultSet.next()) {
+                        producer = new Producer();
+                        producer.setId(resultSet.getInt("id"));
+                        producer.setName(resultSet.getString("name"));
+                    }
                 }
             }
-        }
-        catch (SQLException e){
-            throw new StoreException(errors.getErrorMessage("NO_PRODUCER"), e);
-        }
+            catch (SQLException e){
+                throw new StoreException(errors.getErrorMessage("NO_PRODUCER"), e);
+            }
 
-        return Optional.ofNullable(producer)
-                .orElseThrow(() -> new StoreException(errors.getErrorMessage("NO_PRODUCER")));
+            return Optional.ofNullable(producer)
+                    .orElseThrow(() -> new StoreException(errors.getErrorMessage("NO_PRODUCER")));
+        });
     }
 
 
     /*Метод getProducerListBySql выполняет выборку инфо об производителях согласно запросу sql.
     * @param    sql запрос на выборку.
-    * @returns  список производителей.
+    * @returns  неизменяемый список производителей.
     * @throws   StoreException - отсутствует соединение с БД  или ошибка при обработке запроса.
     * */
     private List<Producer> getProducerListBySql(String sql) throws StoreException{
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            ResultSet resultSet = statement.executeQuery();
+        return coalesce(sql, () -> {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                ResultSet resultSet = statement.executeQuery();
 
-            List<Producer> producers = new ArrayList<>();
-            while (resultSet.next()){
-                Producer producer = new Producer();
-                producer.setId(resultSet.getInt("id"));
-                producer.setName(resultSet.getString("name"));
-                producers.add(producer);
+                List<Producer> producers = new ArrayList<>();
+                while (resultSet.next()){
+                    Producer producer = new Producer();
+                    producer.setId(resultSet.getInt("id"));
+                    producer.setName(resultSet.getString("name"));
+                    producers.add(producer);
+                }
+                return Collections.unmodifiableList(producers);
             }
-            return producers;
-        }
-        catch (SQLException e){
-            throw new StoreException(errors.getErrorMessage("NO_PRODUCERS"), e);
+            catch (SQLException e){
+                throw new StoreException(errors.getErrorMessage("NO_PRODUCERS"), e);
+            }
+        });
+    }
+
+    /*Метод coalesce выполняет запрос к БД query или ожидает результат такого же запроса,
+    * выполняемого другим потоком (результат получают все ожидающие потоки, см. SingleFlight).
+    * @param    key - текст и параметры запроса.
+    * @throws   StoreException - произошла ошибка при выполнении запроса
+    *           или результат запроса другого потока не получен вовремя.
+    * */
+    private <V> V coalesce(String key, Supplier<V> query) {
+        try {
+            return queryFlight.execute(key, query);
+        } catch (QueryTimeoutException e) {
+            logger.error(messages.getProperty("QUERY_TIMEOUT") + ": " + key, e);
+            throw new StoreException(errors.getErrorMessage("QUERY_TIMEOUT"), e);
         }
     }
 
     /*Метод getProducerList выполняет выборку инфо об всех производителях.
-    * @returns  список производителей.
+    * @returns  неизменяемый список производителей.
     * @throws   StoreException - отсутствует соединение с БД  или ошибка при обработке запроса.
     * */
     @Override
@@ -206,7 +257,7 @@ public class ProducerStoreDao implements ProducerDao {
     /*Метод getProducerSortList выполняет выборку инфо об всех производителях
     * с сортировкой по названию производителей.
     * @param    isAsc вид сортировки (true - по возрастанию).
-    * @returns  список производителей с указанным видом сортировки.
+    * @returns  неизменяемый список производителей с указанным видом сортировки.
     * @throws   StoreException - отсутствует соединение с БД  или ошибка при обработке запроса.
     * */
     @Override
@@ -215,4 +266,22 @@ public class ProducerStoreDao implements ProducerDao {
                              "SELECT * FROM producers ORDER BY name DESC";
         return getProducerListBySql(sql);
     }
+
+    /*Метод exportProducers передает всех производителей (с сортировкой по коду) обработчику consumer.
+    * Производители читаются курсором порциями по exportFetchSize записей и не накапливаются в памяти.
+    * @param    consumer - обработчик производителей.
+    * @throws   StoreException - отсутствует соединение с БД  или ошибка при обработке запроса.
+    * */
+    @Override
+    public void exportProducers(Consumer<Producer> consumer) throws StoreException{
+        String sql = "SELECT * FROM producers ORDER BY id";
+        try (Connection connection = dataSource.getConnection()) {
+            CursorReader.forEach(connection, sql, exportFetchSize,
+                    (resultSet, rowNum) -> new Producer(resultSet.getInt("id"), resultSet.getString("name")),
+                    consumer);
+        }
+        catch (SQLException e){
+            throw new StoreException(errors.getErrorMessage("NO_PRODUCERS"), e);
+        }
+    }
 }
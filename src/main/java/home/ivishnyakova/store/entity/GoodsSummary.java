@@ -0,0 +1,123 @@
+package home.ivishnyakova.store.entity;
+
+import java.io.Serializable;
+import java.util.Optional;
+
+/* Класс GoodsSummary описывает товар в списке товаров:
+* содержит только поля, которые отображаются в списке, и начало описания товара
+* (полное описание товара загружается отдельно - GoodsDao.getGoodsById).
+*
+* Автор: Вишнякова И.Н.
+* */
+public class GoodsSummary implements Serializable {
+
+    private int id;                     //первичный ключ
+    private String name;                //наименование товара
+    private float price;                //цена
+    private boolean in_storage;         //есть ли на складе
+    private int id_category;            //код категории, к которой относится
+    private int id_producer;            //код производителя товара
+    private String shortDescription;    //начало описания
+
+    public GoodsSummary() {
+    }
+
+    public GoodsSummary(int id, String name, float price, boolean in_storage, int id_category, int id_producer, String shortDescription) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.in_storage = in_storage;
+        this.id_category = id_category;
+        this.id_producer = id_producer;
+        this.shortDescription = shortDescription;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public float getPrice() {
+        return price;
+    }
+
+    public void setPrice(float price) {
+        this.price = price;
+    }
+
+    public boolean isIn_storage() {
+        return in_storage;
+    }
+
+    public void setIn_storage(boolean in_storage) {
+        this.in_storage = in_storage;
+    }
+
+    public int getId_category() {
+        return id_category;
+    }
+
+    public void setId_category(int id_category) {
+        this.id_category = id_category;
+    }
+
+    public int getId_producer() {
+        return id_producer;
+    }
+
+    public void setId_producer(int id_producer) {
+        this.id_producer = id_producer;
+    }
+
+    public String getShortDescription() {
+        return shortDescription;
+    }
+
+    public void setShortDescription(String shortDescription) {
+        this.shortDescription = shortDescription;
+    }
+
+    @Override
+    public String toString() {
+        return "GoodsSummary{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", price=" + price +
+                ", in_storage=" + in_storage +
+                ", id_category=" + id_category +
+                ", id_producer=" + id_producer +
+                "}\n";
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!Optional.ofNullable(obj).isPresent() || getClass() != obj.getClass()) return false;
+
+        GoodsSummary goods = (GoodsSummary) obj;
+
+        if (id != goods.id) return false;
+        if (Float.compare(goods.price, price) != 0) return false;
+        if (in_storage != goods.in_storage) return false;
+        if (id_category != goods.id_category) return false;
+        if (id_producer != goods.id_producer) return false;
+        if (!name.equals(goods.name)) return false;
+        return Optional.ofNullable(shortDescription).isPresent() ? shortDescription.equals(goods.shortDescription) : !Optional.ofNullable(goods.shortDescription).isPresent();
+    }
+
+    @Override
+    public int hashCode() {
+        return id;
+    }
+}
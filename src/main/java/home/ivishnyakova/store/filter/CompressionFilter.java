@@ -0,0 +1,174 @@
+package home.ivishnyakova.store.filter;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/*Класс CompressionFilter предназначен для сжатия ответов сервера (gzip, deflate).
+*
+* Способ сжатия выбирается по заголовку запроса Accept-Encoding (с учетом q-значений;
+* при равных значениях - gzip). Сжимаются ответы с типом содержимого из списка mimeTypes,
+* размер которых не меньше minSize байт: до minSize байт тело ответа накапливается
+* в буфере, а после решения о сжатии передается клиенту по мере записи (сжатыми блоками),
+* поэтому тело ответа целиком в памяти не хранится.
+* Не сжимаются ответы без тела (204, 304), части ответа (206) и ответы,
+* для которых уже указан заголовок Content-Encoding.
+*
+* Свойства фильтра (бин compressionFilter, значения - в db-settings.properties):
+* mimeTypes - типы содержимого через запятую, minSize - мин. размер сжимаемого ответа, байт.
+*
+* Автор: Вишнякова И.
+* */
+public class CompressionFilter extends OncePerRequestFilter {
+
+    //способы сжатия
+    static final String GZIP = "gzip";
+    static final String DEFLATE = "deflate";
+
+    //типы содержимого по умолчанию
+    private static final String DEFAULT_MIME_TYPES = "application/json,application/xml,text/html,text/xml,text/plain,text/css,application/javascript";
+
+    //мин. размер сжимаемого ответа по умолчанию, байт
+    private static final int DEFAULT_MIN_SIZE = 1024;
+
+    //сжимаемые типы содержимого (без параметров, в нижнем регистре)
+    private Set<String> mimeTypes = parseMimeTypes(DEFAULT_MIME_TYPES);
+
+    //мин. размер сжимаемого ответа, байт
+    private int minSize = DEFAULT_MIN_SIZE;
+
+    public void setMimeTypes(String mimeTypes) {
+        this.mimeTypes = parseMimeTypes(mimeTypes);
+    }
+
+    public void setMinSize(int minSize) {
+        if (minSize < 0)
+            throw new IllegalArgumentException("minSize must not be negative: " + minSize);
+        this.minSize = minSize;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String encoding = negotiateEncoding(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        if (encoding == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        CompressionResponseWrapper wrapper = new CompressionResponseWrapper(response, encoding, this);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, wrapper);
+            completed = true;
+        } finally {
+            //асинхронный запрос: ответ завершается после окончания обработки запроса
+            if (completed && request.isAsyncStarted())
+                request.getAsyncContext().addListener(new FinishListener(wrapper));
+            else
+                wrapper.finish(completed);
+        }
+    }
+
+    /*Метод isCompressible проверяет, относится ли тип содержимого contentType к сжимаемым типам.*/
+    boolean isCompressible(String contentType) {
+        if (contentType == null)
+            return false;
+        int parameters = contentType.indexOf(';');
+        String mimeType = parameters < 0 ? contentType : contentType.substring(0, parameters);
+        return mimeTypes.contains(mimeType.trim().toLowerCase(Locale.ROOT));
+    }
+
+    int getMinSize() {
+        return minSize;
+    }
+
+    /*Метод negotiateEncoding выбирает способ сжатия по заголовку Accept-Encoding.
+    * @param    acceptEncoding - значение заголовка (например, "gzip, deflate;q=0.5").
+    * @return   GZIP, DEFLATE или null - клиент не принимает сжатые ответы.
+    * */
+    static String negotiateEncoding(String acceptEncoding) {
+        if (!StringUtils.hasText(acceptEncoding))
+            return null;
+
+        float gzip = -1, deflate = -1, any = -1;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            float quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Float.parseFloat(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (name.equals(GZIP) || name.equals("x-gzip"))
+                gzip = Math.max(gzip, quality);
+            else if (name.equals(DEFLATE))
+                deflate = quality;
+            else if (name.equals("*"))
+                any = quality;
+        }
+
+        //способ, не указанный явно, принимается с q-значением "*"
+        if (gzip < 0)
+            gzip = any;
+        if (deflate < 0)
+            deflate = any;
+        if (gzip > 0 && gzip >= deflate)
+            return GZIP;
+        return deflate > 0 ? DEFLATE : null;
+    }
+
+    private static Set<String> parseMimeTypes(String mimeTypes) {
+        Set<String> result = new HashSet<>();
+        for (String mimeType : StringUtils.commaDelimitedListToStringArray(mimeTypes)) {
+            if (StringUtils.hasText(mimeType))
+                result.add(mimeType.trim().toLowerCase(Locale.ROOT));
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    /*Класс FinishListener завершает сжатый ответ асинхронного запроса.*/
+    private static class FinishListener implements AsyncListener {
+        private final CompressionResponseWrapper wrapper;
+
+        FinishListener(CompressionResponseWrapper wrapper) {
+            this.wrapper = wrapper;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) throws IOException {
+            wrapper.finish(true);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package home.ivishnyakova.store.filter;
+
+import org.springframework.http.HttpHeaders;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/*Класс CompressionResponseWrapper - ответ сервера, тело которого сжимается фильтром CompressionFilter.
+*
+* Первые minSize байт тела накапливаются в буфере. Если тело больше буфера (или заявленная длина
+* Content-Length не меньше minSize) и тип содержимого сжимаемый, то в ответ добавляется заголовок
+* Content-Encoding, а тело сжимается по мере записи; иначе тело передается без изменений.
+* Заголовок Content-Length передается только несжатым ответам.
+* Строгий ETag сжатого ответа заменяется слабым (сжатое представление отличается от несжатого побайтно).
+*
+* Автор: Вишнякова И.
+* */
+class CompressionResponseWrapper extends HttpServletResponseWrapper {
+
+    //размер буфера сжатого потока, байт
+    private static final int DEFLATER_BUFFER_SIZE = 8192;
+
+    private final String encoding;              //способ сжатия: gzip, deflate
+    private final CompressionFilter filter;     //настройки сжатия
+
+    private CompressionOutputStream stream;     //поток тела ответа (null - тело не записывалось)
+    private PrintWriter writer;                 //символьный поток тела (null - не запрашивался)
+    private long contentLength = -1;            //заявленная длина тела (-1 - не указана)
+
+    CompressionResponseWrapper(HttpServletResponse response, String encoding, CompressionFilter filter) {
+        super(response);
+        this.encoding = encoding;
+        this.filter = filter;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null)
+            throw new IllegalStateException("getWriter() has already been called for this response");
+        return getStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (stream != null)
+                throw new IllegalStateException("getOutputStream() has already been called for this response");
+            writer = new PrintWriter(new OutputStreamWriter(getStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        setLength(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        setLength(len);
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name))
+            setLength(value == null ? -1 : Long.parseLong(value.trim()));
+        else
+            super.setHeader(name, value);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name))
+            setLength(Long.parseLong(value.trim()));
+        else
+            super.addHeader(name, value);
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name))
+            setLength(value);
+        else
+            super.setIntHeader(name, value);
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name))
+            setLength(value);
+        else
+            super.addIntHeader(name, value);
+    }
+
+    //до решения о сжатии ответ не фиксируется (тело остается в буфере)
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null)
+            writer.flush();
+        if (stream != null)
+            stream.flush();
+        if (stream == null || stream.isDecided())
+            super.flushBuffer();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        contentLength = -1;
+        resetStream();
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        resetStream();
+    }
+
+    /*Метод finish завершает ответ: передает клиенту остаток буфера и завершает сжатый поток.
+    * @param    completed - запрос обработан без исключения (false - несжатый буфер
+    *           не передается, чтобы сервер мог сформировать ответ об ошибке).
+    * */
+    void finish(boolean completed) throws IOException {
+        //ответ 304 без тела: ETag такой же, как у сжатого ответа
+        if (getStatus() == SC_NOT_MODIFIED && !isCommitted())
+            weakenETag();
+        if (stream == null || (!completed && !stream.isDecided()))
+            return;
+        if (writer != null)
+            writer.flush();
+        stream.finish();
+    }
+
+    //заявленная длина тела передается сразу только несжатому ответу
+    private void setLength(long length) {
+        contentLength = length;
+        if (stream != null && stream.isDecided() && !stream.compressed && length >= 0)
+            getResponse().setContentLengthLong(length);
+    }
+
+    private CompressionOutputStream getStream() {
+        if (stream == null)
+            stream = new CompressionOutputStream(filter.getMinSize());
+        return stream;
+    }
+
+    private void resetStream() {
+        if (stream != null && !stream.isDecided()) {
+            stream = null;
+            writer = null;
+        }
+    }
+
+    //можно ли сжимать ответ (по статусу и заголовкам)
+    private boolean isCompressible() {
+        int status = getStatus();
+        return status != SC_NO_CONTENT && status != SC_NOT_MODIFIED && status != SC_PARTIAL_CONTENT
+                && getHeader(HttpHeaders.CONTENT_ENCODING) == null
+                && filter.isCompressible(getContentType());
+    }
+
+    private void weakenETag() {
+        String eTag = getHeader(HttpHeaders.ETAG);
+        if (eTag != null && eTag.startsWith("\""))
+            super.setHeader(HttpHeaders.ETAG, "W/" + eTag);
+    }
+
+    /*Класс CompressionOutputStream - поток тела ответа: буфер до решения о сжатии,
+    * затем - сжатый или несжатый поток ответа сервера.*/
+    private class CompressionOutputStream extends ServletOutputStream {
+
+        private byte[] buffer;          //начало тела ответа (до решения о сжатии)
+        private int count;              //кол-во байт в буфере
+        private OutputStream out;       //поток, в который пишется тело (null - решение не принято)
+        private boolean compressed;     //тело сжимается
+        private boolean finished;       //поток завершен
+
+        CompressionOutputStream(int minSize) {
+            buffer = new byte[minSize];
+        }
+
+        boolean isDecided() {
+            return out != null;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (finished)
+                throw new IOException("The response stream has been finished");
+            if (out == null) {
+                if (contentLength < 0 && count + length < buffer.length) {
+                    System.arraycopy(bytes, offset, buffer, count, length);
+                    count += length;
+                    return;
+                }
+                decide(contentLength < 0 || contentLength >= buffer.length);
+            }
+            out.write(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (out != null)
+                out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+        }
+
+        @Override
+        public boolean isReady() {
+            try {
+                return out == null || getResponse().getOutputStream().isReady();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            try {
+                getResponse().getOutputStream().setWriteListener(writeListener);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        void finish() throws IOException {
+            if (finished)
+                return;
+            if (out == null) {
+                if (contentLength < 0)
+                    contentLength = count;
+                decide(false);
+            }
+            finished = true;
+            if (compressed)
+                out.close();
+            else
+                out.flush();
+        }
+
+        //решение о сжатии и передача буфера
+        private void decide(boolean large) throws IOException {
+            OutputStream responseStream = getResponse().getOutputStream();
+            compressed = large && isCompressible();
+            if (compressed) {
+                HttpServletResponse response = (HttpServletResponse) getResponse();
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                weakenETag();
+                out = CompressionFilter.GZIP.equals(encoding) ?
+                        new GZIPOutputStream(responseStream, DEFLATER_BUFFER_SIZE, true) :
+                        new DeflaterOutputStream(responseStream, true);
+            } else {
+                if (filter.isCompressible(getContentType()))
+                    ((HttpServletResponse) getResponse()).addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                if (contentLength >= 0)
+                    getResponse().setContentLengthLong(contentLength);
+                out = responseStream;
+            }
+            if (count > 0)
+                out.write(buffer, 0, count);
+            buffer = null;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package home.ivishnyakova.store.filter;
+
+import home.ivishnyakova.store.cache.PageCache;
+import home.ivishnyakova.store.catalog.CatalogEvent;
+import home.ivishnyakova.store.catalog.CatalogSnapshotEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.WebUtils;
+
+import javax.annotation.Resource;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/*Класс PageCacheFilter предназначен для кеширования главной страницы магазина ("/")
+* и страницы товаров по фильтру ("/getGoodsByFilter") - страниц, одинаковых для всех посетителей.
+*
+* Страница ищется в кеше pageCache по ключу: адрес страницы и параметры фильтра GoodsFilter,
+* приведенные к значениям полей фильтра (так "1000" и "1000.0" дают один ключ; прочие параметры
+* запроса на страницу не влияют и в ключ не входят). Найденная страница передается клиенту
+* без обращения к сервлету-диспетчеру. Иначе страница формируется сервлетом, копия ее тела
+* сохраняется в кеше, если ответ успешный (200, text/html) и не является страницей описания ошибки.
+* Заголовки ответа (кроме типа содержимого) не кешируются.
+* При любом изменении каталога (товары, категории, производители) кеш очищается.
+*
+* Автор: Вишнякова И.
+* */
+@Component
+public class PageCacheFilter extends OncePerRequestFilter {
+
+    //адреса кешируемых страниц
+    private static final String ROOT = "/";
+    private static final String GOODS_BY_FILTER = "/getGoodsByFilter";
+
+    //параметры фильтра товаров и типы полей GoodsFilter
+    private static final String[] FILTER_PARAMS = {"filterIdCategory", "filterIdProducer",
+            "filterMinPrice", "filterMaxPrice", "filterInStorage", "filterText"};
+    private static final Class<?>[] FILTER_TYPES = {int.class, int.class,
+            float.class, float.class, boolean.class, String.class};
+
+    //значения полей GoodsFilter по умолчанию (параметр не указан)
+    private static final String[] FILTER_DEFAULTS = {"0", "0", "0", "0", "false", ""};
+
+    //преобразование параметров в значения полей фильтра (как при связывании GoodsFilter с запросом)
+    private static final ConversionService conversionService = new DefaultConversionService();
+
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    //кеш страниц
+    @Resource(name = "pageCache")
+    private PageCache pageCache;
+
+    public PageCacheFilter() {
+    }
+
+    public PageCacheFilter(PageCache pageCache) {
+        this.pageCache = pageCache;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!pageCache.isEnabled() || !HttpMethod.GET.matches(request.getMethod()))
+            return true;
+        String path = urlPathHelper.getPathWithinApplication(request);
+        return !ROOT.equals(path) && !GOODS_BY_FILTER.equals(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String key = getKey(request);
+        if (key == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        PageCache.Page page = pageCache.get(key);
+        if (page != null) {
+            response.setContentType(page.getContentType());
+            response.setContentLength(page.size());
+            response.getOutputStream().write(page.getContent());
+            return;
+        }
+
+        long version = pageCache.getVersion();
+        PageCaptureResponseWrapper wrapper = new PageCaptureResponseWrapper(response, pageCache.getMaxPageBytes());
+        try {
+            filterChain.doFilter(request, wrapper);
+        } finally {
+            wrapper.flushWriter();
+        }
+
+        if (isCacheable(request, wrapper)) {
+            byte[] content = wrapper.getContent();
+            if (content != null)
+                pageCache.put(key, new PageCache.Page(wrapper.getContentType(), content), version);
+        }
+    }
+
+    //изменение каталога: сформированные страницы устарели
+    @EventListener
+    @Order(CatalogEvent.INVALIDATE_ORDER)
+    public void onCatalogChanged(CatalogEvent event) {
+        pageCache.invalidateAll();
+    }
+
+    //замена снимка каталога: страницы, сформированные по прежнему снимку, устарели
+    @EventListener
+    public void onSnapshotChanged(CatalogSnapshotEvent event) {
+        pageCache.invalidateAll();
+    }
+
+    /*Метод getKey возвращает ключ страницы в кеше.
+    * @return   ключ страницы (null - страницу не следует кешировать: параметр фильтра
+    *           указан несколько раз).
+    * */
+    String getKey(HttpServletRequest request) {
+        String path = urlPathHelper.getPathWithinApplication(request);
+        if (ROOT.equals(path))
+            return ROOT;
+
+        StringBuilder key = new StringBuilder(GOODS_BY_FILTER);
+        for (int i = 0; i < FILTER_PARAMS.length; i++) {
+            String[] values = request.getParameterValues(FILTER_PARAMS[i]);
+            if (values == null)
+                values = request.getParameterValues(WebDataBinder.DEFAULT_FIELD_DEFAULT_PREFIX + FILTER_PARAMS[i]);
+            if (values != null && values.length > 1)
+                return null;
+            key.append(i == 0 ? '?' : '&')
+                    .append(FILTER_PARAMS[i]).append('=')
+                    .append(normalize(values == null ? FILTER_DEFAULTS[i] : values[0], FILTER_TYPES[i]));
+        }
+        return key.toString();
+    }
+
+    /*Метод normalize приводит значение параметра к значению поля фильтра.
+    * Значение, которое не преобразуется к типу поля (страница с описанием ошибки),
+    * остается как есть (с признаком "!").
+    * */
+    private static String normalize(String value, Class<?> type) {
+        if (type == String.class)
+            return encode(value);
+        try {
+            Object field = conversionService.convert(value, type);
+            if (field != null)
+                return String.valueOf(field);
+        } catch (RuntimeException e) {
+            //значение не преобразуется к типу поля
+        }
+        return "!" + encode(value);
+    }
+
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    //можно ли кешировать сформированную страницу
+    private boolean isCacheable(HttpServletRequest request, HttpServletResponse response) {
+        String contentType = response.getContentType();
+        return response.getStatus() == HttpServletResponse.SC_OK
+                && contentType != null && contentType.startsWith("text/html")
+                && request.getAttribute(WebUtils.ERROR_EXCEPTION_ATTRIBUTE) == null
+                && !isAsyncStarted(request);
+    }
+}
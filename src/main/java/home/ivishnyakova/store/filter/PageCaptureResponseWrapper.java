@@ -0,0 +1,138 @@
+package home.ivishnyakova.store.filter;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/*Класс PageCaptureResponseWrapper - ответ сервера, тело которого копируется фильтром PageCacheFilter.
+*
+* Тело ответа передается клиенту по мере записи и одновременно копируется в буфер
+* (не больше maxBytes байт; если тело больше, копия отбрасывается и страница не кешируется).
+*
+* Автор: Вишнякова И.
+* */
+class PageCaptureResponseWrapper extends HttpServletResponseWrapper {
+
+    private final int maxBytes;                 //макс. размер копии тела, байт
+
+    private ByteArrayOutputStream copy = new ByteArrayOutputStream();   //копия тела (null - тело слишком большое)
+    private CaptureOutputStream stream;         //поток тела ответа (null - тело не записывалось)
+    private PrintWriter writer;                 //символьный поток тела (null - не запрашивался)
+
+    PageCaptureResponseWrapper(HttpServletResponse response, int maxBytes) {
+        super(response);
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null)
+            throw new IllegalStateException("getWriter() has already been called for this response");
+        return getStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (stream != null)
+                throw new IllegalStateException("getOutputStream() has already been called for this response");
+            writer = new PrintWriter(new OutputStreamWriter(getStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        flushWriter();
+        super.flushBuffer();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        resetCopy();
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        resetCopy();
+    }
+
+    //передача в ответ символов, оставшихся в буфере символьного потока
+    void flushWriter() {
+        if (writer != null)
+            writer.flush();
+    }
+
+    /*Метод getContent возвращает копию тела ответа.
+    * @return   тело ответа (null - тело больше maxBytes байт).
+    * */
+    byte[] getContent() {
+        flushWriter();
+        return copy == null ? null : copy.toByteArray();
+    }
+
+    //тело ответа, не переданное клиенту, отбрасывается - копия тоже
+    private void resetCopy() {
+        if (!isCommitted() && copy != null)
+            copy.reset();
+    }
+
+    private CaptureOutputStream getStream() throws IOException {
+        if (stream == null)
+            stream = new CaptureOutputStream(getResponse().getOutputStream());
+        return stream;
+    }
+
+    /*Класс CaptureOutputStream - поток тела ответа, копирующий записанные байты.*/
+    private class CaptureOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream out;     //поток ответа сервера
+
+        CaptureOutputStream(ServletOutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+            if (copy != null) {
+                if (copy.size() + length > maxBytes)
+                    copy = null;
+                else
+                    copy.write(bytes, offset, length);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return out.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            out.setWriteListener(writeListener);
+        }
+    }
+}
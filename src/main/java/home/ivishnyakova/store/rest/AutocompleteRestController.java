@@ -0,0 +1,58 @@
+package home.ivishnyakova.store.rest;
+
+import home.ivishnyakova.store.catalog.AutocompleteEngine;
+import home.ivishnyakova.store.catalog.AutocompleteIndex;
+import home.ivishnyakova.store.exceptions.RestException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import javax.annotation.Resource;
+import java.util.List;
+import java.util.Properties;
+
+/*Класс AutocompleteRestController предназначен для получения подсказок
+* наименований товаров и производителей при вводе текста поиска.
+* Подсказки выбираются из префиксного индекса в памяти (без обращения к БД).
+* Ресурс представляется в форматах xml, json.
+*
+*   Автор: Вишнякова И.
+* */
+@RestController
+@RequestMapping(value = "/autocomplete",
+        produces = {MediaType.APPLICATION_JSON_UTF8_VALUE, MediaType.APPLICATION_XML_VALUE},
+        headers={"Accept=" + MediaType.APPLICATION_JSON_UTF8_VALUE, "Accept=" + MediaType.APPLICATION_XML_VALUE })
+public class AutocompleteRestController {
+
+    //макс. кол-во подсказок
+    private static final int MAX_LIMIT = 50;
+
+    //кол-во подсказок по умолчанию
+    private static final String DEFAULT_LIMIT = "10";
+
+    //для подсказок наименований
+    @Autowired
+    private AutocompleteEngine autocompleteEngine;
+
+    //сообщения - ответы сервера
+    @Resource(name="messages")
+    private Properties messages;
+
+    //для проверки заголовка запроса
+    @Autowired
+    private HeaderChecker headerChecker;
+
+    //подсказки для введенного текста: ?prefix=<текст>&limit=N (от 1 до MAX_LIMIT)
+    @RequestMapping(method = RequestMethod.GET)
+    @ResponseStatus(HttpStatus.OK)
+    public List<AutocompleteIndex.Completion> complete(@RequestParam(value = "prefix") String prefix,
+                                                       @RequestParam(value = "limit", defaultValue = DEFAULT_LIMIT) int limit,
+                                                       @RequestHeader HttpHeaders headers) {
+        headerChecker.checkAcceptHeader(headers);
+        if (limit <= 0 || limit > MAX_LIMIT)
+            throw new RestException(HttpStatus.BAD_REQUEST, messages.getProperty("NOT_CORRECT_AUTOCOMPLETE"));
+        return autocompleteEngine.complete(prefix, limit);
+    }
+}
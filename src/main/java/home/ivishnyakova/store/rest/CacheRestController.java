@@ -0,0 +1,74 @@
+package home.ivishnyakova.store.rest;
+
+import home.ivishnyakova.store.cache.CacheStatistics;
+import home.ivishnyakova.store.cache.GoodsListCache;
+import home.ivishnyakova.store.cache.LruCache;
+import home.ivishnyakova.store.cache.PageCache;
+import home.ivishnyakova.store.config.db.PooledDataSource;
+import home.ivishnyakova.store.dao.GoodsFilterKey;
+import home.ivishnyakova.store.entity.Goods;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import javax.annotation.Resource;
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*Класс CacheRestController предназначен для получения статистики кешей приложения
+* (попадания, промахи, доля попаданий, вытеснения) - для подбора размеров кешей.
+* Ресурс представляется в форматах xml, json.
+*
+*   Автор: Вишнякова И.
+* */
+@RestController
+@RequestMapping(value = "/cache",
+        produces = {MediaType.APPLICATION_JSON_UTF8_VALUE, MediaType.APPLICATION_XML_VALUE},
+        headers={"Accept=" + MediaType.APPLICATION_JSON_UTF8_VALUE, "Accept=" + MediaType.APPLICATION_XML_VALUE })
+public class CacheRestController {
+
+    //относ. uri ресурсов
+    private static final String STATISTICS = "/statistics";
+
+    //кеш товаров по id
+    @Resource(name="goodsCache")
+    private LruCache<Integer, Goods> goodsCache;
+
+    //кеш списков товаров по условиям фильтра
+    @Resource(name="goodsFilterCache")
+    private GoodsListCache<GoodsFilterKey> goodsFilterCache;
+
+    //кеш страниц витрины
+    @Resource(name="pageCache")
+    private PageCache pageCache;
+
+    //источник соединений (кеши подготовленных запросов)
+    @Autowired
+    private DataSource dataSource;
+
+    //для проверки заголовка запроса
+    @Autowired
+    private HeaderChecker headerChecker;
+
+    //статистика кешей по названию кеша
+    @RequestMapping(value = STATISTICS, method = RequestMethod.GET)
+    @ResponseStatus(HttpStatus.OK)
+    public Map<String, CacheStatistics> getStatistics(@RequestHeader HttpHeaders headers) throws SQLException {
+        headerChecker.checkAcceptHeader(headers);
+
+        Map<String, CacheStatistics> statistics = new LinkedHashMap<>();
+        statistics.put("goods", goodsCache.getStatistics());
+        statistics.put("goodsFilter", goodsFilterCache.getStatistics());
+        statistics.put("pages", pageCache.getStatistics());
+        if (dataSource.isWrapperFor(PooledDataSource.class)) {
+            CacheStatistics statementStatistics = dataSource.unwrap(PooledDataSource.class).getStatementCacheStatistics();
+            if (statementStatistics != null)
+                statistics.put("statements", statementStatistics);
+        }
+        return statistics;
+    }
+}
@@ -1,5 +1,6 @@
 package home.ivishnyakova.store.rest;
 
+import home.ivishnyakova.store.catalog.CatalogVersions;
 import home.ivishnyakova.store.dao.CategoryDao;
 import home.ivishnyakova.store.entity.Category;
 import home.ivishnyakova.store.exceptions.RestException;
@@ -10,6 +11,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.annotation.Resource;
@@ -19,14 +21,16 @@ import java.util.Properties;
 
 /*Класс CategoryRestController предназначен для получения доступа к состоянию
 * ресурсов - категории товаров.
-* Ресурс представляется в форматах xml, json.
+* Ресурс представляется в форматах xml, json, cbor.
 *
 *   Автор: Вишнякова И.
 * */
 @RestController
 @RequestMapping(value = "/categories",
-        produces = {MediaType.APPLICATION_JSON_UTF8_VALUE, MediaType.APPLICATION_XML_VALUE},
-        headers={"content-type=" + MediaType.APPLICATION_JSON_UTF8_VALUE, "content-type=" + MediaType.APPLICATION_XML_VALUE })
+        produces = {MediaType.APPLICATION_JSON_UTF8_VALUE, MediaType.APPLICATION_XML_VALUE,
+                CborHttpMessageConverter.APPLICATION_CBOR_VALUE},
+        headers={"content-type=" + MediaType.APPLICATION_JSON_UTF8_VALUE, "content-type=" + MediaType.APPLICATION_XML_VALUE,
+                "content-type=" + CborHttpMessageConverter.APPLICATION_CBOR_VALUE })
 public class CategoryRestController{
 
     //для доступа к данным в БД
@@ -41,6 +45,10 @@ public class CategoryRestController{
     @Autowired
     private HeaderChecker headerChecker;
 
+    //для условных запросов (ETag, Last-Modified)
+    @Autowired
+    private ConditionalRequestHandler conditionalRequestHandler;
+
     //относ. uri ресурсов
     private static final String CATEGORIES = "";
     private static final String CATEGORIES_ID = "/{id}";
@@ -49,40 +57,43 @@ public class CategoryRestController{
 
     //все категории
     @RequestMapping(value = CATEGORIES, method = RequestMethod.GET)
-    @ResponseStatus(HttpStatus.OK)
-    public List<Category> getCategories(@RequestHeader HttpHeaders headers){
+    public ResponseEntity<List<Category>> getCategories(@RequestHeader HttpHeaders headers){
         headerChecker.checkRequestHeaders(headers);
 
-        List<Category> resList = categoryDao.getCategoryList();
+        return conditionalRequestHandler.get(headers, CatalogVersions.Resource.CATEGORIES, () -> {
+            List<Category> resList = categoryDao.getCategoryList();
 
-        if (resList.isEmpty()){
-            throw new RestException(HttpStatus.NOT_FOUND, messages.getProperty("NO_CATEGORIES"));
-        }
-        return resList;
+            if (resList.isEmpty()){
+                throw new RestException(HttpStatus.NOT_FOUND, messages.getProperty("NO_CATEGORIES"));
+            }
+            return resList;
+        });
     }
 
     //категория по id
     @RequestMapping(value = CATEGORIES_ID, method = RequestMethod.GET)
-    @ResponseStatus(HttpStatus.OK)
-    public Category getCategory(@PathVariable("id") int id, @RequestHeader HttpHeaders headers){
+    public ResponseEntity<Category> getCategory(@PathVariable("id") int id, @RequestHeader HttpHeaders headers){
         headerChecker.checkRequestHeaders(headers);
-        try {
-            return categoryDao.getCategoryById(id);
-        }catch (StoreException e) {
-            throw new RestException(HttpStatus.NOT_FOUND, messages.getProperty("NO_CATEGORY"));
-        }
+        return conditionalRequestHandler.get(headers, CatalogVersions.Resource.CATEGORIES, () -> {
+            try {
+                return categoryDao.getCategoryById(id);
+            }catch (StoreException e) {
+                throw new RestException(HttpStatus.NOT_FOUND, messages.getProperty("NO_CATEGORY"));
+            }
+        });
     }
 
     //подкатегории категории заданной по id
     @RequestMapping(value = CATEGORIES_ID_SUBCATEGORIES, method = RequestMethod.GET)
-    @ResponseStatus(HttpStatus.OK)
-    public List<Category> getSubCategoriesById (@PathVariable("id") int id, @RequestHeader HttpHeaders headers){
+    public ResponseEntity<List<Category>> getSubCategoriesById (@PathVariable("id") int id, @RequestHeader HttpHeaders headers){
         headerChecker.checkRequestHeaders(headers);
-        List<Category> resList = categoryDao.getCategoryListById(id, CategoryLevel.SUB_CATEGORY.getLevel());
-        if (resList.isEmpty()){
-            throw new RestException(HttpStatus.NOT_FOUND, messages.getProperty("NO_SUBCATEGORIES"));
-        }
-        return resList;
+        return conditionalRequestHandler.get(headers, CatalogVersions.Resource.CATEGORIES, () -> {
+            List<Category> resList = categoryDao.getCategoryListById(id, CategoryLevel.SUB_CATEGORY.getLevel());
+            if (resList.isEmpty()){
+                throw new RestException(HttpStatus.NOT_FOUND, messages.getProperty("NO_SUBCATEGORIES"));
+            }
+            return resList;
+        });
     }
 
     //создание категории
@@ -0,0 +1,30 @@
+package home.ivishnyakova.store.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/*Класс CborHttpMessageConverter предназначен для чтения и записи ресурсов
+* в двоичном формате CBOR (RFC 7049, тип содержимого application/cbor).
+* CBOR - двоичное представление той же модели данных, что и json:
+* ресурсы сериализуются так же, как в json, но без разбора текста,
+* поэтому большие списки товаров читаются и записываются быстрее и занимают меньше места.
+* Настройки ObjectMapper - такие же, как у конвертера json по умолчанию.
+*
+* Автор: Вишнякова И.
+* */
+public class CborHttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+
+    //тип содержимого CBOR
+    public static final String APPLICATION_CBOR_VALUE = "application/cbor";
+    public static final MediaType APPLICATION_CBOR = MediaType.valueOf(APPLICATION_CBOR_VALUE);
+
+    public CborHttpMessageConverter() {
+        super(new ObjectMapper(new CBORFactory()), APPLICATION_CBOR);
+        Jackson2ObjectMapperBuilder.json().configure(getObjectMapper());
+        //двоичный формат - без параметра charset в Content-Type
+        setDefaultCharset(null);
+    }
+}
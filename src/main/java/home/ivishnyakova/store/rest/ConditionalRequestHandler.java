@@ -0,0 +1,98 @@
+package home.ivishnyakova.store.rest;
+
+import home.ivishnyakova.store.catalog.CatalogVersions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/*Класс ConditionalRequestHandler предназначен для обработки условных GET-запросов
+* к ресурсам каталога (заголовки If-None-Match, If-Modified-Since).
+*
+* ETag и Last-Modified ответа определяются версией ресурса (CatalogVersions), а не телом ответа,
+* поэтому если версия ресурса не изменилась, ответ 304 Not Modified формируется
+* без обращения к БД и без сериализации ресурса.
+* Автор: Вишнякова И.
+* */
+@Component
+public class ConditionalRequestHandler {
+
+    //форматы представления ресурсов (часть ETag)
+    private static final String JSON = "json";
+    private static final String XML = "xml";
+    private static final String CBOR = "cbor";
+
+    //версии ресурсов каталога
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    /*Метод get выполняет условный GET-запрос ресурса resource.
+    * Версия ресурса берется до загрузки ресурса: если ресурс изменится во время загрузки,
+    * то ETag ответа устареет и при следующем запросе ресурс будет загружен заново.
+    * @param    headers - заголовки запроса.
+    * @param    resource - ресурс каталога, от которого зависит ответ.
+    * @param    loader - загрузка ресурса (вызывается, только если у клиента нет текущей версии).
+    * @return   304 Not Modified без тела, если у клиента текущая версия ресурса, иначе -
+    *           200 OK с ресурсом; в обоих случаях - с заголовками ETag, Last-Modified.
+    * */
+    public <T> ResponseEntity<T> get(HttpHeaders headers, CatalogVersions.Resource resource, Supplier<T> loader) {
+        CatalogVersions.Version version = catalogVersions.getVersion(resource);
+        String eTag = catalogVersions.getETag(resource, version, getFormat(headers));
+
+        if (isNotModified(headers, eTag, version.getLastModified()))
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .lastModified(version.getLastModified())
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                    .body(null);
+
+        T body = loader.get();
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .lastModified(version.getLastModified())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .body(body);
+    }
+
+    //есть ли у клиента текущая версия ресурса (If-Modified-Since проверяется, только если нет If-None-Match)
+    private boolean isNotModified(HttpHeaders headers, String eTag, long lastModified) {
+        List<String> ifNoneMatch = headers.getIfNoneMatch();
+        if (!ifNoneMatch.isEmpty()) {
+            for (String tag : ifNoneMatch) {
+                tag = tag.trim();
+                if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(eTag))
+                    return true;
+            }
+            return false;
+        }
+
+        try {
+            long ifModifiedSince = headers.getIfModifiedSince();
+            return ifModifiedSince >= 0 && lastModified <= ifModifiedSince;
+        } catch (IllegalArgumentException e) {
+            //неверный формат даты - заголовок не учитывается
+            return false;
+        }
+    }
+
+    //формат ответа по заголовку Accept (так же, как его выбирает Spring: json, xml, затем cbor)
+    private String getFormat(HttpHeaders headers) {
+        List<MediaType> accept = new ArrayList<>(headers.getAccept());
+        MediaType.sortBySpecificityAndQuality(accept);
+        for (MediaType mediaType : accept) {
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON_UTF8))
+                return JSON;
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_XML))
+                return XML;
+            if (mediaType.isCompatibleWith(CborHttpMessageConverter.APPLICATION_CBOR))
+                return CBOR;
+        }
+        return JSON;
+    }
+}
@@ -0,0 +1,174 @@
+package home.ivishnyakova.store.rest;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import home.ivishnyakova.store.dao.CategoryDao;
+import home.ivishnyakova.store.dao.GoodsDao;
+import home.ivishnyakova.store.dao.ProducerDao;
+import home.ivishnyakova.store.entity.Category;
+import home.ivishnyakova.store.entity.Goods;
+import home.ivishnyakova.store.entity.Producer;
+import home.ivishnyakova.store.utils.LoggerUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/*Класс ExportRestController предназначен для полной выгрузки ресурсов
+* (товары, категории, производители) в форматах json, xml.
+*
+* Записи читаются из БД курсором и сразу записываются в ответ потоковым генератором
+* (JsonGenerator для json, StAX XMLStreamWriter для xml), поэтому расход памяти
+* не зависит от кол-ва записей в таблице.
+* Формат ответа определяется заголовком Accept (первый из поддерживаемых форматов).
+* Соединение с БД занято до окончания выгрузки; пул не закрывает его как брошенное, пока клиент
+* получает очередную порцию записей (export.fetchSize) быстрее, чем за pool.removeAbandonedTimeout.
+*
+*   Автор: Вишнякова И.
+* */
+@RestController
+@RequestMapping(value = "/export",
+        produces = {MediaType.APPLICATION_JSON_UTF8_VALUE, MediaType.APPLICATION_XML_VALUE},
+        headers={"Accept=" + MediaType.APPLICATION_JSON_UTF8_VALUE, "Accept=" + MediaType.APPLICATION_XML_VALUE })
+public class ExportRestController {
+
+    //для логирования
+    private static final Logger logger = LogManager.getLogger(LoggerUtil.getClassName());
+
+    //относ. uri ресурсов
+    private static final String GOODS = "/goods";
+    private static final String CATEGORIES = "/categories";
+    private static final String PRODUCERS = "/producers";
+
+    //для доступа к данным в БД
+    @Autowired
+    private GoodsDao goodsDao;
+
+    @Autowired
+    private CategoryDao categoryDao;
+
+    @Autowired
+    private ProducerDao producerDao;
+
+    //для проверки заголовка запроса
+    @Autowired
+    private HeaderChecker headerChecker;
+
+    //преобразование записей в json/xml (с настройками, как у конвертеров Spring MVC);
+    //ответ не сбрасывается в сеть после каждой записи
+    private final ObjectWriter jsonWriter = Jackson2ObjectMapperBuilder.json().build()
+            .writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    private final XmlMapper xmlMapper = Jackson2ObjectMapperBuilder.xml().build();
+    private final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newFactory();
+
+    //все товары
+    @RequestMapping(value = GOODS, method = RequestMethod.GET)
+    public void exportGoods(@RequestHeader HttpHeaders headers, HttpServletResponse response) throws IOException {
+        this.<Goods>export(headers, response, "goods", goodsDao::exportGoods);
+    }
+
+    //все категории
+    @RequestMapping(value = CATEGORIES, method = RequestMethod.GET)
+    public void exportCategories(@RequestHeader HttpHeaders headers, HttpServletResponse response) throws IOException {
+        this.<Category>export(headers, response, "categories", categoryDao::exportCategories);
+    }
+
+    //все производители
+    @RequestMapping(value = PRODUCERS, method = RequestMethod.GET)
+    public void exportProducers(@RequestHeader HttpHeaders headers, HttpServletResponse response) throws IOException {
+        this.<Producer>export(headers, response, "producers", producerDao::exportProducers);
+    }
+
+    /*Метод export записывает в ответ response все записи источника source
+    * в формате, указанном в заголовке Accept.
+    * @param    root - название корневого элемента xml.
+    * @param    source - источник записей (метод экспорта DAO).
+    * */
+    private <T> void export(HttpHeaders headers, HttpServletResponse response, String root,
+                            Consumer<Consumer<T>> source) throws IOException {
+        headerChecker.checkAcceptHeader(headers);
+
+        boolean isXml = isXmlPreferred(headers);
+        response.setContentType(isXml ? MediaType.APPLICATION_XML_VALUE : MediaType.APPLICATION_JSON_UTF8_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        OutputStream out = response.getOutputStream();
+        try {
+            if (isXml)
+                writeXml(out, root, source);
+            else
+                writeJson(out, source);
+        } catch (UncheckedIOException e) {
+            //клиент прервал загрузку
+            logger.warn("The export of " + root + " was interrupted", e);
+            throw e.getCause();
+        }
+    }
+
+    //json: массив записей
+    private <T> void writeJson(OutputStream out, Consumer<Consumer<T>> source) throws IOException {
+        try (JsonGenerator generator = jsonWriter.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            source.accept(item -> {
+                try {
+                    jsonWriter.writeValue(generator, item);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+        }
+    }
+
+    //xml: корневой элемент root, содержащий элементы записей
+    private <T> void writeXml(OutputStream out, String root, Consumer<Consumer<T>> source) throws IOException {
+        try {
+            XMLStreamWriter writer = xmlOutputFactory.createXMLStreamWriter(out, StandardCharsets.UTF_8.name());
+            writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            writer.writeStartElement(root);
+            source.accept(item -> {
+                try {
+                    xmlMapper.writeValue(writer, item);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+        out.flush();
+    }
+
+    //формат xml указан в заголовке Accept раньше формата json
+    private static boolean isXmlPreferred(HttpHeaders headers) {
+        for (MediaType mediaType : headers.getAccept()) {
+            if (mediaType.includes(MediaType.APPLICATION_XML))
+                return true;
+            if (mediaType.includes(MediaType.APPLICATION_JSON))
+                return false;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,70 @@
+package home.ivishnyakova.store.rest;
+
+import home.ivishnyakova.store.dao.GoodsImportDao;
+import home.ivishnyakova.store.dao.ImportResult;
+import home.ivishnyakova.store.exceptions.RestException;
+import home.ivishnyakova.store.exceptions.StoreException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import javax.annotation.Resource;
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.Properties;
+
+/*Класс GoodsImportRestController предназначен для импорта каталога товаров из CSV-файла
+* (формат записи: name,price,description,in_storage,id_category,id_producer).
+* Файл передается в теле запроса (text/csv) и читается потоком, без загрузки в память.
+* Результат импорта представляется в форматах xml, json.
+*
+*   Автор: Вишнякова И.
+* */
+@RestController
+@RequestMapping(value = "/goods/import",
+        consumes = {GoodsImportRestController.TEXT_CSV_VALUE},
+        produces = {MediaType.APPLICATION_JSON_UTF8_VALUE, MediaType.APPLICATION_XML_VALUE},
+        headers={"Accept=" + MediaType.APPLICATION_JSON_UTF8_VALUE, "Accept=" + MediaType.APPLICATION_XML_VALUE })
+public class GoodsImportRestController {
+
+    //тип данных CSV-файла
+    static final String TEXT_CSV_VALUE = "text/csv";
+    private static final MediaType TEXT_CSV = MediaType.valueOf(TEXT_CSV_VALUE);
+
+    //для импорта товаров в БД
+    @Autowired
+    private GoodsImportDao goodsImportDao;
+
+    //сообщения - ответы сервера
+    @Resource(name="messages")
+    private Properties messages;
+
+    //для проверки заголовка запроса
+    @Autowired
+    private HeaderChecker headerChecker;
+
+    //импорт товаров: новые товары добавляются, существующие (по наименованию) - обновляются
+    @RequestMapping(method = RequestMethod.POST)
+    @ResponseStatus(HttpStatus.OK)
+    public ImportResult importGoods(@RequestHeader HttpHeaders headers, HttpServletRequest request) throws IOException {
+        if (!Optional.ofNullable(headers.getContentType()).filter(TEXT_CSV::includes).isPresent())
+            throw new RestException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, messages.getProperty("NOT_SUPPORTED_CSV_MEDIATYPE_REQUEST"));
+        headerChecker.checkAcceptHeader(headers);
+
+        //кодировка файла - из заголовка Content-Type, по умолчанию - UTF-8
+        Charset charset = Optional.ofNullable(headers.getContentType().getCharset()).orElse(StandardCharsets.UTF_8);
+
+        try (Reader csv = new InputStreamReader(request.getInputStream(), charset)) {
+            return goodsImportDao.importGoods(csv);
+        } catch (StoreException e) {
+            throw new RestException(HttpStatus.BAD_REQUEST, messages.getProperty("NOT_IMPORTED_PRODUCTS"));
+        }
+    }
+}
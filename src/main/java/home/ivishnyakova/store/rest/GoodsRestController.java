@@ -1,7 +1,13 @@
 package home.ivishnyakova.store.rest;
 
+import home.ivishnyakova.store.catalog.CatalogEngine;
+import home.ivishnyakova.store.catalog.CatalogFacets;
+import home.ivishnyakova.store.catalog.CatalogVersions;
 import home.ivishnyakova.store.dao.GoodsDao;
+import home.ivishnyakova.store.dao.GoodsOrder;
+import home.ivishnyakova.store.dao.GoodsPage;
 import home.ivishnyakova.store.entity.Goods;
+import home.ivishnyakova.store.entity.GoodsSummary;
 import home.ivishnyakova.store.exceptions.RestException;
 import home.ivishnyakova.store.exceptions.StoreException;
 import home.ivishnyakova.store.exceptions.ValidationException;
@@ -9,6 +15,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.annotation.Resource;
@@ -18,15 +25,18 @@ import java.util.Properties;
 
 /*Класс GoodsRestController предназначен для получения доступа к состоянию
 * ресурсов - товары.
-* Ресурс представляется в форматах xml, json.
+* Ресурс представляется в форматах xml, json, cbor.
 *
 *   Автор: Вишнякова И.
 * */
 @RestController
 @RequestMapping(value = "/goods",
-        consumes = {MediaType.APPLICATION_JSON_UTF8_VALUE, MediaType.APPLICATION_XML_VALUE},
-        produces = {MediaType.APPLICATION_JSON_UTF8_VALUE, MediaType.APPLICATION_XML_VALUE},
-        headers={"Accept=" + MediaType.APPLICATION_JSON_UTF8_VALUE, "Accept=" + MediaType.APPLICATION_XML_VALUE })
+        consumes = {MediaType.APPLICATION_JSON_UTF8_VALUE, MediaType.APPLICATION_XML_VALUE,
+                CborHttpMessageConverter.APPLICATION_CBOR_VALUE},
+        produces = {MediaType.APPLICATION_JSON_UTF8_VALUE, MediaType.APPLICATION_XML_VALUE,
+                CborHttpMessageConverter.APPLICATION_CBOR_VALUE},
+        headers={"Accept=" + MediaType.APPLICATION_JSON_UTF8_VALUE, "Accept=" + MediaType.APPLICATION_XML_VALUE,
+                "Accept=" + CborHttpMessageConverter.APPLICATION_CBOR_VALUE })
 public class GoodsRestController{
 
     //для доступа к данным в БД
@@ -41,34 +51,126 @@ public class GoodsRestController{
     @Autowired
     private HeaderChecker headerChecker;
 
+    //для фильтрации товаров в памяти
+    @Autowired
+    private CatalogEngine catalogEngine;
+
+    //для условных запросов (ETag, Last-Modified)
+    @Autowired
+    private ConditionalRequestHandler conditionalRequestHandler;
+
     //относ. uri ресурсов
     private static final String GOODS = "";
     private static final String GOODS_ID = "/{id}";
     private static final String NEW_GOODS = "/goods";
+    private static final String GOODS_PAGE = "/page";
+    private static final String GOODS_SUMMARIES = "/summaries";
+    private static final String GOODS_FACETS = "/facets";
+    private static final String GOODS_SEARCH = "/search";
+
+    //кол-во товаров на странице по умолчанию
+    private static final String DEFAULT_PAGE_SIZE = "50";
 
     //все товары
     @RequestMapping(value = GOODS, method = RequestMethod.GET)
-    @ResponseStatus(HttpStatus.OK)
-    public List<Goods> getGoods(@RequestHeader HttpHeaders headers){
+    public ResponseEntity<List<Goods>> getGoods(@RequestHeader HttpHeaders headers){
         headerChecker.checkRequestHeaders(headers);
-        List<Goods> resList = goodsDao.getGoodsList();
-        if (resList.isEmpty()){
-            throw new RestException(HttpStatus.NOT_FOUND, messages.getProperty("NO_PRODUCTS"));
-        }
-        return resList;
+        return conditionalRequestHandler.get(headers, CatalogVersions.Resource.GOODS, () -> {
+            List<Goods> resList = goodsDao.getGoodsList();
+            if (resList.isEmpty()){
+                throw new RestException(HttpStatus.NOT_FOUND, messages.getProperty("NO_PRODUCTS"));
+            }
+            return resList;
+        });
+    }
+
+    //все товары без полного описания (с сортировкой по наименованию); полное описание - товар по id
+    @RequestMapping(value = GOODS_SUMMARIES, method = RequestMethod.GET)
+    public ResponseEntity<List<GoodsSummary>> getGoodsSummaries(@RequestHeader HttpHeaders headers){
+        headerChecker.checkRequestHeaders(headers);
+        return conditionalRequestHandler.get(headers, CatalogVersions.Resource.GOODS, () -> {
+            List<GoodsSummary> resList = goodsDao.getGoodsSummaryList(true);
+            if (resList.isEmpty()){
+                throw new RestException(HttpStatus.NOT_FOUND, messages.getProperty("NO_PRODUCTS"));
+            }
+            return resList;
+        });
+    }
+
+    //страница товаров: ?order=ID_DESC|NAME_ASC&limit=N&after=<ключ следующей страницы из предыдущего ответа>
+    @RequestMapping(value = GOODS_PAGE, method = RequestMethod.GET)
+    public ResponseEntity<GoodsPage> getGoodsPage(@RequestParam(value = "order", defaultValue = "ID_DESC") GoodsOrder order,
+                                  @RequestParam(value = "after", required = false) String after,
+                                  @RequestParam(value = "limit", defaultValue = DEFAULT_PAGE_SIZE) int limit,
+                                  @RequestHeader HttpHeaders headers){
+        headerChecker.checkRequestHeaders(headers);
+        return conditionalRequestHandler.get(headers, CatalogVersions.Resource.GOODS, () -> {
+            try {
+                return goodsDao.getGoodsPage(order, after, limit);
+            }
+            catch (IllegalArgumentException e){
+                throw new RestException(HttpStatus.BAD_REQUEST, messages.getProperty("NOT_CORRECT_PAGE_PRODUCTS"));
+            }
+        });
+    }
+
+    //счетчики товаров для фильтра: ?minPrice=&maxPrice=&category=<код>&producer=<код>&inStorage=true|false
+    //(параметры category, producer могут повторяться - несколько категорий/производителей)
+    @RequestMapping(value = GOODS_FACETS, method = RequestMethod.GET)
+    public ResponseEntity<CatalogFacets> getGoodsFacets(@RequestParam(value = "minPrice", defaultValue = "0") float minPrice,
+                                        @RequestParam(value = "maxPrice", defaultValue = "0") float maxPrice,
+                                        @RequestParam(value = "category", required = false) int[] categories,
+                                        @RequestParam(value = "producer", required = false) int[] producers,
+                                        @RequestParam(value = "inStorage", defaultValue = "true") boolean inStorage,
+                                        @RequestHeader HttpHeaders headers){
+        headerChecker.checkRequestHeaders(headers);
+        return conditionalRequestHandler.get(headers, CatalogVersions.Resource.GOODS, () -> {
+            try {
+                return catalogEngine.getFacets(minPrice, maxPrice,
+                        Optional.ofNullable(categories).orElse(new int[0]),
+                        Optional.ofNullable(producers).orElse(new int[0]), inStorage);
+            }
+            catch (StoreException e){
+                throw new RestException(HttpStatus.INTERNAL_SERVER_ERROR, messages.getProperty("NO_PRODUCTS"));
+            }
+        });
+    }
+
+    //поиск товаров по тексту: ?text=&minPrice=&maxPrice=&category=&producer=&inStorage=&offset=0&limit=N
+    //(по убыванию релевантности, условия фильтра - как у фильтра товаров)
+    @RequestMapping(value = GOODS_SEARCH, method = RequestMethod.GET)
+    public ResponseEntity<List<GoodsSummary>> searchGoods(@RequestParam(value = "text") String text,
+                                          @RequestParam(value = "minPrice", defaultValue = "0") float minPrice,
+                                          @RequestParam(value = "maxPrice", defaultValue = "0") float maxPrice,
+                                          @RequestParam(value = "category", defaultValue = "0") int category,
+                                          @RequestParam(value = "producer", defaultValue = "0") int producer,
+                                          @RequestParam(value = "inStorage", defaultValue = "true") boolean inStorage,
+                                          @RequestParam(value = "offset", defaultValue = "0") int offset,
+                                          @RequestParam(value = "limit", defaultValue = DEFAULT_PAGE_SIZE) int limit,
+                                          @RequestHeader HttpHeaders headers){
+        headerChecker.checkRequestHeaders(headers);
+        return conditionalRequestHandler.get(headers, CatalogVersions.Resource.GOODS, () -> {
+            try {
+                return goodsDao.searchGoods(text, minPrice, maxPrice, category, producer, inStorage, offset, limit);
+            }
+            catch (IllegalArgumentException e){
+                throw new RestException(HttpStatus.BAD_REQUEST, messages.getProperty("NOT_CORRECT_SEARCH_PRODUCTS"));
+            }
+        });
     }
 
     //товар по id
     @RequestMapping(value = GOODS_ID, method = RequestMethod.GET)
-    @ResponseStatus(HttpStatus.OK)
-    public Goods getGoods(@PathVariable("id") int id, @RequestHeader HttpHeaders headers){
+    public ResponseEntity<Goods> getGoods(@PathVariable("id") int id, @RequestHeader HttpHeaders headers){
         headerChecker.checkRequestHeaders(headers);
-        try {
-            return goodsDao.getGoodsById(id);
-        }
-        catch (StoreException e){
-            throw new RestException(HttpStatus.NOT_FOUND, messages.getProperty("NO_PRODUCT"));
-        }
+        return conditionalRequestHandler.get(headers, CatalogVersions.Resource.GOODS, () -> {
+            try {
+                return goodsDao.getGoodsById(id);
+            }
+            catch (StoreException e){
+                throw new RestException(HttpStatus.NOT_FOUND, messages.getProperty("NO_PRODUCT"));
+            }
+        });
     }
 
     //создание товара
@@ -27,16 +27,25 @@ public class HeaderChecker {
     }
 
     /*Метод checkRequestHeaders проверяет заголовок запроса headers.
-    * Если заголовке запросов указаны Content-Type, Accept в форматах json/xml,
+    * Если заголовке запросов указаны Content-Type, Accept в форматах json/xml/cbor,
     * то запрос будет обрабатываться сервером, иначе генерируется исключение RestException.*/
     public void checkRequestHeaders(HttpHeaders headers){
 
         if (!(headers.getContentType().includes(MediaType.APPLICATION_JSON_UTF8) ||
-                headers.getContentType().includes(MediaType.APPLICATION_XML)))
+                headers.getContentType().includes(MediaType.APPLICATION_XML) ||
+                headers.getContentType().includes(CborHttpMessageConverter.APPLICATION_CBOR)))
             throw new RestException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, messages.getProperty("NOT_SUPPORTED_CONTENT_MEDIATYPE_REQUEST"));
 
+        checkAcceptHeader(headers);
+    }
+
+    /*Метод checkAcceptHeader проверяет заголовок Accept запроса headers.
+    * Если в заголовке указаны форматы json/xml/cbor, то ответ может быть сформирован сервером,
+    * иначе генерируется исключение RestException.*/
+    public void checkAcceptHeader(HttpHeaders headers){
         if (!(headers.getAccept().contains(MediaType.APPLICATION_JSON_UTF8) ||
-                headers.getAccept().contains(MediaType.APPLICATION_XML)))
+                headers.getAccept().contains(MediaType.APPLICATION_XML) ||
+                headers.getAccept().contains(CborHttpMessageConverter.APPLICATION_CBOR)))
             throw new RestException(HttpStatus.NOT_ACCEPTABLE, messages.getProperty("NOT_SUPPORTED_ACCEPT_MEDIATYPE_REQUEST"));
     }
 
@@ -1,5 +1,6 @@
 package home.ivishnyakova.store.rest;
 
+import home.ivishnyakova.store.catalog.CatalogVersions;
 import home.ivishnyakova.store.dao.ProducerDao;
 import home.ivishnyakova.store.entity.Producer;
 import home.ivishnyakova.store.exceptions.RestException;
@@ -9,6 +10,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.annotation.Resource;
@@ -18,15 +20,18 @@ import java.util.Properties;
 
 /*Класс ProducerRestController предназначен для получения доступа к состоянию
 * ресурсов - производители товаров.
-* Ресурс представляется в форматах xml, json.
+* Ресурс представляется в форматах xml, json, cbor.
 *
 *   Автор: Вишнякова И.
 * */
 @RestController
 @RequestMapping(value = "/producers",
-                consumes = {MediaType.APPLICATION_JSON_UTF8_VALUE, MediaType.APPLICATION_XML_VALUE},
-                produces = {MediaType.APPLICATION_JSON_UTF8_VALUE, MediaType.APPLICATION_XML_VALUE},
-                headers={"Accept=" + MediaType.APPLICATION_JSON_UTF8_VALUE, "Accept=" + MediaType.APPLICATION_XML_VALUE })
+                consumes = {MediaType.APPLICATION_JSON_UTF8_VALUE, MediaType.APPLICATION_XML_VALUE,
+                        CborHttpMessageConverter.APPLICATION_CBOR_VALUE},
+                produces = {MediaType.APPLICATION_JSON_UTF8_VALUE, MediaType.APPLICATION_XML_VALUE,
+                        CborHttpMessageConverter.APPLICATION_CBOR_VALUE},
+                headers={"Accept=" + MediaType.APPLICATION_JSON_UTF8_VALUE, "Accept=" + MediaType.APPLICATION_XML_VALUE,
+                        "Accept=" + CborHttpMessageConverter.APPLICATION_CBOR_VALUE })
 public class ProducerRestController{
 
     //для доступа к данным в БД
@@ -37,6 +42,10 @@ public class ProducerRestController{
     @Autowired
     private HeaderChecker headerChecker;
 
+    //для условных запросов (ETag, Last-Modified)
+    @Autowired
+    private ConditionalRequestHandler conditionalRequestHandler;
+
     //сообщения - ответы сервера
     @Resource(name="messages")
     private Properties messages;
@@ -48,26 +57,28 @@ public class ProducerRestController{
 
     //все производители
     @RequestMapping(value = PRODUCERS, method = RequestMethod.GET)
-    @ResponseStatus(HttpStatus.OK)
-    public List<Producer> getProducers(@RequestHeader HttpHeaders headers){
+    public ResponseEntity<List<Producer>> getProducers(@RequestHeader HttpHeaders headers){
         headerChecker.checkRequestHeaders(headers);
-        List<Producer> resList = producerDao.getProducerList();
-        if (resList.isEmpty()){
-            throw new RestException(HttpStatus.NOT_FOUND, messages.getProperty("NO_PRODUCERS"));
-        }
-        return resList;
+        return conditionalRequestHandler.get(headers, CatalogVersions.Resource.PRODUCERS, () -> {
+            List<Producer> resList = producerDao.getProducerList();
+            if (resList.isEmpty()){
+                throw new RestException(HttpStatus.NOT_FOUND, messages.getProperty("NO_PRODUCERS"));
+            }
+            return resList;
+        });
     }
 
     //производитель по id
     @RequestMapping(value = PRODUCERS_ID, method = RequestMethod.GET)
-    @ResponseStatus(HttpStatus.OK)
-    public Producer getProducer(@PathVariable("id") int id, @RequestHeader HttpHeaders headers){
+    public ResponseEntity<Producer> getProducer(@PathVariable("id") int id, @RequestHeader HttpHeaders headers){
         headerChecker.checkRequestHeaders(headers);
-        try {
-            return producerDao.getProducerById(id);
-        }catch (StoreException e) {
-            throw new RestException(HttpStatus.NOT_FOUND, messages.getProperty("NO_PRODUCER"));
-        }
+        return conditionalRequestHandler.get(headers, CatalogVersions.Resource.PRODUCERS, () -> {
+            try {
+                return producerDao.getProducerById(id);
+            }catch (StoreException e) {
+                throw new RestException(HttpStatus.NOT_FOUND, messages.getProperty("NO_PRODUCER"));
+            }
+        });
     }
 
     //создание производителя
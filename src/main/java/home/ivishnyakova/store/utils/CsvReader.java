@@ -0,0 +1,111 @@
+package home.ivishnyakova.store.utils;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/*Класс CsvReader выполняет построчное чтение данных в формате CSV (RFC 4180)
+* из потока reader: поля разделяются запятой, поле в кавычках может содержать
+* запятые, переводы строк и кавычки (удвоенные).
+* В памяти хранится только текущая запись, поэтому размер потока не ограничен.
+*
+* Автор: Вишнякова И.
+* */
+public class CsvReader implements Closeable {
+
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+
+    private final Reader reader;    //поток данных
+    private int next = -2;          //прочитанный заранее символ (-2 - нет такого)
+    private long lineNumber;        //номер строки, с которой начинается текущая запись
+
+    //номер следующей строки потока
+    private long currentLine = 1;
+
+    public CsvReader(Reader reader) {
+        if (reader == null)
+            throw new IllegalArgumentException("The reader is null");
+        this.reader = reader instanceof BufferedReader ? reader : new BufferedReader(reader);
+    }
+
+    /*Метод readRecord читает следующую запись.
+    * @return   поля записи или null - если достигнут конец потока.
+    * @throws   IOException - ошибка чтения или в потоке не закрыты кавычки.
+    * */
+    public List<String> readRecord() throws IOException {
+        int ch = read();
+        if (ch == -1)
+            return null;
+
+        lineNumber = currentLine;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;     //внутри кавычек
+
+        while (true) {
+            if (quoted) {
+                if (ch == -1)
+                    throw new IOException("Unclosed quote in the record at line " + lineNumber);
+                if (ch == QUOTE) {
+                    int following = read();
+                    if (following == QUOTE) {
+                        field.append(QUOTE);
+                    } else {
+                        quoted = false;
+                        ch = following;
+                        continue;
+                    }
+                } else {
+                    if (ch == '\n')
+                        currentLine++;
+                    field.append((char) ch);
+                }
+            } else if (ch == QUOTE && field.length() == 0) {
+                quoted = true;
+            } else if (ch == SEPARATOR) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\r' || ch == '\n' || ch == -1) {
+                if (ch == '\r') {
+                    int following = read();
+                    if (following != '\n')
+                        unread(following);
+                }
+                if (ch != -1)
+                    currentLine++;
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) ch);
+            }
+            ch = read();
+        }
+    }
+
+    //номер строки, с которой начинается последняя прочитанная запись
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    private int read() throws IOException {
+        if (next != -2) {
+            int ch = next;
+            next = -2;
+            return ch;
+        }
+        return reader.read();
+    }
+
+    private void unread(int ch) {
+        next = ch;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,22 @@
+/*Обновление таблицы categories существующей БД: пути категорий в дереве (path_ids, full_name).
+  Скрипт выполняется один раз после обновления приложения на БД, созданной прежней версией create-tables.sql
+  (CREATE TABLE IF NOT EXISTS не добавляет столбцы в существующую таблицу); повторное выполнение ничего не изменяет.
+  Требуется PostgreSQL 9.6 или новее (ADD COLUMN IF NOT EXISTS; CREATE INDEX IF NOT EXISTS - с 9.5).*/
+
+/*Добавление столбцов путей категорий*/
+ALTER TABLE categories ADD COLUMN IF NOT EXISTS path_ids	TEXT	NOT NULL DEFAULT '';	-- путь в дереве: коды категорий от корня, '/1/2/7/'
+ALTER TABLE categories ADD COLUMN IF NOT EXISTS full_name	TEXT	NOT NULL DEFAULT '';	-- полное название категории в дереве: названия от корня через '->'
+
+/*Заполнение путей категорий в дереве (как в insert-data.sql)*/
+WITH RECURSIVE tree(id, path_ids, full_name) AS (
+	SELECT id, '/' || id || '/', CAST(name AS TEXT) FROM categories WHERE id_category IS NULL
+		UNION ALL
+	SELECT c.id, tree.path_ids || c.id || '/', tree.full_name || '->' || c.name
+	FROM categories c INNER JOIN tree ON (tree.id = c.id_category)
+)
+UPDATE categories c SET path_ids = tree.path_ids, full_name = tree.full_name
+FROM tree WHERE c.id = tree.id;
+
+/*Индексы для поиска категорий по уровню и поддерева категории по префиксу пути (как в create-tables.sql)*/
+CREATE INDEX IF NOT EXISTS categories_no_level ON categories (no_level, full_name);
+CREATE INDEX IF NOT EXISTS categories_path_ids ON categories (path_ids text_pattern_ops);
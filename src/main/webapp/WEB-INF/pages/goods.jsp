@@ -27,6 +27,22 @@
                     link.innerText = link.getAttribute('data-text-show');
                 }
             }
+
+            //заполнение списков категорий и производителей в строках таблицы товаров
+            //(в строке выводится только выбранное значение, остальные значения копируются из шаблона)
+            document.addEventListener("DOMContentLoaded", function() {
+                var selects = document.querySelectorAll("select[data-options]");
+                for (var i = 0; i < selects.length; i++) {
+                    var select = selects[i];
+                    var value = select.value;
+                    var template = document.getElementById(select.getAttribute("data-options"));
+                    select.innerHTML = "";
+                    select.appendChild(document.importNode(template.content, true));
+                    select.value = value;
+                    if (select.selectedIndex < 0)
+                        select.selectedIndex = 0;
+                }
+            });
         </script>
 
     </head>
@@ -185,6 +201,17 @@
                     </div>
                 </c:if>
                 <c:if test="${not empty goodsList}">
+                    <%-- Списки категорий и производителей выводятся один раз и копируются в строки таблицы при загрузке страницы --%>
+                    <template id="categoryOptions">
+                        <c:forEach var="category" items="${categoriesList}">
+                            <option value=${category.id}>${category.name}</option>
+                        </c:forEach>
+                    </template>
+                    <template id="producerOptions">
+                        <c:forEach var="producer" items="${producersList}">
+                            <option value=${producer.id}>${producer.name}</option>
+                        </c:forEach>
+                    </template>
                     <table id="tGoods">
                         <thead>
                             <tr>
@@ -210,27 +237,13 @@
                                             <input id="name" class="editNameGoods" name="name" type="text" value="${goods.name}" required>
 
                                             <p class="titleGoods">Категория</p>
-                                            <select id="id_category" name="id_category" class="editCategoryGoods" required>
-                                                <c:forEach var="category" items="${categoriesList}">
-                                                    <option value=${category.id}
-                                                        <c:if test="${category.id == goods.id_category}">
-                                                        <c:out value="selected" />
-                                                        </c:if>
-                                                    >${category.name}
-                                                    </option>
-                                                </c:forEach>
+                                            <select id="id_category" name="id_category" class="editCategoryGoods" data-options="categoryOptions" required>
+                                                <option value=${goods.id_category} selected><c:out value="${goods.categoryName}" /></option>
                                             </select>
 
                                             <p class="titleGoods">Производитель</p>
-                                            <select id="id_producer" name="id_producer" class="editProducerGoods" required>
-                                                <c:forEach var="producer" items="${producersList}">
-                                                    <option value=${producer.id}
-                                                        <c:if test="${producer.id == goods.id_producer}">
-                                                        <c:out value="selected" />
-                                                        </c:if>
-                                                    >${producer.name}
-                                                    </option>
-                                                </c:forEach>
+                                            <select id="id_producer" name="id_producer" class="editProducerGoods" data-options="producerOptions" required>
+                                                <option value=${goods.id_producer} selected><c:out value="${goods.producerName}" /></option>
                                             </select>
 
                                     </td>
@@ -38,6 +38,10 @@
                 modelAttribute="goodsFilter" method="get">
 
                     <div>
+                        <label class="Label">Поиск</label>
+                        <input id="filterText" name="filterText" type="search"
+                        value="<c:out value="${filterText}"/>" placeholder="Наименование или описание">
+
                         <label class="Label">Категория</label>
                         <select id="filterIdCategory" name="filterIdCategory">
                             <option value="0">Все</option>
@@ -48,7 +52,7 @@
                                     <c:out value="selected" />
                                 </c:if>
 
-                                >${category.name}</option>
+                                >${category.name} (${empty categoryCounts[category.id] ? 0 : categoryCounts[category.id]})</option>
                             </c:forEach>
                         </select>
 
@@ -62,7 +66,7 @@
                                     <c:out value="selected" />
                                 </c:if>
 
-                                >${producer.name}</option>
+                                >${producer.name} (${empty producerCounts[producer.id] ? 0 : producerCounts[producer.id]})</option>
                             </c:forEach>
                         </select>
 
@@ -74,13 +78,26 @@
                         <input id="filterMaxPrice" name="filterMaxPrice" type="number"
                         value="${filterMaxPrice}" min="0">
 
-                        <label class="Label">На складе</label>
+                        <label class="Label">На складе (${inStorageCount}, нет - ${notInStorageCount})</label>
                         <input id="filterInStorage" name="filterInStorage" type="checkbox"
                         <c:if test="${filterInStorage}">
                             <c:out value="checked" />
                         </c:if> >
                     </div>
 
+                    <div id="priceBuckets">
+                        <label class="Label">Цены, грн.:</label>
+                        <c:forEach var="bucket" items="${priceBuckets}">
+                            <span class="priceBucket">
+                                <c:choose>
+                                    <c:when test="${bucket.maxPrice == 0}">от ${bucket.minPrice}</c:when>
+                                    <c:otherwise>${bucket.minPrice} - ${bucket.maxPrice}</c:otherwise>
+                                </c:choose>
+                                (${bucket.count})
+                            </span>
+                        </c:forEach>
+                    </div>
+
                     <div align="right">
                         <input class="buttonForm" type="submit" value="Применить">
                     </div>
@@ -118,20 +135,8 @@
                                     <td>${goods.id}</td>
                                     <td>${goods.name}</td>
                                     <td>${goods.price}</td>
-                                    <td>
-                                        <c:forEach var="category" items="${categoriesList}">
-                                            <c:if test="${category.id == goods.id_category}">
-                                                <c:out value="${category.name}" />
-                                            </c:if>
-                                        </c:forEach>
-                                    </td>
-                                    <td>
-                                        <c:forEach var="producer" items="${producersList}">
-                                            <c:if test="${producer.id == goods.id_producer}">
-                                                <c:out value="${producer.name}" />
-                                            </c:if>
-                                        </c:forEach>
-                                    </td>
+                                    <td><c:out value="${goods.categoryName}" /></td>
+                                    <td><c:out value="${goods.producerName}" /></td>
                                     <td>
                                         <c:if test="${goods.in_storage}">
                                             <c:out value="+" />
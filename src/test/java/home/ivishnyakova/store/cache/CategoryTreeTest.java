@@ -0,0 +1,117 @@
+package home.ivishnyakova.store.cache;
+
+import home.ivishnyakova.store.entity.Category;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+
+/*Класс CategoryTreeTest содержит юнит-тесты для класса CategoryTree -
+* снимка дерева категорий товаров.
+*
+* Автор: Вишнякова И.
+* */
+public class CategoryTreeTest {
+
+    //дерево: корень -> (Техника -> (Холодильники, Плиты), Телефоны)
+    private final CategoryTree tree = createTree();
+
+    private static CategoryTree createTree() {
+        List<Category> categories = Arrays.asList(
+                new Category(1, " ", (short) 0, 0),
+                new Category(2, "Техника", (short) 1, 1),
+                new Category(3, "Телефоны", (short) 1, 1),
+                new Category(4, "Холодильники", (short) 2, 2),
+                new Category(5, "Плиты", (short) 2, 2));
+
+        Map<Integer, String> fullNames = new HashMap<>();
+        fullNames.put(1, " ");
+        fullNames.put(2, " ->Техника");
+        fullNames.put(3, " ->Телефоны");
+        fullNames.put(4, " ->Техника->Холодильники");
+        fullNames.put(5, " ->Техника->Плиты");
+        return new CategoryTree(categories, fullNames, order(1, 5, 3, 2, 4), order(1, 3, 2, 5, 4));
+    }
+
+    //номера категорий ids в порядке сортировки БД
+    private static Map<Integer, Integer> order(Integer... ids) {
+        Map<Integer, Integer> order = new HashMap<>();
+        for (int i = 0; i < ids.length; i++)
+            order.put(ids[i], i + 1);
+        return order;
+    }
+
+    private static List<Integer> ids(List<Category> categories) {
+        return categories.stream().map(Category::getId).collect(Collectors.toList());
+    }
+
+    /*Сценарий: получение категорий уровня и подкатегорий родительской категории.
+    * Результат: категории отсортированы по названию.
+    * */
+    @Test
+    public void getCategoriesTest_whenLevelOrParent_thenSortByName() {
+        assertThat(ids(tree.getCategoriesByLevel((short) 1)), equalTo(Arrays.asList(3, 2)));
+        assertThat(ids(tree.getChildren(2, (short) 2)), equalTo(Arrays.asList(5, 4)));
+        assertThat(ids(tree.getChildren(0, (short) 0)), equalTo(Arrays.asList(1)));
+        assertThat(tree.getChildren(2, (short) 1).size(), equalTo(0));
+    }
+
+    /*Сценарий: получение категорий уровня с полными названиями и поддерева категории.
+    * Результат: названия категорий - полные, категории отсортированы по полному названию.
+    * */
+    @Test
+    public void getFullNameCategoriesTest_thenSortByFullName() {
+        List<Category> categories = tree.getFullNameCategoriesByLevel((short) 2);
+        assertThat(categories.get(0).getName(), equalTo(" ->Техника->Плиты"));
+
+        assertThat(ids(tree.getSubtree(2)), equalTo(Arrays.asList(2, 5, 4)));
+        assertThat(tree.getSubtree(1).size(), equalTo(5));
+        assertThat(tree.getSubtree(100).size(), equalTo(0));
+    }
+
+    /*Сценарий: изменение категории, полученной из снимка.
+    * Результат: снимок не изменился.
+    * */
+    @Test
+    public void getCategoryTest_whenChangeResult_thenTreeNotChanged() {
+        Category category = tree.getCategory(2);
+        category.setName("Изменено");
+        tree.getCategoriesByLevel((short) 1).clear();
+
+        assertThat(tree.getCategory(2).getName(), equalTo("Техника"));
+        assertThat(tree.getCategoriesByLevel((short) 1).size(), equalTo(2));
+        assertThat(tree.getCategory(100), nullValue());
+    }
+
+    /*Сценарий: порядок сортировки названий в БД отличается от порядка кодов символов
+    *           (строчные буквы, буква Ё).
+    * Результат: категории упорядочены так же, как в БД.
+    * */
+    @Test
+    public void getCategoriesTest_whenDatabaseOrder_thenSortByDatabaseOrder() {
+        List<Category> categories = Arrays.asList(
+                new Category(1, " ", (short) 0, 0),
+                new Category(2, "Ёлочные игрушки", (short) 1, 1),
+                new Category(3, "аксессуары", (short) 1, 1),
+                new Category(4, "Телевизоры", (short) 1, 1));
+
+        Map<Integer, String> fullNames = new HashMap<>();
+        fullNames.put(1, " ");
+        fullNames.put(2, " ->Ёлочные игрушки");
+        fullNames.put(3, " ->аксессуары");
+        fullNames.put(4, " ->Телевизоры");
+        CategoryTree tree = new CategoryTree(categories, fullNames, order(1, 3, 2, 4), order(1, 3, 2, 4));
+
+        assertThat(ids(tree.getCategoriesByLevel((short) 1)), equalTo(Arrays.asList(3, 2, 4)));
+        assertThat(ids(tree.getChildren(1, (short) 1)), equalTo(Arrays.asList(3, 2, 4)));
+        assertThat(ids(tree.getFullNameCategoriesByLevel((short) 1)), equalTo(Arrays.asList(3, 2, 4)));
+        assertThat(ids(tree.getSubtree(1)), equalTo(Arrays.asList(1, 3, 2, 4)));
+    }
+}
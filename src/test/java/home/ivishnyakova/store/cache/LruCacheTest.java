@@ -0,0 +1,106 @@
+package home.ivishnyakova.store.cache;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+
+/*Класс LruCacheTest содержит юнит-тесты для класса LruCache -
+* кеша со сквозным чтением, ограниченного по размеру и времени жизни записей.
+*
+* Автор: Вишнякова И.
+* */
+public class LruCacheTest {
+
+    //кол-во обращений к загрузке значений
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private String load(Integer key) {
+        loads.incrementAndGet();
+        return "value " + key;
+    }
+
+    /*Сценарий: повторное чтение значения по ключу.
+    * Результат: значение загружено один раз, статистика - 1 промах и 1 попадание.
+    * */
+    @Test
+    public void getTest_whenSecondRead_thenHit() {
+        LruCache<Integer, String> cache = new LruCache<>(10, 0);
+
+        assertThat(cache.get(1, this::load), equalTo("value 1"));
+        assertThat(cache.get(1, this::load), equalTo("value 1"));
+
+        assertThat(loads.get(), equalTo(1));
+        assertThat(cache.getStatistics().getMisses(), equalTo(1L));
+        assertThat(cache.getStatistics().getHits(), equalTo(1L));
+        assertThat(cache.getStatistics().getHitRatio(), equalTo(0.5));
+    }
+
+    /*Сценарий: чтение значений при заполненном кеше.
+    * Результат: вытесняется значение, которое дольше всех не использовалось.
+    * */
+    @Test
+    public void getTest_whenCacheFull_thenEvictLeastRecentlyUsed() {
+        LruCache<Integer, String> cache = new LruCache<>(2, 0);
+        cache.get(1, this::load);
+        cache.get(2, this::load);
+        cache.get(1, this::load);
+        cache.get(3, this::load);
+
+        assertThat(cache.size(), equalTo(2));
+        assertThat(cache.getStatistics().getEvictions(), equalTo(1L));
+
+        cache.get(1, this::load);
+        assertThat(loads.get(), equalTo(3));
+        cache.get(2, this::load);
+        assertThat(loads.get(), equalTo(4));
+    }
+
+    /*Сценарий: чтение значения после удаления записи из кеша.
+    * Результат: значение загружено повторно.
+    * */
+    @Test
+    public void getTest_whenInvalidated_thenLoadAgain() {
+        LruCache<Integer, String> cache = new LruCache<>(10, 0);
+        cache.get(1, this::load);
+        cache.invalidate(1);
+        cache.get(1, this::load);
+        cache.invalidateAll();
+        cache.get(1, this::load);
+
+        assertThat(loads.get(), equalTo(3));
+    }
+
+    /*Сценарий: удаление записи во время загрузки значения.
+    * Результат: загруженное (возможно устаревшее) значение не сохраняется в кеше.
+    * */
+    @Test
+    public void getTest_whenInvalidatedWhileLoading_thenNotCached() {
+        LruCache<Integer, String> cache = new LruCache<>(10, 0);
+        cache.get(1, key -> {
+            cache.invalidate(key);
+            return load(key);
+        });
+
+        assertThat(cache.size(), equalTo(0));
+    }
+
+    /*Сценарий: загрузка значения null и чтение из отключенного кеша (размер 0).
+    * Результат: значения не сохраняются в кеше.
+    * */
+    @Test
+    public void getTest_whenNullValueOrZeroSize_thenNotCached() {
+        LruCache<Integer, String> cache = new LruCache<>(10, 0);
+        assertThat(cache.get(1, key -> null), nullValue());
+        assertThat(cache.size(), equalTo(0));
+
+        LruCache<Integer, String> disabled = new LruCache<>(0, 0);
+        disabled.get(1, this::load);
+        disabled.get(1, this::load);
+        assertThat(loads.get(), equalTo(2));
+        assertThat(disabled.size(), equalTo(0));
+    }
+}
@@ -0,0 +1,135 @@
+package home.ivishnyakova.store.cache;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.fail;
+
+/*Класс SingleFlightTest содержит юнит-тесты для класса SingleFlight -
+* объединения одинаковых одновременных запросов.
+*
+* Автор: Вишнякова И.
+* */
+public class SingleFlightTest {
+
+    //кол-во одновременных запросов
+    private static final int CALLERS = 8;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    //кол-во выполнений запроса
+    private final AtomicInteger queries = new AtomicInteger();
+
+    //запрос выполняется, пока не открыт release
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /*Сценарий: одновременные запросы с одним ключом.
+    * Результат: запрос выполнен один раз, результат получили все потоки.*/
+    @Test
+    public void executeTest_givenConcurrentCallers_whenSameKey_thenOneQuery() throws Exception {
+        SingleFlight<String> singleFlight = new SingleFlight<>(5000);
+
+        List<Future<String>> results = callConcurrently(singleFlight, () -> "goods");
+        release.countDown();
+
+        for (Future<String> result : results)
+            assertThat(result.get(5, TimeUnit.SECONDS), equalTo("goods"));
+        assertThat(queries.get(), equalTo(1));
+        assertThat(singleFlight.getExecutions(), equalTo(1L));
+        assertThat(singleFlight.getCoalesced(), equalTo((long) CALLERS - 1));
+    }
+
+    /*Сценарий: запрос завершился исключением.
+    * Результат: исключение получили все ожидающие потоки; следующий запрос выполняется заново.*/
+    @Test
+    public void executeTest_givenFailedQuery_whenConcurrentCallers_thenAllGetException() throws Exception {
+        SingleFlight<String> singleFlight = new SingleFlight<>(5000);
+
+        List<Future<String>> results = callConcurrently(singleFlight, () -> {
+            throw new IllegalStateException("no connection");
+        });
+        release.countDown();
+
+        for (Future<String> result : results) {
+            try {
+                result.get(5, TimeUnit.SECONDS);
+                fail("The exception of the query was not propagated");
+            } catch (ExecutionException e) {
+                assertThat(e.getCause(), instanceOf(IllegalStateException.class));
+            }
+        }
+        assertThat(queries.get(), equalTo(1));
+        assertThat(singleFlight.execute("key", () -> "goods"), equalTo("goods"));
+    }
+
+    /*Сценарий: результат запроса другого потока не получен за время ожидания.
+    * Результат: ожидающий поток получает QueryTimeoutException; после forgetAll запрос выполняется заново.*/
+    @Test
+    public void executeTest_givenSlowQuery_whenTimeout_thenQueryTimeoutException() throws Exception {
+        SingleFlight<String> singleFlight = new SingleFlight<>(50);
+
+        executor.submit(() -> singleFlight.execute("key", () -> query(() -> "goods")));
+        assertThat(started.await(5, TimeUnit.SECONDS), equalTo(true));
+        try {
+            singleFlight.execute("key", () -> "other");
+            fail("The waiting was not timed out");
+        } catch (QueryTimeoutException e) {
+            //ожидаемый результат
+        }
+
+        singleFlight.forgetAll();
+        assertThat(singleFlight.execute("key", () -> "new goods"), equalTo("new goods"));
+        release.countDown();
+    }
+
+    //одновременный вызов запроса query с одним ключом из CALLERS потоков (запрос ожидает release)
+    private List<Future<String>> callConcurrently(SingleFlight<String> singleFlight, QuerySupplier query) throws Exception {
+        List<Future<String>> results = new ArrayList<>();
+        results.add(executor.submit(() -> singleFlight.execute("key", () -> query(query))));
+        assertThat(started.await(5, TimeUnit.SECONDS), equalTo(true));
+        for (int i = 1; i < CALLERS; i++)
+            results.add(executor.submit(() -> singleFlight.execute("key", () -> query(query))));
+
+        //все потоки ожидают результат
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.getCoalesced() < CALLERS - 1 && System.nanoTime() < deadline)
+            Thread.sleep(1);
+        return results;
+    }
+
+    private String query(QuerySupplier query) {
+        queries.incrementAndGet();
+        started.countDown();
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return query.get();
+    }
+
+    @FunctionalInterface
+    private interface QuerySupplier {
+        String get();
+    }
+}
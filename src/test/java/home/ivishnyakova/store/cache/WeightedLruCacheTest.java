@@ -0,0 +1,91 @@
+package home.ivishnyakova.store.cache;
+
+import home.ivishnyakova.store.dao.GoodsFilterKey;
+import home.ivishnyakova.store.entity.Goods;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+
+/*Класс WeightedLruCacheTest содержит юнит-тесты для кеша WeightedLruCache,
+* ограниченного по объему, с версиями записей (и кеша списков товаров GoodsListCache).
+*
+* Автор: Вишнякова И.
+* */
+public class WeightedLruCacheTest {
+
+    //кол-во обращений к загрузке значений
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private String load(String key) {
+        loads.incrementAndGet();
+        return key;
+    }
+
+    /*Сценарий: повторное чтение значения - значение загружено один раз;
+    *           при переполнении вытесняются давно не используемые значения.*/
+    @Test
+    public void getTest_givenWeightLimit_whenRead_thenLruEvicted() {
+        WeightedLruCache<String, String> cache = new WeightedLruCache<>(10, 10, String::length);
+
+        assertThat(cache.get("aaaa", this::load), equalTo("aaaa"));
+        assertThat(cache.get("bbbb", this::load), equalTo("bbbb"));
+        assertThat(cache.get("aaaa", this::load), equalTo("aaaa"));
+        assertThat(cache.get("cccc", this::load), equalTo("cccc"));
+
+        assertThat(loads.get(), equalTo(3));
+        assertThat(cache.size(), equalTo(2));
+        assertThat(cache.getWeight(), equalTo(8L));
+        assertThat(cache.get("bbbb"), nullValue());
+        assertThat(cache.getStatistics().getHits(), equalTo(1L));
+        assertThat(cache.getStatistics().getEvictions(), equalTo(1L));
+
+        assertThat(cache.get("too long value", this::load), equalTo("too long value"));
+        assertThat(cache.get("too long value"), nullValue());
+    }
+
+    /*Сценарий: данные изменились во время загрузки значения.
+    * Результат: загруженное значение в кеш не сохраняется, следующее чтение загружает значение заново.*/
+    @Test
+    public void getTest_whenInvalidatedDuringLoad_thenNotStored() {
+        WeightedLruCache<String, String> cache = new WeightedLruCache<>(100, 100, String::length);
+
+        assertThat(cache.get("a", key -> {
+            cache.invalidateAll();
+            return load(key);
+        }), equalTo("a"));
+        assertThat(cache.size(), equalTo(0));
+
+        cache.get("a", this::load);
+        cache.get("a", this::load);
+        assertThat(loads.get(), equalTo(2));
+    }
+
+    /*Сценарий: равные после нормализации условия фильтра дают один список в кеше;
+    *           размер списка оценивается по наименованиям и описаниям товаров.*/
+    @Test
+    public void goodsListCacheTest_givenEqualFilters_whenGet_thenOneLoad() {
+        GoodsListCache<GoodsFilterKey> cache = new GoodsListCache<>(1 << 20, 1 << 20);
+        List<Goods> goodsList = new ArrayList<>();
+        goodsList.add(new Goods(1, "Ноутбук", 1000f, "Описание", true, 1, 1));
+
+        cache.get(GoodsFilterKey.of(5000, 1000, 1, 0, true), key -> {
+            loads.incrementAndGet();
+            return goodsList;
+        });
+        List<Goods> cached = cache.get(GoodsFilterKey.of(0, 0, 1, 0, true), key -> {
+            loads.incrementAndGet();
+            return Collections.emptyList();
+        });
+
+        assertThat(loads.get(), equalTo(1));
+        assertThat(cached, equalTo(goodsList));
+        assertThat(cache.getWeight(), equalTo(64L + 64L + (40L + 2 * 7) + (40L + 2 * 8)));
+    }
+}
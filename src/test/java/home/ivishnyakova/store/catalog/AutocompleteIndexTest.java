@@ -0,0 +1,59 @@
+package home.ivishnyakova.store.catalog;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+/*Класс AutocompleteIndexTest содержит юнит-тесты для класса AutocompleteIndex -
+* префиксного индекса наименований товаров и производителей.
+*
+* Автор: Вишнякова И.
+* */
+public class AutocompleteIndexTest {
+
+    private final AutocompleteIndex index = new AutocompleteIndex(Arrays.asList(
+            new AutocompleteIndex.Completion(AutocompleteIndex.Completion.GOODS, 15, "Телевизор Samsung UE40"),
+            new AutocompleteIndex.Completion(AutocompleteIndex.Completion.GOODS, 7, "Смартфон Samsung J400 Galaxy"),
+            new AutocompleteIndex.Completion(AutocompleteIndex.Completion.GOODS, 3, "Телефон Nokia"),
+            new AutocompleteIndex.Completion(AutocompleteIndex.Completion.PRODUCER, 2, "Samsung")));
+
+    /*Сценарий: префикс начала наименования в другом регистре.
+    * Результат: наименования с префиксом по алфавиту.
+    * */
+    @Test
+    public void completeTest_whenNamePrefix_thenSorted() {
+        assertThat(names(index.complete("ТЕЛ", 10)), equalTo(Arrays.asList("Телевизор Samsung UE40", "Телефон Nokia")));
+        assertThat(names(index.complete("телеф", 10)), equalTo(Arrays.asList("Телефон Nokia")));
+    }
+
+    /*Сценарий: префикс слова внутри наименований и ограничение кол-ва подсказок.
+    * Результат: сначала наименования с префиксом в начале, затем - с префиксом в начале слова.
+    * */
+    @Test
+    public void completeTest_whenWordPrefix_thenNameStartFirst() {
+        List<AutocompleteIndex.Completion> completions = index.complete("sams", 10);
+        assertThat(names(completions), equalTo(Arrays.asList("Samsung", "Смартфон Samsung J400 Galaxy", "Телевизор Samsung UE40")));
+        assertThat(completions.get(0).getType(), equalTo(AutocompleteIndex.Completion.PRODUCER));
+
+        assertThat(names(index.complete("samsung j", 10)), equalTo(Arrays.asList("Смартфон Samsung J400 Galaxy")));
+        assertThat(index.complete("sams", 2).size(), equalTo(2));
+    }
+
+    /*Сценарий: пустой и отсутствующий префиксы.
+    * Результат: пустой список подсказок.
+    * */
+    @Test
+    public void completeTest_whenEmptyOrUnknownPrefix_thenEmpty() {
+        assertThat(index.complete("  ", 10).size(), equalTo(0));
+        assertThat(index.complete("xyz", 10).size(), equalTo(0));
+    }
+
+    private static List<String> names(List<AutocompleteIndex.Completion> completions) {
+        return completions.stream().map(AutocompleteIndex.Completion::getName).collect(Collectors.toList());
+    }
+}
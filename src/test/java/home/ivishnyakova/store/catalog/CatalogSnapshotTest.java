@@ -0,0 +1,183 @@
+package home.ivishnyakova.store.catalog;
+
+import home.ivishnyakova.store.entity.GoodsSummary;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+/*Класс CatalogSnapshotTest содержит юнит-тесты для класса CatalogSnapshot -
+* колоночного снимка каталога товаров для фильтрации в памяти.
+*
+* Автор: Вишнякова И.
+* */
+public class CatalogSnapshotTest {
+
+    //товары не в порядке наименований (снимок упорядочивает их сам)
+    private final CatalogSnapshot snapshot = new CatalogSnapshot(Arrays.asList(
+            new GoodsSummary(9, "Телевизор", 900, false, 8, 1, ""),
+            new GoodsSummary(4, "Блендер", 100, true, 7, 1, ""),
+            new GoodsSummary(1, "Холодильник", 700, true, 8, 1, ""),
+            new GoodsSummary(2, "Плита", 500, true, 8, 2, "")));
+
+    /*Сценарий: фильтр только по наличию на складе.
+    * Результат: коды товаров в порядке наименований.
+    * */
+    @Test
+    public void filterTest_whenOnlyInStorage_thenAllInStorage() {
+        assertThat(snapshot.filter(0, 0, 0, 0, true), equalTo(new int[]{4, 2, 1}));
+        assertThat(snapshot.filter(0, 0, 0, 0, false), equalTo(new int[]{9}));
+    }
+
+    /*Сценарий: фильтр по категории, производителю и диапазону цен (границы включаются).
+    * Результат: коды товаров, удовлетворяющих всем условиям.
+    * */
+    @Test
+    public void filterTest_whenAllConditions_thenOk() {
+        assertThat(snapshot.filter(0, 0, 8, 0, true), equalTo(new int[]{2, 1}));
+        assertThat(snapshot.filter(0, 0, 8, 1, true), equalTo(new int[]{1}));
+        assertThat(snapshot.filter(100, 500, 0, 0, true), equalTo(new int[]{4, 2}));
+        assertThat(snapshot.filter(600, 0, 0, 0, true), equalTo(new int[]{4, 2, 1}));
+    }
+
+    /*Сценарий: выборка товаров по фильтру и изменение полученных товаров.
+    * Результат: товары в порядке наименований, снимок не изменился.
+    * */
+    @Test
+    public void getGoodsSummaryListByFilterTest_whenChangeResult_thenSnapshotNotChanged() {
+        List<GoodsSummary> goodsList = snapshot.getGoodsSummaryListByFilter(0, 1000, 8, 0, true);
+        assertThat(goodsList.size(), equalTo(2));
+        assertThat(goodsList.get(0).getName(), equalTo("Плита"));
+
+        goodsList.get(0).setName("Изменено");
+        assertThat(snapshot.getGoodsSummaryList().get(1).getName(), equalTo("Плита"));
+    }
+
+    /*Сценарий: фильтр по нескольким категориям и производителям.
+    * Результат: товары любой из категорий и любого из производителей.
+    * */
+    @Test
+    public void filterTest_whenSeveralCategoriesAndProducers_thenUnion() {
+        assertThat(snapshot.filter(0, 0, new int[]{7, 8}, new int[0], true), equalTo(new int[]{4, 2, 1}));
+        assertThat(snapshot.filter(0, 0, new int[]{7, 8}, new int[]{1, 3}, true), equalTo(new int[]{4, 1}));
+        assertThat(snapshot.filter(0, 0, new int[]{5}, new int[0], true), equalTo(new int[0]));
+    }
+
+    /*Сценарий: добавление товара в середину каталога, изменение и удаление товара.
+    * Результат: новые снимки фильтруют так же, как снимки, построенные заново; текущий снимок не изменился.
+    * */
+    @Test
+    public void withGoodsTest_whenInsertUpdateDelete_thenSameAsNewSnapshot() {
+        GoodsSummary mixer = new GoodsSummary(5, "Миксер", 300, false, 7, 2, "");
+        CatalogSnapshot inserted = snapshot.withGoods(mixer);
+        assertThat(inserted.filter(0, 0, 0, 0, false), equalTo(new int[]{5, 9}));
+        assertThat(inserted.filter(250, 600, 0, 2, false), equalTo(new int[]{5}));
+        assertThat(inserted.filter(0, 0, 7, 0, true), equalTo(new int[]{4}));
+        assertThat(snapshot.filter(0, 0, 0, 0, false), equalTo(new int[]{9}));
+
+        GoodsSummary cheapTv = new GoodsSummary(9, "Телевизор", 50, true, 7, 2, "");
+        CatalogSnapshot updated = inserted.withGoods(cheapTv);
+        CatalogSnapshot expected = new CatalogSnapshot(Arrays.asList(
+                new GoodsSummary(4, "Блендер", 100, true, 7, 1, ""),
+                mixer,
+                new GoodsSummary(2, "Плита", 500, true, 8, 2, ""),
+                cheapTv,
+                new GoodsSummary(1, "Холодильник", 700, true, 8, 1, "")));
+        assertFilterEquals(updated, expected);
+
+        CatalogSnapshot deleted = updated.withoutGoods(4);
+        assertThat(deleted.size(), equalTo(4));
+        assertThat(deleted.filter(0, 100, 7, 0, true), equalTo(new int[]{9}));
+        assertThat(deleted.filter(0, 0, 0, 1, true), equalTo(new int[]{1}));
+        assertThat(deleted.withoutGoods(4), sameInstance(deleted));
+    }
+
+    /*Сценарий: счетчики товаров для фильтра по категории 8 и наличию на складе.
+    * Результат: счетчик каждого условия считается без самого условия.
+    * */
+    @Test
+    public void getFacetsTest_whenFilter_thenCountsWithoutOwnCondition() {
+        CatalogFacets facets = snapshot.getFacets(0, 0, new int[]{8}, new int[0], true, new float[]{200, 600});
+
+        assertThat(CatalogFacets.toMap(facets.getCategories()).toString(), equalTo("{7=1, 8=2}"));
+        assertThat(CatalogFacets.toMap(facets.getProducers()).toString(), equalTo("{1=1, 2=1}"));
+        assertThat(facets.getInStorage(), equalTo(2));
+        assertThat(facets.getNotInStorage(), equalTo(1));
+
+        List<CatalogFacets.PriceBucket> buckets = facets.getPriceBuckets();
+        assertThat(buckets.size(), equalTo(3));
+        assertThat(buckets.get(0).getCount(), equalTo(0));
+        assertThat(buckets.get(1).getCount(), equalTo(1));
+        assertThat(buckets.get(2).getMinPrice(), equalTo(600f));
+        assertThat(buckets.get(2).getMaxPrice(), equalTo(0f));
+        assertThat(buckets.get(2).getCount(), equalTo(1));
+    }
+
+    /*Сценарий: наименования товаров - строчные и прописные, с буквой Ё; изменение наименования товара.
+    * Результат: товары в порядке наименований по правилам русского языка, равные наименования - по коду;
+    *            после изменения наименования товар перемещается в новую позицию.
+    * */
+    @Test
+    public void withGoodsTest_whenRename_thenNameOrder() {
+        CatalogSnapshot names = new CatalogSnapshot(Arrays.asList(
+                new GoodsSummary(1, "ящик", 10, true, 1, 1, ""),
+                new GoodsSummary(2, "Ёлка", 10, true, 1, 1, ""),
+                new GoodsSummary(3, "Яблоко", 10, true, 1, 1, ""),
+                new GoodsSummary(4, "ель", 10, true, 1, 1, ""),
+                new GoodsSummary(5, "Ёлка", 10, true, 1, 1, "")));
+        assertThat(names.filter(0, 0, 0, 0, true), equalTo(new int[]{2, 5, 4, 3, 1}));
+
+        CatalogSnapshot renamed = names.withGoods(new GoodsSummary(3, "Арбуз", 10, true, 1, 1, ""));
+        assertThat(renamed.filter(0, 0, 0, 0, true), equalTo(new int[]{3, 2, 5, 4, 1}));
+        assertThat(renamed.getName(0), equalTo("Арбуз"));
+        assertThat(renamed.getId(4), equalTo(1));
+        assertThat(names.getName(3), equalTo("Яблоко"));
+    }
+
+    /*Сценарий: два снимка построены из одного снимка; много изменений одного снимка подряд.
+    * Результат: снимки не влияют друг на друга; снимки фильтруют так же, как снимки, построенные заново.
+    * */
+    @Test
+    public void withGoodsTest_whenBranchesAndManyChanges_thenSameAsNewSnapshot() {
+        CatalogSnapshot first = snapshot.withGoods(new GoodsSummary(5, "Миксер", 300, false, 7, 2, ""));
+        CatalogSnapshot second = snapshot.withGoods(new GoodsSummary(6, "Утюг", 50, true, 8, 3, ""));
+        assertThat(first.filter(0, 0, 0, 0, false), equalTo(new int[]{5, 9}));
+        assertThat(second.filter(0, 0, 0, 0, true), equalTo(new int[]{4, 2, 6, 1}));
+        assertThat(snapshot.size(), equalTo(4));
+
+        List<GoodsSummary> goodsList = new ArrayList<>(snapshot.getGoodsSummaryList());
+        CatalogSnapshot changed = snapshot;
+        for (int i = 0; i < 500; i++) {
+            GoodsSummary goods = new GoodsSummary(100 + i % 50, "Товар " + (i * 7919 % 1000), i % 900, i % 3 == 0,
+                    7 + i % 2, 1 + i % 3, "");
+            goodsList.removeIf(item -> item.getId() == goods.getId());
+            goodsList.add(goods);
+            changed = changed.withGoods(goods);
+            if (i % 7 == 0) {
+                int id = 100 + i % 13;
+                goodsList.removeIf(item -> item.getId() == id);
+                changed = changed.withoutGoods(id);
+            }
+        }
+        CatalogSnapshot expected = new CatalogSnapshot(goodsList);
+        assertThat(changed.size(), equalTo(expected.size()));
+        assertFilterEquals(changed, expected);
+        assertThat(changed.filter(0, 0, new int[0], new int[0], false), equalTo(expected.filter(0, 0, new int[0], new int[0], false)));
+    }
+
+    //снимки actual и expected дают одинаковые результаты фильтров
+    private static void assertFilterEquals(CatalogSnapshot actual, CatalogSnapshot expected) {
+        float[][] prices = {{0, 0}, {50, 50}, {100, 500}, {600, 1000}};
+        for (float[] range : prices)
+            for (int category : new int[]{0, 7, 8})
+                for (int producer : new int[]{0, 1, 2})
+                    for (boolean in_storage : new boolean[]{true, false})
+                        assertThat(actual.filter(range[0], range[1], category, producer, in_storage),
+                                equalTo(expected.filter(range[0], range[1], category, producer, in_storage)));
+    }
+}
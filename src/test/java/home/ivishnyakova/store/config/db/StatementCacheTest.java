@@ -0,0 +1,89 @@
+package home.ivishnyakova.store.config.db;
+
+import home.ivishnyakova.store.cache.CacheStatistics;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+/*Класс StatementCacheTest содержит юнит-тесты для класса StatementCache -
+* кеша подготовленных запросов соединения (без БД: соединение и запросы - заглушки).
+*
+* Автор: Вишнякова И.
+* */
+public class StatementCacheTest {
+
+    private static final String SQL = "UPDATE goods SET price=? WHERE id=?";
+
+    //строки пакета, добавленные в физический запрос и еще не выполненные
+    private final List<Object> pendingBatch = new ArrayList<>();
+
+    //кол-во подготовленных физических запросов
+    private final AtomicInteger prepared = new AtomicInteger();
+
+    //время ожидания выполнения физического запроса, с
+    private final AtomicInteger queryTimeout = new AtomicInteger();
+
+    /*Сценарий: клиент добавил строки в пакет, установил время ожидания и закрыл запрос без executeBatch.
+    * Результат: следующий клиент получает тот же запрос из кеша - без строк пакета
+    *            и без времени ожидания предыдущего клиента.*/
+    @Test
+    public void prepareStatementTest_givenNotExecutedBatch_whenReused_thenBatchCleared() throws Exception {
+        Connection connection = StatementCache.wrap(connection(), 10, new CacheStatistics(), new AtomicLong());
+
+        try (PreparedStatement statement = connection.prepareStatement(SQL)) {
+            statement.setQueryTimeout(30);
+            statement.addBatch();
+            statement.addBatch();
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(SQL)) {
+            assertThat(prepared.get(), equalTo(1));
+            assertThat(pendingBatch.size(), equalTo(0));
+            assertThat(queryTimeout.get(), equalTo(0));
+            statement.addBatch();
+        }
+    }
+
+    //соединение-заглушка: подготавливает запрос-заглушку, который учитывает строки пакета и время ожидания
+    private Connection connection() {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("prepareStatement")) {
+                        prepared.incrementAndGet();
+                        return statement();
+                    }
+                    return method.getName().equals("isClosed") ? false : null;
+                });
+    }
+
+    private PreparedStatement statement() {
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "addBatch":
+                            pendingBatch.add(new Object());
+                            return null;
+                        case "clearBatch":
+                            pendingBatch.clear();
+                            return null;
+                        case "setQueryTimeout":
+                            queryTimeout.set((Integer) args[0]);
+                            return null;
+                        case "isClosed":
+                            return false;
+                        default:
+                            return null;
+                    }
+                });
+    }
+}
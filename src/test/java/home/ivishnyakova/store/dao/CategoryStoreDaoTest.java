@@ -6,6 +6,7 @@ import home.ivishnyakova.store.entity.Category;
 import home.ivishnyakova.store.exceptions.StoreException;
 import home.ivishnyakova.store.exceptions.ValidationException;
 import home.ivishnyakova.store.utils.CategoryLevel;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,8 +27,10 @@ import static home.ivishnyakova.store.utils.CategoryLevel.SUB_CATEGORY;
 import static home.ivishnyakova.store.utils.CategoryLevel.CATEGORY;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.core.IsCollectionContaining.hasItem;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.hamcrest.core.IsNot.not;
+import static org.junit.Assert.fail;
 
 /*Класс CategoryStoreDaoTest содержит тесты для проверки взаимодействия
 * слоя доступа к данным о категориях товаров и базы данных.
@@ -55,6 +58,12 @@ public class CategoryStoreDaoTest {
     @Autowired
     private DatabaseScriptExecutor databaseScriptExecutor;
 
+    //таблицы заполняются скриптами в обход DAO - закешированные категории сбрасываются
+    @Before
+    public void refreshCategories(){
+        categoryDao.refreshCategories();
+    }
+
     //************************* Добавление категории *************************
 
     /*Сценарий: добавление новой категории. Наименование категории - корректно.
@@ -256,6 +265,41 @@ public class CategoryStoreDaoTest {
         categoryDao.update(category);
     }
 
+    /*Сценарий: перемещение категории в ее подкатегорию.
+    * Дано:
+    *   - категория "Бытовая техника" с новой родительской категорией "Холодильники"
+    * Результат: категория не обновлена, исключение StoreException;
+    *            родительская категория не изменилась.
+    * */
+    @Test
+    public void updateCategoryTest_whenMoveToSubcategory_thenException() throws ValidationException{
+        Category category = new Category(2,"Бытовая техника", SUB_CATEGORY.getLevel(),7);
+        try {
+            categoryDao.update(category);
+            fail("The category was moved into its subcategory");
+        } catch (StoreException e) {
+            //ожидаемый результат
+        }
+        categoryDao.refreshCategories();
+        assertThat(categoryDao.getCategoryById(2).getId_category(), equalTo(1));
+    }
+
+    /*Сценарий: перемещение подкатегории в другую категорию.
+    * Дано:
+    *   - подкатегория "Холодильники" с новой родительской категорией "Смартфоны и телефоны"
+    * Результат: категория обновлена, полное название изменилось.
+    * */
+    @Test
+    public void updateCategoryTest_whenMoveToOtherCategory_thenFullNameChanged() throws ValidationException{
+        Category category = new Category(7,"Холодильники", SUB_CATEGORY.getLevel(),3);
+        assertThat(categoryDao.update(category), equalTo(true));
+
+        List<String> names = categoryDao.getCategorySubtree(3).stream()
+                .map(Category::getName).collect(Collectors.toList());
+        assertThat(names, hasItem(" ->Смартфоны и телефоны->Холодильники"));
+        assertThat(categoryDao.getCategorySubtree(2).size(), equalTo(3));
+    }
+
     //**************** Удаление категории ****************************************
 
     /*Сценарий: удаление категории по id.
@@ -488,4 +532,31 @@ public class CategoryStoreDaoTest {
         List<Category> categories = categoryDao.getCategoryFullNameListByLevel(SUB_CATEGORY.getLevel());
         assertThat(categories.size(), equalTo(0));
     }
+
+    //************ Получение поддерева категории **************************************
+
+    /*Сценарий: получение категории и всех ее подкатегорий.
+    *           База данных - не пустая. Категория есть в БД.
+    * Результат: категория и ее подкатегории с полными названиями
+    *            (названия категорий от корня через '->'), по полному названию.
+    * */
+    @Test
+    public void getCategorySubtreeTest_whenCategoryExists_thenOk(){
+        List<Category> subtree = categoryDao.getCategorySubtree(2);
+
+        assertThat(subtree.size(), equalTo(4));
+        assertThat(subtree.get(0).getId(), equalTo(2));
+        assertThat(subtree.get(0).getName(), equalTo(" ->Бытовая техника"));
+        assertThat(subtree.stream().map(Category::getName).collect(Collectors.toList()),
+                hasItem(" ->Бытовая техника->Холодильники"));
+    }
+
+    /*Сценарий: получение поддерева категории.
+    *           Категории нет в БД.
+    * Результат: исключение StoreException.
+    * */
+    @Test(expected = StoreException.class)
+    public void getCategorySubtreeTest_whenCategoryNotExists_thenException(){
+        categoryDao.getCategorySubtree(200);
+    }
 }
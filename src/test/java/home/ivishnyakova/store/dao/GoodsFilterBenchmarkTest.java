@@ -0,0 +1,151 @@
+package home.ivishnyakova.store.dao;
+
+import home.ivishnyakova.store.config.TestContextConfig;
+import home.ivishnyakova.store.entity.Category;
+import home.ivishnyakova.store.entity.Goods;
+import home.ivishnyakova.store.entity.Producer;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlGroup;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static home.ivishnyakova.store.utils.CategoryLevel.SUB_CATEGORY;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+/*Класс GoodsFilterBenchmarkTest сравнивает время выполнения фильтра товаров (страница "/getGoodsByFilter")
+* с параметризованными шаблонами запросов (GoodsDao.getGoodsSummaryListByFilter) и с запросами,
+* в текст которых подставлены значения фильтра (как было до перехода на шаблоны).
+* Выводит 50-й и 99-й процентили времени выполнения запроса (мс).
+*
+* Для работы требуется БД (как для CategoryStoreDaoTest), поэтому тест не входит в сборку.
+*
+* Автор: Вишнякова И.
+* */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = { TestContextConfig.class })
+@SqlGroup({
+        @Sql("/sql/drop-tables.sql"),
+        @Sql("/sql/create-tables.sql"),
+        @Sql("/sql/insert-data.sql")
+})
+public class GoodsFilterBenchmarkTest {
+
+    //кол-во добавляемых товаров
+    private static final int GOODS_COUNT = 20000;
+    //кол-во запросов (прогрев и замер)
+    private static final int WARM_UP_COUNT = 500;
+    private static final int REQUEST_COUNT = 3000;
+
+    //для доступа к данным БД
+    @Autowired
+    private GoodsDao goodsDao;
+
+    @Autowired
+    private CategoryDao categoryDao;
+
+    @Autowired
+    private ProducerDao producerDao;
+
+    //для выполнения запросов с подставленными значениями фильтра
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /*Сценарий: выполнение одинакового набора случайных фильтров двумя способами.
+    * Результат: списки товаров совпадают, выводится время выполнения запросов.
+    * */
+    @Test
+    public void filterBenchmarkTest() {
+        List<Category> categories = categoryDao.getCategoryListByLevel(SUB_CATEGORY.getLevel());
+        List<Producer> producers = producerDao.getProducerList();
+        Random random = new Random(1);
+
+        List<Goods> goodsList = new ArrayList<>();
+        for (int i = 0; i < GOODS_COUNT; i++) {
+            goodsList.add(new Goods(0, "Benchmark " + i, random.nextInt(50000), "description " + i, random.nextBoolean(),
+                    categories.get(random.nextInt(categories.size())).getId(),
+                    producers.get(random.nextInt(producers.size())).getId()));
+        }
+        goodsDao.insertAll(goodsList);
+
+        //фильтры: категория, производитель (0 - любые), цена от, цена до, на складе
+        List<Object[]> filters = new ArrayList<>();
+        for (int i = 0; i < WARM_UP_COUNT + REQUEST_COUNT; i++) {
+            int minPrice = random.nextBoolean() ? random.nextInt(25000) : 0;
+            filters.add(new Object[]{
+                    random.nextBoolean() ? categories.get(random.nextInt(categories.size())).getId() : 0,
+                    random.nextBoolean() ? producers.get(random.nextInt(producers.size())).getId() : 0,
+                    (float) minPrice,
+                    (float) (minPrice == 0 ? 0 : minPrice + random.nextInt(25000)),
+                    random.nextBoolean()});
+        }
+
+        long[] literal = measure(filters, this::filterWithLiterals);
+        long[] parameterized = measure(filters, this::filterWithTemplates);
+
+        System.out.println("Filter with literals: " + percentiles(literal));
+        System.out.println("Filter with parameterized templates: " + percentiles(parameterized));
+
+        Object[] filter = filters.get(0);
+        assertThat(filterWithTemplates(filter), equalTo(filterWithLiterals(filter)));
+    }
+
+    //выполнение фильтров, возвращает время выполнения каждого фильтра после прогрева (нс)
+    private long[] measure(List<Object[]> filters, Filter filter) {
+        long[] times = new long[REQUEST_COUNT];
+        for (int i = 0; i < filters.size(); i++) {
+            long start = System.nanoTime();
+            filter.apply(filters.get(i));
+            if (i >= WARM_UP_COUNT)
+                times[i - WARM_UP_COUNT] = System.nanoTime() - start;
+        }
+        return times;
+    }
+
+    private int filterWithTemplates(Object[] filter) {
+        return goodsDao.getGoodsSummaryListByFilter((float) filter[2], (float) filter[3],
+                (int) filter[0], (int) filter[1], (boolean) filter[4]).size();
+    }
+
+    //запрос фильтра, в текст которого подставлены значения фильтра (кроме цены)
+    private int filterWithLiterals(Object[] filter) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder sql = new StringBuilder("SELECT id, name, price, in_storage, id_category, id_producer, " +
+                "LEFT(description, 201) AS short_description FROM goods WHERE in_storage = ").append(filter[4]);
+        if ((int) filter[0] != 0)
+            sql.append(" AND id_category = ").append(filter[0]);
+        if ((int) filter[1] != 0)
+            sql.append(" AND id_producer = ").append(filter[1]);
+        if ((float) filter[2] != 0 && (float) filter[2] <= (float) filter[3]) {
+            sql.append(" AND price BETWEEN :minPrice AND :maxPrice");
+            parameters.put("minPrice", filter[2]);
+            parameters.put("maxPrice", filter[3]);
+        }
+        sql.append(" ORDER BY name ASC");
+        return namedParameterJdbcTemplate.queryForList(sql.toString(), parameters).size();
+    }
+
+    //50-й и 99-й процентили времени (мс)
+    private static String percentiles(long[] times) {
+        long[] sorted = times.clone();
+        Arrays.sort(sorted);
+        return String.format("p50 = %.3f ms, p99 = %.3f ms",
+                sorted[sorted.length / 2] / 1e6, sorted[(int) (sorted.length * 0.99)] / 1e6);
+    }
+
+    @FunctionalInterface
+    private interface Filter {
+        int apply(Object[] filter);
+    }
+}
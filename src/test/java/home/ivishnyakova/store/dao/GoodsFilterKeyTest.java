@@ -0,0 +1,41 @@
+package home.ivishnyakova.store.dao;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNot.not;
+
+/*Класс GoodsFilterKeyTest содержит юнит-тесты для класса GoodsFilterKey -
+* нормализованных условий фильтра товаров.
+*
+* Автор: Вишнякова И.
+* */
+public class GoodsFilterKeyTest {
+
+    /*Сценарий: диапазон цен, который не включается в запрос (min > max, обе цены 0),
+    *           нормализуется к "без ограничения цены".*/
+    @Test
+    public void ofTest_givenNotAppliedPriceRange_whenNormalize_thenNoPriceRange(){
+        GoodsFilterKey noPrice = GoodsFilterKey.of(0, 0, 1, 2, true);
+
+        assertThat(GoodsFilterKey.of(5000, 1000, 1, 2, true), equalTo(noPrice));
+        assertThat(GoodsFilterKey.of(5000, 1000, 1, 2, true).hashCode(), equalTo(noPrice.hashCode()));
+        assertThat(GoodsFilterKey.of(Float.NaN, 1000, 1, 2, true), equalTo(noPrice));
+        assertThat(GoodsFilterKey.of(-0.0f, 0, 1, 2, true), equalTo(noPrice));
+        assertThat(noPrice.hasPriceRange(), equalTo(false));
+    }
+
+    /*Сценарий: диапазон цен, который включается в запрос, сохраняется;
+    *           разные условия - разные ключи.*/
+    @Test
+    public void ofTest_givenAppliedPriceRange_whenNormalize_thenPriceRangeKept(){
+        GoodsFilterKey key = GoodsFilterKey.of(-0.0f, 1000, 1, 2, true);
+
+        assertThat(key.hasPriceRange(), equalTo(true));
+        assertThat(key, equalTo(GoodsFilterKey.of(0, 1000, 1, 2, true)));
+        assertThat(GoodsFilterKey.of(1000, 1000, 1, 2, true).hasPriceRange(), equalTo(true));
+        assertThat(key, not(equalTo(GoodsFilterKey.of(0, 1000, 1, 2, false))));
+        assertThat(key, not(equalTo(GoodsFilterKey.of(0, 1000, 0, 2, true))));
+    }
+}
@@ -0,0 +1,380 @@
+package home.ivishnyakova.store.dao;
+
+import home.ivishnyakova.store.cache.LruCache;
+import home.ivishnyakova.store.config.TestContextConfig;
+import home.ivishnyakova.store.entity.Goods;
+import home.ivishnyakova.store.entity.GoodsSummary;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlGroup;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import javax.annotation.Resource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.notNullValue;
+import static org.hamcrest.core.IsNull.nullValue;
+
+/*Класс GoodsStoreDaoTest содержит тесты для проверки взаимодействия
+* слоя доступа к данным о товарах и базы данных: постраничная выборка товаров,
+* поиск товаров, список товаров без полного описания и пакетное добавление товаров.
+*
+* Автор: Вишнякова И.
+* */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = { TestContextConfig.class })
+@SqlGroup({
+        @Sql("/sql/drop-tables.sql"),
+        @Sql("/sql/create-tables.sql"),
+        @Sql("/sql/insert-data.sql")
+})
+public class GoodsStoreDaoTest {
+
+    //кол-во символов начала описания товара в списке товаров (GoodsStoreDao)
+    private static final int SHORT_DESCRIPTION_LENGTH = 200;
+
+    //для доступа к данным БД
+    @Autowired
+    private GoodsDao goodsDao;
+
+    //кеш товаров по id
+    @Resource(name = "goodsCache")
+    private LruCache<Integer, Goods> goodsCache;
+
+    //таблицы заполняются скриптами в обход DAO, id товаров повторяются - закешированные товары сбрасываются
+    @Before
+    public void refreshGoods(){
+        goodsCache.invalidateAll();
+    }
+
+    //************************* Постраничная выборка товаров *************************
+
+    /*Сценарий: выборка всех товаров по страницам в порядке наименования.
+    * Дано:
+    *   - ключ следующей страницы передается без изменений.
+    * Результат: товары всех страниц совпадают со списком товаров по наименованию (без пропусков и повторов),
+    *            у последней страницы нет ключа следующей страницы.
+    * */
+    @Test
+    public void getGoodsPageTest_whenNameOrder_thenAllGoodsOnce() {
+        List<Integer> expected = goodsDao.getGoodsList(true).stream().map(Goods::getId).collect(Collectors.toList());
+
+        List<Integer> actual = readAllPages(GoodsOrder.NAME_ASC, 5);
+
+        assertThat(actual, equalTo(expected));
+    }
+
+    /*Сценарий: выборка всех товаров по страницам в порядке убывания кода товара.
+    * Результат: коды товаров всех страниц убывают, товары не пропущены и не повторены.
+    * */
+    @Test
+    public void getGoodsPageTest_whenIdOrder_thenAllGoodsOnce() {
+        List<Integer> expected = goodsDao.getGoodsList().stream().map(Goods::getId)
+                .sorted((a, b) -> Integer.compare(b, a)).collect(Collectors.toList());
+
+        List<Integer> actual = readAllPages(GoodsOrder.ID_DESC, 7);
+
+        assertThat(actual, equalTo(expected));
+    }
+
+    /*Сценарий: наименования товаров на границе страниц совпадают без учета регистра или началом.
+    * Дано:
+    *   - страница из одного товара (каждая граница страниц - между похожими наименованиями).
+    * Результат: каждый из похожих товаров выбран ровно один раз.
+    * */
+    @Test
+    public void getGoodsPageTest_whenSimilarNamesOnPageBoundary_thenAllGoodsOnce() {
+        List<Integer> similar = new ArrayList<>();
+        for (String name : Arrays.asList("Ёлка", "ёлка", "ЁЛКА", "Ёлка ", "Ёлка искусственная")) {
+            similar.add(insertGoods(new Goods(0, name, 100, null, true, 7, 9)).getId());
+        }
+        List<Integer> expected = goodsDao.getGoodsList(true).stream().map(Goods::getId).collect(Collectors.toList());
+
+        List<Integer> actual = readAllPages(GoodsOrder.NAME_ASC, 1);
+
+        assertThat(actual, equalTo(expected));
+        assertThat(actual.containsAll(similar), equalTo(true));
+    }
+
+    /*Сценарий: кол-во товаров кратно кол-ву товаров на странице.
+    * Результат: последняя страница заполнена полностью и у нее нет ключа следующей страницы
+    *            (пустая страница не возвращается).
+    * */
+    @Test
+    public void getGoodsPageTest_whenLastPageIsFull_thenNoNextPage() {
+        int count = goodsDao.getGoodsList().size();
+
+        GoodsPage page = goodsDao.getGoodsPage(GoodsOrder.NAME_ASC, null, count);
+
+        assertThat(page.getItems().size(), equalTo(count));
+        assertThat(page.getNext(), nullValue());
+    }
+
+    /*Сценарий: последняя страница заполнена не полностью.
+    * Результат: на последней странице - оставшиеся товары, ключа следующей страницы нет.
+    * */
+    @Test
+    public void getGoodsPageTest_whenLastPageIsNotFull_thenRestOfGoods() {
+        int count = goodsDao.getGoodsList().size();
+
+        GoodsPage first = goodsDao.getGoodsPage(GoodsOrder.ID_DESC, null, count - 3);
+        GoodsPage last = goodsDao.getGoodsPage(GoodsOrder.ID_DESC, first.getNext(), count - 3);
+
+        assertThat(first.getNext(), notNullValue());
+        assertThat(last.getItems().size(), equalTo(3));
+        assertThat(last.getNext(), nullValue());
+    }
+
+    /*Сценарий: ключ страницы - не Base64.
+    * Результат: исключение IllegalArgumentException.
+    * */
+    @Test(expected = IllegalArgumentException.class)
+    public void getGoodsPageTest_whenKeyIsNotBase64_thenException() {
+        goodsDao.getGoodsPage(GoodsOrder.NAME_ASC, "%%%", 5);
+    }
+
+    /*Сценарий: ключ страницы создан для другого порядка сортировки.
+    * Результат: исключение IllegalArgumentException.
+    * */
+    @Test(expected = IllegalArgumentException.class)
+    public void getGoodsPageTest_whenKeyOfOtherOrder_thenException() {
+        String next = goodsDao.getGoodsPage(GoodsOrder.ID_DESC, null, 5).getNext();
+
+        goodsDao.getGoodsPage(GoodsOrder.NAME_ASC, next, 5);
+    }
+
+    /*Сценарий: ключ страницы для порядка по коду товара содержит не число.
+    * Результат: исключение IllegalArgumentException.
+    * */
+    @Test(expected = IllegalArgumentException.class)
+    public void getGoodsPageTest_whenKeyIsNotId_thenException() {
+        String key = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("ID_DESC|abc".getBytes(StandardCharsets.UTF_8));
+
+        goodsDao.getGoodsPage(GoodsOrder.ID_DESC, key, 5);
+    }
+
+    /*Сценарий: кол-во товаров на странице вне допустимого диапазона.
+    * Результат: исключение IllegalArgumentException.
+    * */
+    @Test(expected = IllegalArgumentException.class)
+    public void getGoodsPageTest_whenZeroLimit_thenException() {
+        goodsDao.getGoodsPage(GoodsOrder.NAME_ASC, null, 0);
+    }
+
+    //выборка всех страниц товаров: коды товаров в порядке страниц
+    private List<Integer> readAllPages(GoodsOrder order, int limit) {
+        List<Integer> ids = new ArrayList<>();
+        String next = null;
+        do {
+            GoodsPage page = goodsDao.getGoodsPage(order, next, limit);
+            assertThat(page.getItems().size() <= limit, equalTo(true));
+            page.getItems().forEach(goods -> ids.add(goods.getId()));
+            next = page.getNext();
+        } while (next != null);
+        return ids;
+    }
+
+    //************************* Поиск товаров *************************
+
+    /*Сценарий: поиск товаров по слову наименования в другой словоформе.
+    * Результат: найдены товары на складе, в наименовании которых есть слово.
+    * */
+    @Test
+    public void searchGoodsTest_whenWordForm_thenGoodsFound() {
+        List<GoodsSummary> found = goodsDao.searchGoods("холодильники", 0, 0, 0, 0, true, 0, 10);
+
+        assertThat(found.size(), equalTo(1));
+        assertThat(found.get(0).getName(), containsString("Холодильник Saturn"));
+    }
+
+    /*Сценарий: поиск товаров с условием фильтра по категории.
+    * Результат: найдены только товары заданной категории.
+    * */
+    @Test
+    public void searchGoodsTest_whenCategoryFilter_thenGoodsOfCategory() {
+        List<GoodsSummary> all = goodsDao.searchGoods("Samsung", 0, 0, 0, 0, true, 0, 100);
+        List<GoodsSummary> found = goodsDao.searchGoods("Samsung", 0, 0, 10, 0, true, 0, 100);
+
+        assertThat(all.size(), greaterThan(found.size()));
+        assertThat(found.size(), greaterThan(0));
+        found.forEach(goods -> assertThat(goods.getId_category(), equalTo(10)));
+    }
+
+    /*Сценарий: совпадение слова в наименовании одного товара и в описании другого.
+    * Результат: товар с совпадением в наименовании - первый.
+    * */
+    @Test
+    public void searchGoodsTest_whenWordInNameAndDescription_thenNameFirst() {
+        Goods inDescription = insertGoods(new Goods(0, "Чехол A1", 10, "Чехол для гирлянды", true, 7, 9));
+        Goods inName = insertGoods(new Goods(0, "Гирлянда B2", 10, "Светодиодная", true, 7, 9));
+
+        List<GoodsSummary> found = goodsDao.searchGoods("гирлянда", 0, 0, 0, 0, true, 0, 10);
+
+        assertThat(found.stream().map(GoodsSummary::getId).collect(Collectors.toList()),
+                equalTo(Arrays.asList(inName.getId(), inDescription.getId())));
+    }
+
+    /*Сценарий: поиск товаров по страницам.
+    * Результат: страницы совпадают с частями полного результата поиска.
+    * */
+    @Test
+    public void searchGoodsTest_whenOffset_thenPartOfResult() {
+        List<Integer> all = goodsDao.searchGoods("Samsung", 0, 0, 0, 0, true, 0, 100)
+                .stream().map(GoodsSummary::getId).collect(Collectors.toList());
+        List<Integer> page = goodsDao.searchGoods("Samsung", 0, 0, 0, 0, true, 1, 2)
+                .stream().map(GoodsSummary::getId).collect(Collectors.toList());
+
+        assertThat(page, equalTo(all.subList(1, 3)));
+    }
+
+    /*Сценарий: текст поиска не задан.
+    * Результат: исключение IllegalArgumentException.
+    * */
+    @Test(expected = IllegalArgumentException.class)
+    public void searchGoodsTest_whenBlankText_thenException() {
+        goodsDao.searchGoods("  ", 0, 0, 0, 0, true, 0, 10);
+    }
+
+    //************************* Товары без полного описания *************************
+
+    /*Сценарий: описание товара длиннее начала описания.
+    * Результат: начало описания обрезано и оканчивается многоточием.
+    * */
+    @Test
+    public void getGoodsSummaryByIdTest_whenLongDescription_thenShortDescription() {
+        String description = repeat('д', SHORT_DESCRIPTION_LENGTH + 50);
+        Goods goods = insertGoods(new Goods(0, "Товар с описанием", 10, description, true, 7, 9));
+
+        GoodsSummary summary = goodsDao.getGoodsSummaryById(goods.getId());
+
+        assertThat(summary.getShortDescription(),
+                equalTo(description.substring(0, SHORT_DESCRIPTION_LENGTH) + "…"));
+        assertThat(summary.getName(), equalTo(goods.getName()));
+    }
+
+    /*Сценарий: описание товара - ровно начало описания, или описания нет.
+    * Результат: начало описания совпадает с описанием.
+    * */
+    @Test
+    public void getGoodsSummaryByIdTest_whenShortOrNullDescription_thenSameDescription() {
+        String description = repeat('д', SHORT_DESCRIPTION_LENGTH);
+        Goods goods = insertGoods(new Goods(0, "Товар с описанием", 10, description, true, 7, 9));
+        Goods withoutDescription = insertGoods(new Goods(0, "Товар без описания", 10, null, true, 7, 9));
+
+        assertThat(goodsDao.getGoodsSummaryById(goods.getId()).getShortDescription(), equalTo(description));
+        assertThat(goodsDao.getGoodsSummaryById(withoutDescription.getId()).getShortDescription(), nullValue());
+    }
+
+    /*Сценарий: список товаров без полного описания.
+    * Результат: товары и их порядок совпадают со списком полных товаров.
+    * */
+    @Test
+    public void getGoodsSummaryListTest_whenDesc_thenSameAsGoodsList() {
+        List<Goods> goodsList = goodsDao.getGoodsList(false);
+        List<GoodsSummary> summaryList = goodsDao.getGoodsSummaryList(false);
+
+        assertThat(summaryList.size(), equalTo(goodsList.size()));
+        for (int i = 0; i < goodsList.size(); i++) {
+            Goods goods = goodsList.get(i);
+            GoodsSummary summary = summaryList.get(i);
+            assertThat(summary.getId(), equalTo(goods.getId()));
+            assertThat(summary.getName(), equalTo(goods.getName()));
+            assertThat(summary.getPrice(), equalTo(goods.getPrice()));
+            assertThat(summary.isIn_storage(), equalTo(goods.isIn_storage()));
+            assertThat(summary.getId_category(), equalTo(goods.getId_category()));
+            assertThat(summary.getId_producer(), equalTo(goods.getId_producer()));
+        }
+    }
+
+    //добавление товара (id товара будет проинициализирован)
+    private Goods insertGoods(Goods goods) {
+        assertThat(goodsDao.insertAll(Collections.singletonList(goods)).isSuccessful(), equalTo(true));
+        return goods;
+    }
+
+    private static String repeat(char symbol, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, symbol);
+        return new String(chars);
+    }
+
+    //************************* Пакетное добавление товаров *************************
+
+    /*Сценарий: добавление списка корректных товаров.
+    * Результат: все товары добавлены, id каждого товара - id его строки в БД.
+    * */
+    @Test
+    public void insertAllTest_whenCorrectGoods_thenIdsOfRows() {
+        List<Goods> goodsList = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            goodsList.add(new Goods(0, "Пакетный товар " + (char) ('Я' - i), 10 + i, "Описание " + i, true, 7, 9));
+        }
+
+        BatchResult result = goodsDao.insertAll(goodsList);
+
+        assertThat(result.getProcessed(), equalTo(10));
+        assertThat(result.isSuccessful(), equalTo(true));
+        for (Goods goods : goodsList) {
+            Goods stored = goodsDao.getGoodsById(goods.getId());
+            assertThat(stored.getName(), equalTo(goods.getName()));
+            assertThat(stored.getPrice(), equalTo(goods.getPrice()));
+        }
+    }
+
+    /*Сценарий: в списке есть пустой товар, не корректный товар, товар с существующим наименованием
+    *           и повтор наименования внутри списка.
+    * Результат: корректные товары добавлены и получили id, ошибки - по номерам остальных товаров,
+    *            id ошибочных товаров не изменены.
+    * */
+    @Test
+    public void insertAllTest_whenSomeGoodsNotCorrect_thenFailuresByRow() {
+        String existingName = goodsDao.getGoodsList().get(0).getName();
+        List<Goods> goodsList = Arrays.asList(
+                new Goods(0, "Пакетный товар 1", 10, null, true, 7, 9),
+                null,
+                new Goods(0, "Пакетный товар 2", -1, null, true, 7, 9),
+                new Goods(0, existingName, 10, null, true, 7, 9),
+                new Goods(0, "Пакетный товар 3", 10, null, true, 7, 9),
+                new Goods(0, "Пакетный товар 3", 20, null, true, 7, 9));
+
+        BatchResult result = goodsDao.insertAll(goodsList);
+
+        assertThat(result.getProcessed(), equalTo(2));
+        assertThat(new ArrayList<>(result.getFailures().keySet()), equalTo(Arrays.asList(1, 2, 3, 5)));
+        for (int row : Arrays.asList(0, 4)) {
+            Goods goods = goodsList.get(row);
+            assertThat(goods.getId(), greaterThan(0));
+            assertThat(goodsDao.getGoodsById(goods.getId()).getPrice(), equalTo(goods.getPrice()));
+        }
+        for (int row : Arrays.asList(2, 3, 5)) {
+            assertThat(goodsList.get(row).getId(), equalTo(0));
+        }
+    }
+
+    /*Сценарий: добавление пустого списка товаров.
+    * Результат: товары не добавлены, ошибок нет.
+    * */
+    @Test
+    public void insertAllTest_whenEmptyList_thenNothing() {
+        BatchResult result = goodsDao.insertAll(new ArrayList<>());
+
+        assertThat(result.getProcessed(), equalTo(0));
+        assertThat(result.isSuccessful(), equalTo(true));
+    }
+}
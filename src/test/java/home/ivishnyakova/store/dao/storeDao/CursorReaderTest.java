@@ -0,0 +1,159 @@
+package home.ivishnyakova.store.dao.storeDao;
+
+import home.ivishnyakova.store.config.db.PooledDataSource;
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.AbandonedConfig;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+/*Класс CursorReaderTest содержит юнит-тесты для класса CursorReader -
+* чтения результата запроса курсором (без БД: соединения пула - заглушки).
+*
+* Автор: Вишнякова И.
+* */
+public class CursorReaderTest {
+
+    //время, через которое пул закрывает брошенное соединение, с
+    private static final int ABANDONED_TIMEOUT = 1;
+
+    //кол-во строк результата и время обработки строки (медленный клиент), мс
+    private static final int ROWS = 25;
+    private static final long ROW_MILLIS = 100;
+
+    //закрытые пулом соединения
+    private final AtomicInteger destroyed = new AtomicInteger();
+
+    private GenericObjectPool<Connection> pool;
+
+    @After
+    public void tearDown() {
+        pool.close();
+    }
+
+    /*Сценарий: чтение курсором длится дольше removeAbandonedTimeout, использование соединений отмечается.
+    * Результат: соединение не закрыто пулом, прочитаны все строки.*/
+    @Test
+    public void forEachTest_givenUsageTracking_whenLongerThanAbandonedTimeout_thenAllRowsRead() throws Exception {
+        PooledDataSource dataSource = createDataSource(true);
+
+        List<Integer> rows = readSlowly(dataSource);
+
+        assertThat(rows.size(), equalTo(ROWS));
+        assertThat(destroyed.get(), equalTo(0));
+    }
+
+    /*Сценарий: чтение курсором длится дольше removeAbandonedTimeout, использование соединений не отмечается.
+    * Результат: пул закрывает соединение, как брошенное.*/
+    @Test
+    public void forEachTest_givenNoUsageTracking_whenLongerThanAbandonedTimeout_thenConnectionRemoved() throws Exception {
+        PooledDataSource dataSource = createDataSource(false);
+
+        readSlowly(dataSource);
+
+        assertThat(destroyed.get(), equalTo(1));
+    }
+
+    /*Метод readSlowly читает строки курсором порциями по 1 строке, обрабатывая каждую строку ROW_MILLIS мс.
+    * При обработке последней строки получает из пула другое соединение (пул проверяет брошенные соединения).
+    * @return   прочитанные строки.
+    * */
+    private List<Integer> readSlowly(PooledDataSource dataSource) throws Exception {
+        List<Integer> rows = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            CursorReader.forEach(connection, "SELECT * FROM goods", 1, (resultSet, rowNum) -> rowNum, row -> {
+                try {
+                    Thread.sleep(ROW_MILLIS);
+                    if (row == ROWS - 1)
+                        dataSource.getConnection().close();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+                rows.add(row);
+            });
+        }
+        return rows;
+    }
+
+    //источник данных с пулом из 3 соединений (брошенные соединения проверяются при выдаче соединения)
+    private PooledDataSource createDataSource(boolean useUsageTracking) {
+        GenericObjectPoolConfig config = new GenericObjectPoolConfig();
+        config.setMaxTotal(3);
+        config.setJmxEnabled(false);
+
+        AbandonedConfig abandonedConfig = new AbandonedConfig();
+        abandonedConfig.setRemoveAbandonedOnBorrow(true);
+        abandonedConfig.setRemoveAbandonedTimeout(ABANDONED_TIMEOUT);
+        abandonedConfig.setUseUsageTracking(useUsageTracking);
+
+        pool = new GenericObjectPool<>(new StubConnectionFactory(), config, abandonedConfig);
+        return new PooledDataSource(pool);
+    }
+
+    /*Класс StubConnectionFactory создает соединения-заглушки:
+    * запрос возвращает ROWS строк, закрытие соединения учитывается в destroyed.*/
+    private class StubConnectionFactory extends BasePooledObjectFactory<Connection> {
+
+        @Override
+        public Connection create() {
+            AtomicBoolean closed = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close":
+                                if (!closed.getAndSet(true))
+                                    destroyed.incrementAndGet();
+                                return null;
+                            case "isClosed":
+                                return closed.get();
+                            case "getAutoCommit":
+                                return true;
+                            case "prepareStatement":
+                                return statement();
+                            default:
+                                return null;
+                        }
+                    });
+        }
+
+        @Override
+        public PooledObject<Connection> wrap(Connection connection) {
+            return new DefaultPooledObject<>(connection);
+        }
+
+        @Override
+        public void destroyObject(PooledObject<Connection> pooledObject) throws Exception {
+            pooledObject.getObject().close();
+        }
+
+        private PreparedStatement statement() {
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    (proxy, method, args) -> method.getName().equals("executeQuery") ? resultSet() : null);
+        }
+
+        private ResultSet resultSet() {
+            AtomicInteger row = new AtomicInteger();
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                    (proxy, method, args) -> method.getName().equals("next") ? row.incrementAndGet() <= ROWS : null);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package home.ivishnyakova.store.filter;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+
+/*Класс CompressionFilterTest содержит юнит-тесты для фильтра CompressionFilter
+* (выбор способа сжатия, сжатие ответов по типу содержимого и размеру).
+*
+* Автор: Вишнякова И.
+* */
+public class CompressionFilterTest {
+
+    //мин. размер сжимаемого ответа
+    private static final int MIN_SIZE = 100;
+
+    private CompressionFilter filter;
+
+    @Before
+    public void setUp(){
+        filter = new CompressionFilter();
+        filter.setMimeTypes("application/json, text/html");
+        filter.setMinSize(MIN_SIZE);
+    }
+
+    /*Сценарий: выбор способа сжатия по заголовку Accept-Encoding.*/
+    @Test
+    public void negotiateEncodingTest_givenAcceptEncoding_whenNegotiate_thenPreferredEncoding(){
+        assertThat(CompressionFilter.negotiateEncoding("gzip, deflate, br"), equalTo("gzip"));
+        assertThat(CompressionFilter.negotiateEncoding("deflate"), equalTo("deflate"));
+        assertThat(CompressionFilter.negotiateEncoding("gzip;q=0.5, deflate"), equalTo("deflate"));
+        assertThat(CompressionFilter.negotiateEncoding("gzip;q=0, *"), equalTo("deflate"));
+        assertThat(CompressionFilter.negotiateEncoding("*"), equalTo("gzip"));
+        assertThat(CompressionFilter.negotiateEncoding("identity"), nullValue());
+        assertThat(CompressionFilter.negotiateEncoding(null), nullValue());
+    }
+
+    /*Сценарий: большой ответ сжимаемого типа - сжимается gzip, Content-Length не передается,
+    *           ETag становится слабым.*/
+    @Test
+    public void doFilterTest_givenLargeJsonResponse_whenFilter_thenGzipped() throws Exception {
+        String body = repeat("{\"name\":\"товар\"},", 200);
+        MockHttpServletResponse response = filter("gzip", "application/json;charset=UTF-8", body);
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING), equalTo("gzip"));
+        assertThat(response.getHeader(HttpHeaders.VARY), equalTo(HttpHeaders.ACCEPT_ENCODING));
+        assertThat(response.getHeader(HttpHeaders.CONTENT_LENGTH), nullValue());
+        assertThat(response.getHeader(HttpHeaders.ETAG), equalTo("W/\"goods-1\""));
+        assertThat(gunzip(response.getContentAsByteArray()), equalTo(body));
+    }
+
+    /*Сценарий: большой ответ, клиент принимает только deflate - сжимается deflate.*/
+    @Test
+    public void doFilterTest_givenDeflateOnly_whenFilter_thenDeflated() throws Exception {
+        String body = repeat("<p>страница</p>", 100);
+        MockHttpServletResponse response = filter("deflate", "text/html;charset=UTF-8", body);
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING), equalTo("deflate"));
+        assertThat(StreamUtils.copyToString(new InflaterInputStream(
+                new ByteArrayInputStream(response.getContentAsByteArray())), StandardCharsets.UTF_8), equalTo(body));
+    }
+
+    /*Сценарий: ответ меньше мин. размера, ответ несжимаемого типа, клиент не принимает сжатие -
+    *           ответ передается без изменений.*/
+    @Test
+    public void doFilterTest_givenSmallOrNotCompressibleResponse_whenFilter_thenNotCompressed() throws Exception {
+        String small = "{\"id\":1}";
+        MockHttpServletResponse response = filter("gzip", "application/json;charset=UTF-8", small);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING), nullValue());
+        assertThat(response.getContentAsString(), equalTo(small));
+        assertThat(response.getContentLength(), equalTo(small.length()));
+
+        String csv = repeat("1;товар;100\n", 100);
+        response = filter("gzip", "text/csv;charset=UTF-8", csv);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING), nullValue());
+        assertThat(response.getContentAsString(), equalTo(csv));
+
+        String body = repeat("{\"name\":\"товар\"},", 200);
+        response = filter(null, "application/json;charset=UTF-8", body);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING), nullValue());
+        assertThat(response.getContentAsString(), equalTo(body));
+    }
+
+    //выполнение запроса через фильтр; сервлет пишет body частями
+    private MockHttpServletResponse filter(String acceptEncoding, String contentType, String body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/goods");
+        if (acceptEncoding != null)
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setCharacterEncoding("UTF-8");
+
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resp.setContentType(contentType);
+                resp.setHeader(HttpHeaders.ETAG, "\"goods-1\"");
+                for (int i = 0; i < body.length(); i += 10)
+                    resp.getWriter().write(body, i, Math.min(10, body.length() - i));
+                resp.flushBuffer();
+            }
+        };
+        filter.doFilter(request, response, new MockFilterChain(servlet));
+        return response;
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        return StreamUtils.copyToString(new GZIPInputStream(new ByteArrayInputStream(bytes)), StandardCharsets.UTF_8);
+    }
+
+    private static String repeat(String text, int count) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++)
+            builder.append(text);
+        return builder.toString();
+    }
+}
@@ -0,0 +1,143 @@
+package home.ivishnyakova.store.filter;
+
+import home.ivishnyakova.store.cache.PageCache;
+import home.ivishnyakova.store.catalog.CatalogEvent;
+import home.ivishnyakova.store.catalog.CatalogSnapshotEvent;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+
+/*Класс PageCacheFilterTest содержит юнит-тесты для кеша страниц PageCache
+* и фильтра PageCacheFilter (ключи страниц, выдача страниц из кеша, очистка кеша).
+*
+* Автор: Вишнякова И.
+* */
+public class PageCacheFilterTest {
+
+    //кол-во обращений к сервлету
+    private final AtomicInteger renders = new AtomicInteger();
+
+    private PageCache pageCache;
+    private PageCacheFilter filter;
+
+    @Before
+    public void setUp(){
+        pageCache = new PageCache(1000, 500);
+        filter = new PageCacheFilter(pageCache);
+    }
+
+    /*Сценарий: страницы вытесняются по суммарному размеру (LRU); слишком большая страница
+    *           и страница, сформированная до очистки кеша, не сохраняются.*/
+    @Test
+    public void putTest_givenPages_whenPut_thenBytesLimited(){
+        assertThat(pageCache.put("a", page(400), pageCache.getVersion()), equalTo(true));
+        assertThat(pageCache.put("b", page(400), pageCache.getVersion()), equalTo(true));
+        pageCache.get("a");
+        assertThat(pageCache.put("c", page(400), pageCache.getVersion()), equalTo(true));
+
+        assertThat(pageCache.get("b"), nullValue());
+        assertThat(pageCache.size(), equalTo(2));
+        assertThat(pageCache.getBytes(), equalTo(800L));
+        assertThat(pageCache.getStatistics().getEvictions(), equalTo(1L));
+
+        assertThat(pageCache.put("d", page(501), pageCache.getVersion()), equalTo(false));
+
+        long version = pageCache.getVersion();
+        pageCache.invalidateAll();
+        assertThat(pageCache.put("e", page(10), version), equalTo(false));
+        assertThat(pageCache.size(), equalTo(0));
+    }
+
+    /*Сценарий: параметры фильтра с одинаковыми значениями полей дают один ключ,
+    *           прочие параметры в ключ не входят.*/
+    @Test
+    public void getKeyTest_givenEqualFilters_whenGetKey_thenSameKey(){
+        MockHttpServletRequest first = request("/getGoodsByFilter");
+        first.addParameter("filterMinPrice", "1000");
+        first.addParameter("filterInStorage", "on");
+        first.addParameter("utm_source", "mail");
+        MockHttpServletRequest second = request("/getGoodsByFilter");
+        second.addParameter("filterMinPrice", "1000.0");
+        second.addParameter("filterInStorage", "true");
+        second.addParameter("filterIdCategory", "0");
+        assertThat(filter.getKey(first), equalTo(filter.getKey(second)));
+
+        MockHttpServletRequest other = request("/getGoodsByFilter");
+        other.addParameter("filterMinPrice", "1000");
+        assertThat(filter.getKey(other).equals(filter.getKey(first)), equalTo(false));
+
+        MockHttpServletRequest repeated = request("/getGoodsByFilter");
+        repeated.addParameter("filterText", new String[]{"ноутбук", "мышь"});
+        assertThat(filter.getKey(repeated), nullValue());
+    }
+
+    /*Сценарий: повторный запрос страницы - страница выдается из кеша без обращения к сервлету;
+    *           после изменения каталога и после замены снимка каталога страница формируется заново.*/
+    @Test
+    public void doFilterTest_givenCachedPage_whenRequest_thenServedFromCache() throws Exception {
+        MockHttpServletResponse response = filter(request("/"), "<html>товары</html>", false);
+        assertThat(response.getContentAsString(), equalTo("<html>товары</html>"));
+
+        response = filter(request("/"), "<html>другие товары</html>", false);
+        assertThat(response.getContentAsString(), equalTo("<html>товары</html>"));
+        assertThat(response.getContentType(), equalTo("text/html;charset=UTF-8"));
+        assertThat(renders.get(), equalTo(1));
+
+        filter.onCatalogChanged(new CatalogEvent(this, CatalogEvent.Change.UPDATED, 1));
+        response = filter(request("/"), "<html>другие товары</html>", false);
+        assertThat(response.getContentAsString(), equalTo("<html>другие товары</html>"));
+        assertThat(renders.get(), equalTo(2));
+
+        filter.onSnapshotChanged(new CatalogSnapshotEvent(this));
+        response = filter(request("/"), "<html>новый снимок</html>", false);
+        assertThat(response.getContentAsString(), equalTo("<html>новый снимок</html>"));
+        assertThat(renders.get(), equalTo(3));
+    }
+
+    /*Сценарий: страница с описанием ошибки и страница администрирования не кешируются.*/
+    @Test
+    public void doFilterTest_givenErrorOrOtherPage_whenRequest_thenNotCached() throws Exception {
+        filter(request("/getGoodsByFilter"), "<html>ошибка</html>", true);
+        filter(request("/getGoods"), "<html>товары</html>", false);
+
+        assertThat(pageCache.size(), equalTo(0));
+    }
+
+    //выполнение запроса через фильтр; сервлет формирует страницу body
+    private MockHttpServletResponse filter(MockHttpServletRequest request, String body, boolean error) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                renders.incrementAndGet();
+                if (error)
+                    req.setAttribute(WebUtils.ERROR_EXCEPTION_ATTRIBUTE, new IllegalStateException());
+                resp.setContentType("text/html;charset=UTF-8");
+                resp.getWriter().write(body);
+            }
+        };
+        filter.doFilter(request, response, new MockFilterChain(servlet));
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+
+    private static PageCache.Page page(int size) {
+        return new PageCache.Page("text/html;charset=UTF-8", new byte[size]);
+    }
+}
@@ -0,0 +1,60 @@
+package home.ivishnyakova.store.rest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import home.ivishnyakova.store.entity.Goods;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+/*Класс CborHttpMessageConverterTest содержит юнит-тесты для конвертера CborHttpMessageConverter
+* (запись и чтение ресурсов в формате cbor).
+*
+* Автор: Вишнякова И.
+* */
+public class CborHttpMessageConverterTest {
+
+    //тип списка товаров
+    private static final Type GOODS_LIST = new TypeReference<List<Goods>>() {}.getType();
+
+    private final CborHttpMessageConverter converter = new CborHttpMessageConverter();
+
+    /*Сценарий: конвертер поддерживает только тип содержимого application/cbor.*/
+    @Test
+    public void canWriteTest_givenMediaType_whenCheck_thenOnlyCbor(){
+        assertThat(converter.canWrite(Goods.class, CborHttpMessageConverter.APPLICATION_CBOR), equalTo(true));
+        assertThat(converter.canRead(Goods.class, CborHttpMessageConverter.APPLICATION_CBOR), equalTo(true));
+        assertThat(converter.canWrite(Goods.class, MediaType.APPLICATION_JSON_UTF8), equalTo(false));
+    }
+
+    /*Сценарий: список товаров записывается в cbor и читается обратно без изменений;
+    *           cbor короче json.*/
+    @Test
+    public void writeTest_givenGoodsList_whenWriteAndRead_thenSameGoods() throws Exception {
+        List<Goods> goodsList = new ArrayList<>();
+        for (int i = 1; i <= 100; i++)
+            goodsList.add(new Goods(i, "Ноутбук " + i, 1000f + i, i % 2 == 0 ? "Описание " + i : null, i % 3 != 0, 1 + i % 5, 1 + i % 7));
+
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(goodsList, GOODS_LIST, CborHttpMessageConverter.APPLICATION_CBOR, output);
+        assertThat(output.getHeaders().getContentType(), equalTo(CborHttpMessageConverter.APPLICATION_CBOR));
+
+        @SuppressWarnings("unchecked")
+        List<Goods> result = (List<Goods>) converter.read(GOODS_LIST, null, new MockHttpInputMessage(output.getBodyAsBytes()));
+        assertThat(result, equalTo(goodsList));
+
+        MockHttpOutputMessage json = new MockHttpOutputMessage();
+        new MappingJackson2HttpMessageConverter(new ObjectMapper()).write(goodsList, GOODS_LIST, MediaType.APPLICATION_JSON_UTF8, json);
+        assertThat(output.getBodyAsBytes().length, lessThan(json.getBodyAsBytes().length));
+    }
+}
@@ -0,0 +1,128 @@
+package home.ivishnyakova.store.rest;
+
+import home.ivishnyakova.store.catalog.CatalogEvent;
+import home.ivishnyakova.store.catalog.CatalogVersions;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsNull.nullValue;
+
+/*Класс ConditionalRequestHandlerTest содержит юнит-тесты для класса ConditionalRequestHandler
+* (условные GET-запросы ресурсов каталога по версиям CatalogVersions).
+*
+* Автор: Вишнякова И.
+* */
+public class ConditionalRequestHandlerTest {
+
+    //время запуска (версии ресурсов)
+    private static final long START_TIME = 1500000000000L;
+
+    private CatalogVersions catalogVersions;
+    private ConditionalRequestHandler handler;
+
+    //кол-во загрузок ресурса
+    private AtomicInteger loads;
+
+    @Before
+    public void setUp(){
+        catalogVersions = new CatalogVersions(START_TIME);
+        handler = new ConditionalRequestHandler();
+        ReflectionTestUtils.setField(handler, "catalogVersions", catalogVersions);
+        loads = new AtomicInteger();
+    }
+
+    /*Сценарий: запрос без условных заголовков - ресурс загружается, ответ содержит ETag и Last-Modified.*/
+    @Test
+    public void getTest_givenNoConditionalHeaders_whenGet_thenOkWithETag(){
+        ResponseEntity<String> response = get(headers(MediaType.APPLICATION_JSON_UTF8));
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(response.getBody(), equalTo("producers"));
+        assertThat(response.getHeaders().getETag(), equalTo(
+                catalogVersions.getETag(CatalogVersions.Resource.PRODUCERS,
+                        catalogVersions.getVersion(CatalogVersions.Resource.PRODUCERS), "json")));
+        assertThat(response.getHeaders().getLastModified(), equalTo(START_TIME));
+        assertThat(loads.get(), equalTo(1));
+    }
+
+    /*Сценарий: If-None-Match с текущим ETag - ответ 304 без загрузки ресурса.*/
+    @Test
+    public void getTest_givenCurrentETag_whenGet_thenNotModifiedWithoutLoading(){
+        String eTag = get(headers(MediaType.APPLICATION_JSON_UTF8)).getHeaders().getETag();
+
+        HttpHeaders headers = headers(MediaType.APPLICATION_JSON_UTF8);
+        headers.setIfNoneMatch(eTag);
+        ResponseEntity<String> response = get(headers);
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_MODIFIED));
+        assertThat(response.getBody(), nullValue());
+        assertThat(response.getHeaders().getETag(), equalTo(eTag));
+        assertThat(loads.get(), equalTo(1));
+    }
+
+    /*Сценарий: ресурс изменен после получения ETag - ресурс загружается, ETag изменяется.
+    *           Изменение другого ресурса не изменяет ETag.*/
+    @Test
+    public void getTest_givenChangedResource_whenGet_thenOkWithNewETag(){
+        String eTag = get(headers(MediaType.APPLICATION_JSON_UTF8)).getHeaders().getETag();
+
+        catalogVersions.onCatalogChanged(new CatalogEvent(this, CatalogEvent.Change.UPDATED, 1));
+        HttpHeaders headers = headers(MediaType.APPLICATION_JSON_UTF8);
+        headers.setIfNoneMatch(eTag);
+        assertThat(get(headers).getStatusCode(), equalTo(HttpStatus.NOT_MODIFIED));
+
+        catalogVersions.onCatalogChanged(new CatalogEvent(this, CatalogEvent.Change.PRODUCERS, 0));
+        ResponseEntity<String> response = get(headers);
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(response.getHeaders().getETag(), not(equalTo(eTag)));
+        assertThat(loads.get(), equalTo(2));
+    }
+
+    /*Сценарий: ETag формата json не подходит для запроса в формате xml.*/
+    @Test
+    public void getTest_givenETagOfOtherFormat_whenGet_thenOk(){
+        String eTag = get(headers(MediaType.APPLICATION_JSON_UTF8)).getHeaders().getETag();
+
+        HttpHeaders headers = headers(MediaType.APPLICATION_XML);
+        headers.setIfNoneMatch(eTag);
+        ResponseEntity<String> response = get(headers);
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(response.getHeaders().getETag(), not(equalTo(eTag)));
+    }
+
+    /*Сценарий: If-Modified-Since не раньше времени изменения ресурса - ответ 304.*/
+    @Test
+    public void getTest_givenIfModifiedSince_whenGet_thenNotModified(){
+        HttpHeaders headers = headers(MediaType.APPLICATION_JSON_UTF8);
+        headers.setIfModifiedSince(START_TIME);
+
+        assertThat(get(headers).getStatusCode(), equalTo(HttpStatus.NOT_MODIFIED));
+        assertThat(loads.get(), equalTo(0));
+    }
+
+    private ResponseEntity<String> get(HttpHeaders headers){
+        return handler.get(headers, CatalogVersions.Resource.PRODUCERS, () -> {
+            loads.incrementAndGet();
+            return "producers";
+        });
+    }
+
+    private static HttpHeaders headers(MediaType accept){
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(Collections.singletonList(accept));
+        return headers;
+    }
+}
@@ -0,0 +1,70 @@
+package home.ivishnyakova.store.utils;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+
+/*Класс CsvReaderTest содержит юнит-тесты для класса CsvReader,
+* который выполняет построчное чтение данных в формате CSV.
+*
+* Автор: Вишнякова И.
+* */
+public class CsvReaderTest {
+
+    /*Сценарий: чтение записей без кавычек, строки разделены \n и \r\n.
+    * Результат: записи прочитаны, после последней записи - null.
+    * */
+    @Test
+    public void readRecordTest_whenSimpleRecords_thenOk() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a,b,c\r\n1,,3\n"));
+
+        assertThat(reader.readRecord(), equalTo(Arrays.asList("a", "b", "c")));
+        assertThat(reader.readRecord(), equalTo(Arrays.asList("1", "", "3")));
+        assertThat(reader.readRecord(), nullValue());
+    }
+
+    /*Сценарий: чтение последней записи без перевода строки.
+    * Результат: запись прочитана.
+    * */
+    @Test
+    public void readRecordTest_whenNoLastLineBreak_thenOk() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("x,y"));
+
+        assertThat(reader.readRecord(), equalTo(Arrays.asList("x", "y")));
+        assertThat(reader.readRecord(), nullValue());
+    }
+
+    /*Сценарий: чтение полей в кавычках, содержащих запятую, кавычки и перевод строки.
+    * Результат: поля прочитаны без внешних кавычек, номера строк записей - верные.
+    * */
+    @Test
+    public void readRecordTest_whenQuotedFields_thenOk() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(
+                "\"Ноутбук, 15\"\"\",\"строка 1\nстрока 2\",1\n" +
+                "next,2,3\n"));
+
+        List<String> record = reader.readRecord();
+        assertThat(record, equalTo(Arrays.asList("Ноутбук, 15\"", "строка 1\nстрока 2", "1")));
+        assertThat(reader.getLineNumber(), equalTo(1L));
+
+        record = reader.readRecord();
+        assertThat(record, equalTo(Arrays.asList("next", "2", "3")));
+        assertThat(reader.getLineNumber(), equalTo(3L));
+    }
+
+    /*Сценарий: чтение поля с незакрытыми кавычками.
+    * Результат: исключение IOException.
+    * */
+    @Test(expected = IOException.class)
+    public void readRecordTest_whenUnclosedQuote_thenException() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("\"abc,1\n"));
+        reader.readRecord();
+    }
+}
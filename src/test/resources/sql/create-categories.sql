@@ -4,6 +4,8 @@ CREATE TABLE IF NOT EXISTS categories(
 	name    	VARCHAR(255) 	NOT NULL UNIQUE,  	   		-- название категории
 	id_category INTEGER 		DEFAULT NULL,				-- категория товара	(рекурсивная связь)
 	no_level	SMALLINT		NOT NULL DEFAULT 0,			-- уровень вложенности категории в дереве [0;5]
+	path_ids	TEXT			NOT NULL DEFAULT '',		-- путь в дереве: коды категорий от корня, '/1/2/7/'
+	full_name	TEXT			NOT NULL DEFAULT '',		-- полное название категории в дереве: названия от корня через '->', 'Корень->Категория->Подкатегория'
 
 	CONSTRAINT category_id PRIMARY KEY (id),
 
@@ -11,4 +13,8 @@ CREATE TABLE IF NOT EXISTS categories(
 
 	CONSTRAINT fkey_category_in_categories FOREIGN KEY (id_category) REFERENCES categories (id)
 	ON DELETE CASCADE ON UPDATE CASCADE
-);
\ No newline at end of file
+);
+
+/*Индексы для поиска категорий по уровню и поддерева категории по префиксу пути*/
+CREATE INDEX IF NOT EXISTS categories_no_level ON categories (no_level, full_name);
+CREATE INDEX IF NOT EXISTS categories_path_ids ON categories (path_ids text_pattern_ops);
\ No newline at end of file
@@ -19,4 +19,8 @@ CREATE TABLE IF NOT EXISTS goods(
 
 	CONSTRAINT fkey_producer_in_goods FOREIGN KEY (id_producer) REFERENCES producers (id)
 	ON DELETE NO ACTION ON UPDATE CASCADE
-);
\ No newline at end of file
+);
+
+/*Индекс полнотекстового поиска товаров: наименование (вес A) и описание (вес B)*/
+CREATE INDEX IF NOT EXISTS goods_search ON goods USING GIN
+	((setweight(to_tsvector('russian', name), 'A') || setweight(to_tsvector('russian', COALESCE(description, '')), 'B')));
@@ -38,3 +38,13 @@ INSERT INTO categories(name,no_level,id_category) VALUES('Варочные па
 INSERT INTO categories(name,no_level,id_category) VALUES('Весы кухонные',2,6);
 
 INSERT INTO categories(name,no_level,id_category) VALUES('Бытовая химия',1,1);
+
+/*Заполнение путей категорий в дереве (при добавлении категорий через CategoryDao пути заполняются DAO)*/
+WITH RECURSIVE tree(id, path_ids, full_name) AS (
+	SELECT id, '/' || id || '/', CAST(name AS TEXT) FROM categories WHERE id_category IS NULL
+		UNION ALL
+	SELECT c.id, tree.path_ids || c.id || '/', tree.full_name || '->' || c.name
+	FROM categories c INNER JOIN tree ON (tree.id = c.id_category)
+)
+UPDATE categories c SET path_ids = tree.path_ids, full_name = tree.full_name
+FROM tree WHERE c.id = tree.id;